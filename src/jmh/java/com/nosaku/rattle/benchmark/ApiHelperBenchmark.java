@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.benchmark;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nosaku.rattle.ApiHelper;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Request building and the full exchange through ApiHelper for each method. The
+ * exchange goes to a local HttpServer stub, so results do not depend on the
+ * network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiHelperBenchmark {
+	@Param({ "GET", "POST", "PUT", "DELETE", "PATCH" })
+	private String method;
+
+	private HttpServer server;
+	private ApiModelVo apiModelVo;
+
+	@Setup
+	public void setUp() throws Exception {
+		server = BenchmarkData.startStubServer(BenchmarkData.createJson(1024));
+		apiModelVo = BenchmarkData.createRequest("benchmark", method, BenchmarkData.getUrl(server, "/items"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Benchmark
+	public HttpRequest buildRequest() {
+		return ApiHelper.getInstance().createHttpRequest(apiModelVo);
+	}
+
+	@Benchmark
+	public ApiModelVo invokeApi() {
+		return ApiHelper.getInstance().invokeApiAsync(apiModelVo).join();
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.benchmark;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.vo.ApiGroupVo;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.AppVo;
+import com.nosaku.rattle.vo.SettingsVo;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Synthetic payloads shared by the benchmarks
+ */
+public class BenchmarkData {
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Builds a compact JSON array of todo-like objects of roughly the given size in bytes
+	 */
+	public static String createJson(int approximateSize) {
+		StringBuilder builder = new StringBuilder(approximateSize + 256);
+		builder.append('[');
+		int id = 0;
+		while (builder.length() < approximateSize) {
+			if (id > 0) {
+				builder.append(',');
+			}
+			builder.append("{\"userId\":").append(id % 10).append(",\"id\":").append(id)
+					.append(",\"title\":\"delectus aut autem ").append(id)
+					.append("\",\"completed\":").append(id % 3 == 0)
+					.append(",\"score\":").append(id * 1.25)
+					.append(",\"tags\":[\"alpha\",\"beta\"],\"owner\":null}");
+			id++;
+		}
+		builder.append(']');
+		return builder.toString();
+	}
+
+	/**
+	 * Builds a saved request with a few params and headers and, for methods that
+	 * send one, a small JSON body
+	 */
+	public static ApiModelVo createRequest(String id, String method, String url) {
+		ApiModelVo apiModelVo = new ApiModelVo();
+		apiModelVo.setId(id);
+		apiModelVo.setName("Request " + id);
+		apiModelVo.setMethod(method);
+		apiModelVo.setUrl(url);
+		apiModelVo.setParams(createParams(5));
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put("Accept", "application/json");
+		headers.put("X-Request-Id", id);
+		headers.put("X-Trace", "trace-" + id);
+		apiModelVo.setHeaders(headers);
+		if (CommonConstants.HTTP_METHOD_POST.equals(method) || CommonConstants.HTTP_METHOD_PUT.equals(method)
+				|| CommonConstants.HTTP_METHOD_PATCH.equals(method)) {
+			apiModelVo.setBody("{\"id\": \"" + id + "\", \"title\": \"delectus aut autem\", "
+					+ "\"completed\": false}");
+		}
+		return apiModelVo;
+	}
+
+	public static Map<String, String> createParams(int count) {
+		Map<String, String> params = new LinkedHashMap<>();
+		for (int i = 0; i < count; i++) {
+			params.put("param" + i, "value" + i);
+		}
+		return params;
+	}
+
+	/**
+	 * Starts a local server that answers every request with the given JSON, so
+	 * exchanges can be measured without a network
+	 */
+	public static HttpServer startStubServer(String responseJson) throws IOException {
+		byte[] responseBytes = responseJson.getBytes(StandardCharsets.UTF_8);
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", exchange -> {
+			try (exchange) {
+				exchange.getRequestBody().readAllBytes();
+				exchange.getResponseHeaders().add("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, responseBytes.length);
+				exchange.getResponseBody().write(responseBytes);
+			}
+		});
+		server.start();
+		return server;
+	}
+
+	public static String getUrl(HttpServer server, String path) {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
+	}
+
+	/**
+	 * Deletes a directory left by a benchmark, with everything in it
+	 */
+	public static void deleteDirectory(Path dir) throws IOException {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+
+	/**
+	 * Builds a workspace of the given number of requests, spread over groups of 100
+	 */
+	public static AppVo createWorkspace(int requestCount) {
+		List<ApiGroupVo> groups = new ArrayList<>();
+		List<ApiModelVo> requests = new ArrayList<>(requestCount);
+		String[] methods = { CommonConstants.HTTP_METHOD_GET, CommonConstants.HTTP_METHOD_POST,
+				CommonConstants.HTTP_METHOD_PUT, CommonConstants.HTTP_METHOD_DELETE, CommonConstants.HTTP_METHOD_PATCH };
+		for (int i = 0; i < requestCount; i++) {
+			if (i % 100 == 0) {
+				ApiGroupVo group = new ApiGroupVo();
+				group.setId("group-" + (i / 100));
+				group.setName("Group " + (i / 100));
+				groups.add(group);
+			}
+			ApiModelVo request = createRequest("request-" + i, methods[i % methods.length],
+					"https://api.example.com/v1/items/" + i);
+			request.setGroupId(groups.get(groups.size() - 1).getId());
+			requests.add(request);
+		}
+		AppVo appVo = new AppVo();
+		appVo.setApiGroups(groups);
+		appVo.setApiList(requests);
+		appVo.setSettings(new SettingsVo());
+		return appVo;
+	}
+}
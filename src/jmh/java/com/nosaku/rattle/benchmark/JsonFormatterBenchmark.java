@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.benchmark;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.nosaku.rattle.util.JsonFormatter;
+
+/**
+ * Compares the streaming JsonFormatter with the previous tree-based paths:
+ * Gson parse plus JsonWriter for responses and an ObjectMapper round trip for
+ * request bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFormatterBenchmark {
+	@Param({ "1024", "1048576" })
+	private int payloadSize;
+
+	private String json;
+
+	@Setup
+	public void setUp() {
+		json = BenchmarkData.createJson(payloadSize);
+	}
+
+	@Benchmark
+	public String gsonPrettyPrint() throws Exception {
+		Gson gson = new Gson();
+		StringWriter stringWriter = new StringWriter();
+		try (JsonWriter jsonWriter = new JsonWriter(stringWriter)) {
+			jsonWriter.setIndent("   ");
+			gson.toJson(JsonParser.parseString(json), jsonWriter);
+		}
+		return stringWriter.toString();
+	}
+
+	@Benchmark
+	public String jsonFormatterPrettyPrint() throws Exception {
+		return JsonFormatter.prettyPrint(json);
+	}
+
+	@Benchmark
+	public String objectMapperCompact() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		Object jsonObject = mapper.readValue(json, Object.class);
+		return mapper.writeValueAsString(jsonObject);
+	}
+
+	@Benchmark
+	public String jsonFormatterCompact() throws Exception {
+		return JsonFormatter.compact(json);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.benchmark;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nosaku.rattle.ApiHelper;
+import com.nosaku.rattle.vo.ApiModelVo;
+
+/**
+ * Encoding of the request params into the URL of a GET and into the form body of
+ * a POST without a JSON body, measured by building the request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParamEncodingBenchmark {
+	@Param({ "5", "50" })
+	private int paramCount;
+
+	private ApiModelVo getRequest;
+	private ApiModelVo postRequest;
+
+	@Setup
+	public void setUp() {
+		getRequest = BenchmarkData.createRequest("benchmark", "GET", "https://api.example.com/v1/items?page=1");
+		getRequest.setParams(BenchmarkData.createParams(paramCount));
+		postRequest = BenchmarkData.createRequest("benchmark", "POST", "https://api.example.com/v1/items");
+		postRequest.setParams(BenchmarkData.createParams(paramCount));
+		postRequest.setBody(null);
+	}
+
+	@Benchmark
+	public HttpRequest urlParams() {
+		return ApiHelper.getInstance().createHttpRequest(getRequest);
+	}
+
+	@Benchmark
+	public HttpRequest formBody() {
+		return ApiHelper.getInstance().createHttpRequest(postRequest);
+	}
+}
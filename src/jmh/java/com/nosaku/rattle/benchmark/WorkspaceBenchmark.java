@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.util.WorkspaceStore;
+import com.nosaku.rattle.vo.AppVo;
+
+/**
+ * Saving and loading synthetic workspaces, both through WorkspaceStore (a full
+ * save writes a new snapshot; a load scans it and keeps requests as stubs) and
+ * as a plain ObjectMapper write and read of the whole AppVo, the way the
+ * workspace file was handled before the store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorkspaceBenchmark {
+	@Param({ "1000", "10000", "100000" })
+	private int requestCount;
+
+	private final ObjectMapper mapper = CommonUtil.getObjectMapper();
+	private AppVo appVo;
+	private Path saveDir;
+	private Path loadDir;
+	private WorkspaceStore saveStore;
+
+	@Setup
+	public void setUp() throws Exception {
+		appVo = BenchmarkData.createWorkspace(requestCount);
+		saveDir = Files.createTempDirectory("rattle-benchmark-save");
+		saveStore = new WorkspaceStore(saveDir, Long.MAX_VALUE);
+		loadDir = Files.createTempDirectory("rattle-benchmark-load");
+		WorkspaceStore loadStore = new WorkspaceStore(loadDir, Long.MAX_VALUE);
+		loadStore.replaceAll(appVo);
+		loadStore.close();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		saveStore.close();
+		BenchmarkData.deleteDirectory(saveDir);
+		BenchmarkData.deleteDirectory(loadDir);
+	}
+
+	@Benchmark
+	public void storeSave() throws Exception {
+		saveStore.replaceAll(appVo);
+	}
+
+	@Benchmark
+	public AppVo storeLoad() throws Exception {
+		WorkspaceStore store = new WorkspaceStore(loadDir, Long.MAX_VALUE);
+		try {
+			return store.load();
+		} finally {
+			store.close();
+		}
+	}
+
+	@Benchmark
+	public void objectMapperWrite() throws Exception {
+		mapper.writeValue(saveDir.resolve("workspace.json").toFile(), appVo);
+	}
+
+	@Benchmark
+	public AppVo objectMapperRead() throws Exception {
+		return mapper.readValue(loadDir.resolve(CommonConstants.FILE_NAME).toFile(), AppVo.class);
+	}
+}
@@ -21,35 +21,46 @@
  */
 package com.nosaku.rattle;
 
-import java.io.StringWriter;
-import java.net.Authenticator;
-import java.net.InetSocketAddress;
-import java.net.PasswordAuthentication;
+import java.net.Proxy;
 import java.net.ProxySelector;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
-import com.google.gson.JsonParser;
-import com.google.gson.stream.JsonWriter;
 import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.util.ExchangeTimer;
+import com.nosaku.rattle.util.FlightEvents;
+import com.nosaku.rattle.util.JsonFormatter;
+import com.nosaku.rattle.util.OAuthTokenStore;
+import com.nosaku.rattle.util.ResponseBody;
 import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.ExchangeTimingsVo;
+import com.nosaku.rattle.vo.HttpClientProfileVo;
 import com.nosaku.rattle.vo.ProxySettingsVo;
 
 public class ApiHelper {
+	private static final int HTTP_EXECUTOR_THREADS = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
 	private static ApiHelper instance;
-	private HttpClient httpClient;
+	private final ExecutorService httpExecutor;
+	private final HttpClientRegistry httpClientRegistry;
+	private ProxySettingsVo proxySettings;
+	private HttpClientProfileVo clientProfile;
 	
 	private ApiHelper() {
-		this.httpClient = HttpClient.newHttpClient();
+		this.httpExecutor = createHttpExecutor();
+		this.httpClientRegistry = new HttpClientRegistry(httpExecutor);
+		this.clientProfile = new HttpClientProfileVo();
 	}
 
 	public static synchronized ApiHelper getInstance() {
@@ -59,256 +70,408 @@ public class ApiHelper {
 		return instance;
 	}
 	
-	public void setProxySettings(ProxySettingsVo proxySettings) {
-		this.httpClient = createHttpClientWithProxy(proxySettings);
+	/**
+	 * Switches the settings used for subsequent requests. Clients are looked up in
+	 * the registry, so toggling back to earlier settings reuses their warm client.
+	 */
+	public void setClientSettings(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile) {
+		this.proxySettings = proxySettings;
+		this.clientProfile = clientProfile != null ? clientProfile : new HttpClientProfileVo();
+		httpClientRegistry.getClient(this.proxySettings, this.clientProfile);
 	}
 	
-	private HttpClient createHttpClientWithProxy(ProxySettingsVo proxySettings) {
-		HttpClient.Builder builder = HttpClient.newBuilder();
-		
-		if (proxySettings != null) {
-			ProxySettingsVo.ProxyMode mode = proxySettings.getProxyMode();
-			
-			if (!proxySettings.isVerifySslCertificate()) {
+	/**
+	 * Shared, bounded pool used by every HttpClient for async exchanges and response
+	 * handling, so in-flight requests no longer hold a thread each.
+	 */
+	private ExecutorService createHttpExecutor() {
+		AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newFixedThreadPool(HTTP_EXECUTOR_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, "rattle-http-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	public CompletableFuture<ApiModelVo> invokeApiAsync(ApiModelVo apiModelVo) {
+		return invokeApiAsync(apiModelVo, new ExchangeTimer());
+	}
+
+	/**
+	 * Sends the request without blocking the calling thread. The send starts on a
+	 * virtual thread, since the timer resolves the host first, and the response
+	 * formatting runs on the shared HTTP executor. Cancelling the returned future
+	 * aborts the underlying exchange. The phases of the exchange are marked on the
+	 * timer and stored as the timings of the ApiModelVo.
+	 */
+	public CompletableFuture<ApiModelVo> invokeApiAsync(ApiModelVo apiModelVo, ExchangeTimer exchangeTimer) {
+		StringBuilder consoleLog = new StringBuilder();
+		HttpRequest httpRequest;
+		try {
+			httpRequest = buildRequest(apiModelVo, exchangeTimer);
+		} catch (Exception e) {
+			logError(e, apiModelVo, consoleLog, exchangeTimer);
+			return CompletableFuture.failedFuture(e);
+		}
+		if (httpRequest == null) {
+			return CompletableFuture.completedFuture(apiModelVo);
+		}
+		logRequest(httpRequest, apiModelVo, consoleLog);
+
+		CompletableFuture<ApiModelVo> resultFuture = new CompletableFuture<>();
+		FlightEvents.ExchangeEvent exchangeEvent = new FlightEvents.ExchangeEvent();
+		exchangeEvent.begin();
+		// The DNS lookup blocks; keep it off the HTTP executor, which may be the caller
+		Thread.ofVirtual().name("rattle-send").start(() -> {
+			if (resultFuture.isDone()) {
+				return;
+			}
+			exchangeTimer.markSend(httpRequest.uri(), isResolvedByProxy(httpRequest.uri()));
+			CompletableFuture<HttpResponse<ResponseBody>> sendFuture = sendAsync(apiModelVo, httpRequest,
+					exchangeTimer.timeResponse(ResponseBody.bodyHandler(CommonConstants.RESPONSE_MEMORY_LIMIT_BYTES)));
+			sendFuture.whenCompleteAsync((httpResponse, throwable) -> {
+				if (throwable != null) {
+					Throwable cause = CommonUtil.unwrapCompletionException(throwable);
+					logError(cause, apiModelVo, consoleLog, exchangeTimer);
+					commitExchangeEvent(exchangeEvent, httpRequest, apiModelVo);
+					resultFuture.completeExceptionally(cause);
+					return;
+				}
 				try {
-					SSLContext sslContext = createInsecureSSLContext();
-					builder.sslContext(sslContext);
+					handleResponse(httpResponse, apiModelVo, consoleLog, exchangeTimer);
+					commitExchangeEvent(exchangeEvent, httpRequest, apiModelVo);
+					resultFuture.complete(apiModelVo);
 				} catch (Exception e) {
-					System.err.println("Error creating insecure SSL context: " + e.getMessage());
-				}
-			}
-			
-			if (mode == ProxySettingsVo.ProxyMode.ON) {
-				if (proxySettings.getHttpProxy() != null && !proxySettings.getHttpProxy().isEmpty()) {
-					String[] parts = proxySettings.getHttpProxy().split(":");
-					if (parts.length == 2) {
-						try {
-							int port = Integer.parseInt(parts[1]);
-							builder.proxy(ProxySelector.of(new InetSocketAddress(parts[0], port)));
-						} catch (NumberFormatException e) {
-							System.err.println("Invalid HTTP proxy port: " + parts[1]);
-						}
-					}
+					logError(e, apiModelVo, consoleLog, exchangeTimer);
+					resultFuture.completeExceptionally(e);
 				}
-				
-				if (proxySettings.getUsername() != null && !proxySettings.getUsername().isEmpty() &&
-					proxySettings.getPassword() != null && !proxySettings.getPassword().isEmpty()) {
-					final String username = proxySettings.getUsername();
-					final String password = proxySettings.getPassword();
-					
-					Authenticator authenticator = new Authenticator() {
-						@Override
-						protected PasswordAuthentication getPasswordAuthentication() {
-							return new PasswordAuthentication(username, password.toCharArray());
-						}
-					};
-					builder.authenticator(authenticator);
+			}, httpExecutor);
+			resultFuture.whenComplete((result, throwable) -> {
+				if (resultFuture.isCancelled()) {
+					sendFuture.cancel(true);
 				}
-			} else if (mode == ProxySettingsVo.ProxyMode.SYSTEM_PROXY) {
-				builder.proxy(ProxySelector.getDefault());
-			}
+			});
+		});
+		return resultFuture;
+	}
+
+	private static void commitExchangeEvent(FlightEvents.ExchangeEvent exchangeEvent, HttpRequest httpRequest,
+			ApiModelVo apiModelVo) {
+		if (!exchangeEvent.shouldCommit()) {
+			return;
 		}
-		
-		return builder.build();
+		exchangeEvent.requestId = apiModelVo.getId();
+		exchangeEvent.method = httpRequest.method();
+		exchangeEvent.url = httpRequest.uri().toString();
+		exchangeEvent.statusCode = apiModelVo.getStatusCode();
+		exchangeEvent.requestBytes = httpRequest.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength)
+				.orElse(0L);
+		exchangeEvent.responseBytes = apiModelVo.getResponseBody() != null
+				? apiModelVo.getResponseBody().getSize()
+				: 0;
+		exchangeEvent.commit();
 	}
-	
-	private SSLContext createInsecureSSLContext() throws Exception {
-		SSLContext sslContext = SSLContext.getInstance("TLS");
-		
-		TrustManager[] trustAllCerts = new TrustManager[]{
-			new X509TrustManager() {
-				@Override
-				public X509Certificate[] getAcceptedIssuers() {
-					return new X509Certificate[0];
-				}
-				
-				@Override
-				public void checkClientTrusted(X509Certificate[] certs, String authType) {
-					// No-op - trust all
-				}
-				
-				@Override
-				public void checkServerTrusted(X509Certificate[] certs, String authType) {
-					// No-op - trust all
-				}
+
+	/**
+	 * Sends the request and discards the body, for load generation where only the
+	 * status and timing matter. Skips the console log and response formatting.
+	 */
+	public CompletableFuture<Integer> sendForStatusAsync(ApiModelVo apiModelVo) {
+		HttpRequest httpRequest;
+		try {
+			httpRequest = buildRequest(apiModelVo, null);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		if (httpRequest == null) {
+			return CompletableFuture.failedFuture(
+					new IllegalArgumentException("Method " + apiModelVo.getMethod() + " is not supported"));
+		}
+		return sendAsync(apiModelVo, httpRequest, HttpResponse.BodyHandlers.discarding())
+				.thenApply(HttpResponse::statusCode);
+	}
+
+	/**
+	 * Copies what is needed to send a saved request into a new ApiModelVo, with
+	 * its own headers map for the Authorization header
+	 */
+	public static ApiModelVo createExchange(ApiModelVo savedRequest) {
+		ApiModelVo apiModelVo = new ApiModelVo();
+		apiModelVo.setId(savedRequest.getId());
+		apiModelVo.setMethod(savedRequest.getMethod());
+		apiModelVo.setUrl(savedRequest.getUrl());
+		apiModelVo.setParams(savedRequest.getParams());
+		apiModelVo.setHeaders(savedRequest.getHeaders() != null ? new LinkedHashMap<>(savedRequest.getHeaders())
+				: new LinkedHashMap<>());
+		apiModelVo.setBody(savedRequest.getBody());
+		apiModelVo.setRequestTimeoutSeconds(savedRequest.getRequestTimeoutSeconds());
+		apiModelVo.setHttpVersion(savedRequest.getHttpVersion());
+		apiModelVo.setRedirectPolicy(savedRequest.getRedirectPolicy());
+		return apiModelVo;
+	}
+
+	/**
+	 * Adds the bearer token of the auth config to the request headers. Requests
+	 * sharing an auth config wait on the same token fetch.
+	 */
+	public CompletableFuture<ApiModelVo> authorizeAsync(ApiModelVo apiModelVo, ApiModelVo authConfig) {
+		OAuthTokenStore.TokenFetcher tokenFetcher = refreshToken -> fetchAuthTokenAsync(authConfig, refreshToken);
+		return OAuthTokenStore.getInstance().getBearerTokenAsync(authConfig.getId(), tokenFetcher)
+				.thenApply(bearerToken -> {
+					if (bearerToken != null) {
+						apiModelVo.getHeaders().put("Authorization", bearerToken);
+					}
+					return apiModelVo;
+				});
+	}
+
+	/**
+	 * Calls the token endpoint of an auth config and returns the JSON response.
+	 * With a refresh token, the configured params are sent as a refresh_token grant.
+	 */
+	public CompletableFuture<String> fetchAuthTokenAsync(ApiModelVo authConfig, String refreshToken) {
+		ApiModelVo tokenRequest = new ApiModelVo();
+		tokenRequest.setMethod(authConfig.getMethod() != null ? authConfig.getMethod() : CommonConstants.HTTP_METHOD_POST);
+		tokenRequest.setUrl(authConfig.getUrl());
+		Map<String, String> params = authConfig.getParams() != null ? new LinkedHashMap<>(authConfig.getParams())
+				: new LinkedHashMap<>();
+		if (refreshToken != null) {
+			params.put("grant_type", "refresh_token");
+			params.put("refresh_token", refreshToken);
+			params.remove("username");
+			params.remove("password");
+		}
+		tokenRequest.setParams(params);
+		tokenRequest.setHeaders(authConfig.getHeaders());
+		tokenRequest.setBody(authConfig.getBody());
+
+		return invokeApiAsync(tokenRequest).thenApply(response -> {
+			if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
+				return response.getResponse();
 			}
-		};
-		
-		sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
-		return sslContext;
+			throw new CompletionException(new Exception("Auth token request failed with status "
+					+ response.getStatusCode() + ": " + response.getResponse()));
+		});
 	}
-	
-	public void invokeApi(ApiModelVo apiModelVo) throws Exception {
-		String response = null;
-		StringBuilder consoleLog = new StringBuilder();
+
+	/**
+	 * Sends on the client for the request, which stays acquired until the exchange
+	 * completes, so evicting it from the registry cannot close it mid-send.
+	 */
+	private <T> CompletableFuture<HttpResponse<T>> sendAsync(ApiModelVo apiModelVo, HttpRequest httpRequest,
+			HttpResponse.BodyHandler<T> bodyHandler) {
+		HttpClient httpClient = acquireHttpClient(apiModelVo);
+		CompletableFuture<HttpResponse<T>> sendFuture;
 		try {
-			HttpRequest httpRequest = null;
-			if (CommonConstants.HTTP_METHOD_GET.equals(apiModelVo.getMethod())) {
-				HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-						.uri(URI.create(getUrlWithParams(apiModelVo)));
-				setHeaders(requestBuilder, apiModelVo);
-				httpRequest = requestBuilder.GET().build();
-			} else if (CommonConstants.HTTP_METHOD_POST.equals(apiModelVo.getMethod())) {
-				HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-						.uri(URI.create(getUrlWithParams(apiModelVo)));
-				setHeaders(requestBuilder, apiModelVo);
-				String body = apiModelVo.getBody();
-				if (body != null && !body.trim().isEmpty()) {
-					try {
-						ObjectMapper mapper = new ObjectMapper();
-						Object jsonObject = mapper.readValue(body, Object.class);
-						String validJson = mapper.writeValueAsString(jsonObject);
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.POST(HttpRequest.BodyPublishers.ofString(validJson))
-								.build();
-					} catch (Exception e) {
-						// If JSON parsing fails, send as-is
-						System.err.println("Warning: Invalid JSON format, sending as-is: " + e.getMessage());
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.POST(HttpRequest.BodyPublishers.ofString(body))
-								.build();
-					}
-				} else if (apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
-					String paramBody = getParamBody(apiModelVo);
-					requestBuilder.header("Content-Type", "application/x-www-form-urlencoded");
-					httpRequest = requestBuilder
-							.POST(HttpRequest.BodyPublishers.ofString(paramBody))
-							.build();
-				} else {
-					httpRequest = requestBuilder
-							.POST(HttpRequest.BodyPublishers.noBody())
-							.build();
-				}
-			} else if (CommonConstants.HTTP_METHOD_PUT.equals(apiModelVo.getMethod())) {
-				HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-						.uri(URI.create(getUrlWithParams(apiModelVo)));
-				setHeaders(requestBuilder, apiModelVo);
-				String body = apiModelVo.getBody();
-				if (body != null && !body.trim().isEmpty()) {
-					try {
-						ObjectMapper mapper = new ObjectMapper();
-						Object jsonObject = mapper.readValue(body, Object.class);
-						String validJson = mapper.writeValueAsString(jsonObject);
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.PUT(HttpRequest.BodyPublishers.ofString(validJson))
-								.build();
-					} catch (Exception e) {
-						// If JSON parsing fails, send as-is
-						System.err.println("Warning: Invalid JSON format, sending as-is: " + e.getMessage());
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.PUT(HttpRequest.BodyPublishers.ofString(body))
-								.build();
-					}
-				} else if (apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
-					String paramBody = getParamBody(apiModelVo);
-					requestBuilder.header("Content-Type", "application/x-www-form-urlencoded");
-					httpRequest = requestBuilder
-							.PUT(HttpRequest.BodyPublishers.ofString(paramBody))
-							.build();
-				} else {
-					httpRequest = requestBuilder
-							.PUT(HttpRequest.BodyPublishers.noBody())
-							.build();
-				}
-			} else if (CommonConstants.HTTP_METHOD_DELETE.equals(apiModelVo.getMethod())) {
-				HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-						.uri(URI.create(getUrlWithParams(apiModelVo)));
-				setHeaders(requestBuilder, apiModelVo);
-				httpRequest = requestBuilder.DELETE().build();
-			} else if (CommonConstants.HTTP_METHOD_PATCH.equals(apiModelVo.getMethod())) {
-				HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-						.uri(URI.create(getUrlWithParams(apiModelVo)));
-				setHeaders(requestBuilder, apiModelVo);
-				String body = apiModelVo.getBody();
-				if (body != null && !body.trim().isEmpty()) {
-					try {
-						ObjectMapper mapper = new ObjectMapper();
-						Object jsonObject = mapper.readValue(body, Object.class);
-						String validJson = mapper.writeValueAsString(jsonObject);
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.method("PATCH", HttpRequest.BodyPublishers.ofString(validJson))
-								.build();
-					} catch (Exception e) {
-						// If JSON parsing fails, send as-is
-						System.err.println("Warning: Invalid JSON format, sending as-is: " + e.getMessage());
-						requestBuilder.header("Content-Type", "application/json");
-						httpRequest = requestBuilder
-								.method("PATCH", HttpRequest.BodyPublishers.ofString(body))
-								.build();
-					}
-				} else if (apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
-					String paramBody = getParamBody(apiModelVo);
-					requestBuilder.header("Content-Type", "application/x-www-form-urlencoded");
-					httpRequest = requestBuilder
-							.method("PATCH", HttpRequest.BodyPublishers.ofString(paramBody))
-							.build();
-				} else {
-					httpRequest = requestBuilder
-							.method("PATCH", HttpRequest.BodyPublishers.noBody())
-							.build();
-				}
+			sendFuture = httpClient.sendAsync(httpRequest, bodyHandler);
+		} catch (RuntimeException e) {
+			httpClientRegistry.release(httpClient);
+			throw e;
+		}
+		sendFuture.whenComplete((httpResponse, throwable) -> httpClientRegistry.release(httpClient));
+		return sendFuture;
+	}
+
+	/**
+	 * Resolves the client for the effective settings of the request, taking the
+	 * per-request redirect override into account.
+	 */
+	private HttpClient acquireHttpClient(ApiModelVo apiModelVo) {
+		HttpClientProfileVo effectiveProfile = clientProfile;
+		if (apiModelVo.getRedirectPolicy() != null && apiModelVo.getRedirectPolicy() != clientProfile.getRedirectPolicy()) {
+			effectiveProfile = new HttpClientProfileVo(clientProfile.getConnectTimeoutSeconds(),
+					clientProfile.getRequestTimeoutSeconds(), clientProfile.getHttpVersion(),
+					apiModelVo.getRedirectPolicy());
+		}
+		return httpClientRegistry.acquireClient(proxySettings, effectiveProfile);
+	}
+
+	/**
+	 * True when the request goes through a proxy, which then resolves the host
+	 */
+	private boolean isResolvedByProxy(URI uri) {
+		if (proxySettings == null) {
+			return false;
+		}
+		if (proxySettings.getProxyMode() == ProxySettingsVo.ProxyMode.ON) {
+			return proxySettings.getHttpProxy() != null && !proxySettings.getHttpProxy().isEmpty();
+		}
+		ProxySelector proxySelector = ProxySelector.getDefault();
+		if (proxySettings.getProxyMode() == ProxySettingsVo.ProxyMode.SYSTEM_PROXY && proxySelector != null) {
+			return proxySelector.select(uri).stream().anyMatch(proxy -> proxy.type() != Proxy.Type.DIRECT);
+		}
+		return false;
+	}
+
+	/**
+	 * Builds the HttpRequest the request would be sent as, with its params encoded
+	 * into the URL or the form body, without sending it
+	 *
+	 * @return null if the method is not supported
+	 */
+	public HttpRequest createHttpRequest(ApiModelVo apiModelVo) {
+		return buildRequest(apiModelVo, null);
+	}
+
+	/**
+	 * @param exchangeTimer times the body write, or null
+	 */
+	private HttpRequest buildRequest(ApiModelVo apiModelVo, ExchangeTimer exchangeTimer) {
+		String method = apiModelVo.getMethod();
+		if (!CommonConstants.HTTP_METHOD_GET.equals(method) && !CommonConstants.HTTP_METHOD_POST.equals(method)
+				&& !CommonConstants.HTTP_METHOD_PUT.equals(method) && !CommonConstants.HTTP_METHOD_DELETE.equals(method)
+				&& !CommonConstants.HTTP_METHOD_PATCH.equals(method)) {
+			return null;
+		}
+		HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+				.uri(URI.create(getUrlWithParams(apiModelVo)));
+		int requestTimeoutSeconds = apiModelVo.getRequestTimeoutSeconds() != null
+				? apiModelVo.getRequestTimeoutSeconds()
+				: clientProfile.getRequestTimeoutSeconds();
+		if (requestTimeoutSeconds > 0) {
+			requestBuilder.timeout(Duration.ofSeconds(requestTimeoutSeconds));
+		}
+		if (apiModelVo.getHttpVersion() != null) {
+			requestBuilder.version(apiModelVo.getHttpVersion());
+		}
+		setHeaders(requestBuilder, apiModelVo);
+		if (CommonConstants.HTTP_METHOD_GET.equals(method)) {
+			return requestBuilder.GET().build();
+		} else if (CommonConstants.HTTP_METHOD_DELETE.equals(method)) {
+			return requestBuilder.DELETE().build();
+		}
+		HttpRequest.BodyPublisher bodyPublisher = getBodyPublisher(requestBuilder, apiModelVo);
+		if (exchangeTimer != null) {
+			bodyPublisher = exchangeTimer.timeWrite(bodyPublisher);
+		}
+		return requestBuilder.method(method, bodyPublisher).build();
+	}
+
+	private HttpRequest.BodyPublisher getBodyPublisher(HttpRequest.Builder requestBuilder, ApiModelVo apiModelVo) {
+		String body = apiModelVo.getBody();
+		if (body != null && !body.trim().isEmpty()) {
+			requestBuilder.header("Content-Type", "application/json");
+			try {
+				String validJson = JsonFormatter.compact(body);
+				return HttpRequest.BodyPublishers.ofString(validJson);
+			} catch (Exception e) {
+				// If JSON parsing fails, send as-is
+				System.err.println("Warning: Invalid JSON format, sending as-is: " + e.getMessage());
+				return HttpRequest.BodyPublishers.ofString(body);
 			}
-			if (httpRequest != null) {
-				consoleLog.append("=== REQUEST ===\n");
-				consoleLog.append(httpRequest.method()).append(" ").append(httpRequest.uri()).append("\n\n");
-				consoleLog.append("--- Request Headers ---\n");
-				httpRequest.headers().map().forEach((key, values) -> {
-					values.forEach(value -> consoleLog.append(key).append(": ").append(value).append("\n"));
-				});
-				
-				// Log request body if present
-				if (apiModelVo.getBody() != null && !apiModelVo.getBody().trim().isEmpty()) {
-					consoleLog.append("\n--- Request Body ---\n");
-					consoleLog.append(apiModelVo.getBody()).append("\n");
-				} else if ((CommonConstants.HTTP_METHOD_POST.equals(apiModelVo.getMethod()) ||
-						   CommonConstants.HTTP_METHOD_PUT.equals(apiModelVo.getMethod()) ||
-						   CommonConstants.HTTP_METHOD_PATCH.equals(apiModelVo.getMethod())) && 
-						   apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
-					consoleLog.append("\n--- Request Body (URL-encoded) ---\n");
-					apiModelVo.getParams().forEach((key, value) -> 
-						consoleLog.append(key).append("=").append(value).append("&")
-					);
-					consoleLog.append("\n");
-				}
-				
-				HttpResponse<String> httpResponse = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-				apiModelVo.setStatusCode(httpResponse.statusCode());
-				response = httpResponse.body();
+		} else if (apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
+			requestBuilder.header("Content-Type", "application/x-www-form-urlencoded");
+			return HttpRequest.BodyPublishers.ofString(getParamBody(apiModelVo));
+		}
+		return HttpRequest.BodyPublishers.noBody();
+	}
 
-				consoleLog.append("\n=== RESPONSE ===\n");
-				consoleLog.append("Status: ").append(httpResponse.statusCode()).append("\n\n");
-				consoleLog.append("--- Response Headers ---\n");
-				httpResponse.headers().map().forEach((key, values) -> {
-					values.forEach(value -> consoleLog.append(key).append(": ").append(value).append("\n"));
-				});
-				consoleLog.append("\n--- Response Body ---\n");
-				
-				Gson gson = new Gson();
-				StringWriter stringWriter = new StringWriter();
-				try (JsonWriter jsonWriter = new JsonWriter(stringWriter)) {
-					jsonWriter.setIndent("   ");
-					gson.toJson(JsonParser.parseString(response), jsonWriter);
-					apiModelVo.setResponse(stringWriter.toString());
-					consoleLog.append(stringWriter.toString()).append("\n");
-				} catch (Exception e) {
-					e.printStackTrace();
-					apiModelVo.setResponse(response);
-					consoleLog.append(response).append("\n");
-				}
-				
-				apiModelVo.setConsoleLog(consoleLog.toString());
+	private void logRequest(HttpRequest httpRequest, ApiModelVo apiModelVo, StringBuilder consoleLog) {
+		consoleLog.append("=== REQUEST ===\n");
+		consoleLog.append(httpRequest.method()).append(" ").append(httpRequest.uri()).append("\n\n");
+		consoleLog.append("--- Request Headers ---\n");
+		httpRequest.headers().map().forEach((key, values) -> {
+			values.forEach(value -> consoleLog.append(key).append(": ").append(value).append("\n"));
+		});
+		
+		// Log request body if present
+		if (apiModelVo.getBody() != null && !apiModelVo.getBody().trim().isEmpty()) {
+			consoleLog.append("\n--- Request Body ---\n");
+			consoleLog.append(apiModelVo.getBody()).append("\n");
+		} else if ((CommonConstants.HTTP_METHOD_POST.equals(apiModelVo.getMethod()) ||
+				   CommonConstants.HTTP_METHOD_PUT.equals(apiModelVo.getMethod()) ||
+				   CommonConstants.HTTP_METHOD_PATCH.equals(apiModelVo.getMethod())) && 
+				   apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
+			consoleLog.append("\n--- Request Body (URL-encoded) ---\n");
+			apiModelVo.getParams().forEach((key, value) -> 
+				consoleLog.append(key).append("=").append(value).append("&")
+			);
+			consoleLog.append("\n");
+		}
+	}
+
+	private void handleResponse(HttpResponse<ResponseBody> httpResponse, ApiModelVo apiModelVo,
+			StringBuilder consoleLog, ExchangeTimer exchangeTimer) {
+		apiModelVo.setStatusCode(httpResponse.statusCode());
+		ResponseBody responseBody = httpResponse.body();
+		apiModelVo.setResponseBody(responseBody);
+		String response = responseBody.getText();
+
+		consoleLog.append("\n=== RESPONSE ===\n");
+		consoleLog.append("Status: ").append(httpResponse.statusCode()).append("\n\n");
+		consoleLog.append("--- Response Headers ---\n");
+		httpResponse.headers().map().forEach((key, values) -> {
+			values.forEach(value -> consoleLog.append(key).append(": ").append(value).append("\n"));
+		});
+		consoleLog.append("\n--- Response Body ---\n");
+		
+		exchangeTimer.markPostProcessingStart();
+		if (responseBody.isTruncated()) {
+			// Only the head is in memory, which is not a complete document to re-indent
+			consoleLog.append("[Showing first ").append(response.length()).append(" characters of ")
+					.append(responseBody.getSize()).append(" bytes]\n");
+			apiModelVo.setResponse(response);
+			consoleLog.append(response).append("\n");
+			exchangeTimer.markPostProcessingEnd();
+			logTimings(apiModelVo, consoleLog, exchangeTimer);
+			apiModelVo.setConsoleLog(consoleLog.toString());
+			return;
+		}
+		FlightEvents.JsonFormatEvent jsonFormatEvent = new FlightEvents.JsonFormatEvent();
+		jsonFormatEvent.begin();
+		try {
+			String formattedResponse = JsonFormatter.prettyPrint(response);
+			if (jsonFormatEvent.shouldCommit()) {
+				jsonFormatEvent.requestId = apiModelVo.getId();
+				jsonFormatEvent.inputChars = response.length();
+				jsonFormatEvent.outputChars = formattedResponse.length();
+				jsonFormatEvent.commit();
 			}
+			apiModelVo.setResponse(formattedResponse);
+			consoleLog.append(formattedResponse).append("\n");
 		} catch (Exception e) {
-			e.printStackTrace();
-			consoleLog.append("\n=== ERROR ===\n");
-			consoleLog.append(e).append("\n");
-			apiModelVo.setConsoleLog(consoleLog.toString());
-			throw e;
+			// Not JSON, show the body as received
+			apiModelVo.setResponse(response);
+			consoleLog.append(response).append("\n");
+		}
+		exchangeTimer.markPostProcessingEnd();
+		
+		logTimings(apiModelVo, consoleLog, exchangeTimer);
+		apiModelVo.setConsoleLog(consoleLog.toString());
+	}
+
+	private void logError(Throwable e, ApiModelVo apiModelVo, StringBuilder consoleLog, ExchangeTimer exchangeTimer) {
+		e.printStackTrace();
+		consoleLog.append("\n=== ERROR ===\n");
+		consoleLog.append(e).append("\n");
+		logTimings(apiModelVo, consoleLog, exchangeTimer);
+		apiModelVo.setConsoleLog(consoleLog.toString());
+	}
+
+	/**
+	 * Stores the timings with the response and lists the measured phases in the log
+	 */
+	private void logTimings(ApiModelVo apiModelVo, StringBuilder consoleLog, ExchangeTimer exchangeTimer) {
+		ExchangeTimingsVo timings = exchangeTimer.getTimings();
+		apiModelVo.setTimings(timings);
+		if (timings.getTotalMillis() == null) {
+			return;
+		}
+		consoleLog.append("\n--- Timings ---\n");
+		appendTiming(consoleLog, "Queue", timings.getQueueMillis());
+		appendTiming(consoleLog, "DNS", timings.getDnsMillis());
+		appendTiming(consoleLog, "Connect", timings.getConnectMillis());
+		appendTiming(consoleLog, "TLS", timings.getTlsMillis());
+		appendTiming(consoleLog, "Write", timings.getWriteMillis());
+		appendTiming(consoleLog, "TTFB", timings.getTtfbMillis());
+		appendTiming(consoleLog, "Download", timings.getDownloadMillis());
+		appendTiming(consoleLog, "Formatting", timings.getPostProcessingMillis());
+		appendTiming(consoleLog, "Total", timings.getTotalMillis());
+	}
+
+	private static void appendTiming(StringBuilder consoleLog, String phase, Double millis) {
+		if (millis != null) {
+			consoleLog.append(phase).append(": ").append(String.format(Locale.ROOT, "%.2f ms", millis)).append("\n");
 		}
 	}
 
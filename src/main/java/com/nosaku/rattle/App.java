@@ -22,33 +22,48 @@
 package com.nosaku.rattle;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import org.controlsfx.control.textfield.TextFields;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.iliareshetov.RichJsonFX;
 import com.nosaku.rattle.util.CommonConstants;
 import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.util.ExchangeTimer;
+import com.nosaku.rattle.util.FlightRecording;
+import com.nosaku.rattle.util.GroupRegistry;
 import com.nosaku.rattle.util.OAuthTokenStore;
+import com.nosaku.rattle.util.PersistenceService;
+import com.nosaku.rattle.util.ResponseBody;
 import com.nosaku.rattle.util.StringUtil;
+import com.nosaku.rattle.util.TokenCacheFile;
 import com.nosaku.rattle.vo.ApiGroupVo;
 import com.nosaku.rattle.vo.ApiModelVo;
 import com.nosaku.rattle.vo.AppVo;
+import com.nosaku.rattle.vo.ExchangeTimingsVo;
 import com.nosaku.rattle.vo.ProxySettingsVo;
 import com.nosaku.rattle.vo.SettingsVo;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -56,7 +71,6 @@ import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -82,29 +96,43 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import javafx.util.Callback;
+import javafx.util.Duration;
 
 public class App extends Application {
 	private final double lastDividerPosition = 0.2;
 	private AppVo appVo;
 	private Map<String, ApiModelVo> apiModelVoMap = new LinkedHashMap<>();
 	private Map<String, ApiGroupVo> apiGroupVoMap = new LinkedHashMap<>();
+	private GroupRegistry groupRegistry = new GroupRegistry(apiGroupVoMap);
 	private TabPane centerTabs;
 	private TreeItem<ApiModelVo> virtualRootItem;
 	private TreeView<ApiModelVo> treeView;
 	private ProxySettingsVo proxySettings;
+	private SettingsVo settings = new SettingsVo();
 	private TabManager tabManager;
 	private Map<String, TreeItem<ApiModelVo>> treeItemMap = new LinkedHashMap<>();
+	private TreeIndex treeIndex;
+	private Map<String, CompletableFuture<ApiModelVo>> inFlightRequestMap = new HashMap<>();
+	private Map<String, ResponseBody> responseBodyMap = new HashMap<>();
+	private Map<String, ConsoleView> consoleViewMap = new HashMap<>();
 	private String currentTheme = "light"; // "light", "dark", or "system"
 	private Scene scene;
 	private HBox footer;
+	private Label requestStatusLabel;
+	private PersistenceService persistenceService;
+	private TokenCacheFile tokenCacheFile;
 
 	public App() {
 	}
@@ -113,8 +141,24 @@ public class App extends Application {
 		Application.launch(args);
 	}
 
+	@Override
+	public void stop() {
+		if (persistenceService != null) {
+			persistenceService.flush();
+		}
+		for (ResponseBody responseBody : responseBodyMap.values()) {
+			responseBody.release();
+		}
+		responseBodyMap.clear();
+	}
+
 	@Override
 	public void start(Stage stage) throws Exception {
+		persistenceService = new PersistenceService(Paths.get(System.getProperty("user.home"), ".rattle"),
+				this::createAppSnapshot, Platform::runLater, CommonConstants.SAVE_DEBOUNCE_MILLIS,
+				CommonConstants.SAVE_MAX_DELAY_MILLIS);
+		tokenCacheFile = new TokenCacheFile(Paths.get(System.getProperty("user.home"), ".rattle"));
+		Thread.ofVirtual().name("rattle-spill-cleanup").start(ResponseBody::deleteStaleSpillFiles);
 		readRattleFile();
 		initGroups();
 		
@@ -122,7 +166,10 @@ public class App extends Application {
 		appTitle.setFont(new Font("Arial", 14));
 
 		Label copyright = new Label(CommonConstants.COPYRIGHT_LABEL_TEXT);
-		footer = new HBox(10, copyright);
+		requestStatusLabel = new Label();
+		Region footerSpacer = new Region();
+		HBox.setHgrow(footerSpacer, Priority.ALWAYS);
+		footer = new HBox(10, requestStatusLabel, footerSpacer, copyright);
 		footer.setAlignment(Pos.CENTER_RIGHT);
 		footer.setPadding(new Insets(5, 10, 5, 10));
 		updateFooterStyle();
@@ -131,6 +178,7 @@ public class App extends Application {
 		virtualRoot.setName("");
 		virtualRootItem = new TreeItem<>(virtualRoot);
 		virtualRootItem.setExpanded(true);
+		treeIndex = new TreeIndex(virtualRootItem, treeItemMap);
 		
 		// First pass: create all group tree items
 		for (ApiGroupVo apiGroupVo : apiGroupVoMap.values()) {
@@ -159,8 +207,10 @@ public class App extends Application {
 		treeView = new TreeView<>(virtualRootItem);
 		treeView.setShowRoot(false); // Hide the virtual root
 
-		tabManager = new TabManager(centerTabs, treeItemMap, treeView, apiModelVoMap, apiGroupVoMap,
-				tabId -> createApiTabContent(tabId), () -> saveApiModelVoMapAsJson());
+		tabManager = new TabManager(centerTabs, treeItemMap, treeIndex, treeView, apiModelVoMap, groupRegistry,
+				tabId -> createApiTabContent(tabId), tabIds -> tabIds.forEach(persistenceService::apiChanged),
+				persistenceService::ensureLoaded,
+				tabId -> releaseTabResources(tabId));
 
 		// treeView.setEditable(true);
 		treeView.setCellFactory(new Callback<TreeView<ApiModelVo>, TreeCell<ApiModelVo>>() {
@@ -248,6 +298,11 @@ public class App extends Application {
 			public void onAbout() {
 				AboutDialog.show(centerTabs.getScene().getWindow());
 			}
+
+			@Override
+			public boolean onFlightRecording() {
+				return toggleFlightRecording();
+			}
 		}).build();
 
 		VBox topContainer = new VBox(menuBar/* , header */);
@@ -305,18 +360,11 @@ public class App extends Application {
 	}
 
 	private void readRattleFile() {
-		ObjectMapper mapper = CommonUtil.getObjectMapper();
-		File dir = new File(System.getProperty("user.home"), ".rattle");
-		if (!dir.exists()) {
-			return;
-		}
-		File inFile = new File(dir, CommonConstants.FILE_NAME);
-		if (!inFile.exists()) {
-			return;
-		}
-		try (FileReader in = new FileReader(inFile)) {
-			String json = new String(Files.readAllBytes(Paths.get(inFile.getAbsolutePath())));
-			this.appVo = mapper.readValue(json, AppVo.class);
+		try {
+			this.appVo = persistenceService.load();
+			if (this.appVo == null) {
+				return;
+			}
 			if (this.appVo.getApiList() != null) {
 				for (ApiModelVo apiModelVo : appVo.getApiList()) {
 					apiModelVoMap.put(apiModelVo.getId(), apiModelVo);
@@ -324,9 +372,12 @@ public class App extends Application {
 			}
 			if (this.appVo.getApiGroups() != null) {
 				for (ApiGroupVo apiGroupVo : appVo.getApiGroups()) {
-					apiGroupVoMap.put(apiGroupVo.getId(), apiGroupVo);
+					groupRegistry.add(apiGroupVo);
 				}
 			}
+			if (this.appVo.getSettings() != null) {
+				this.settings = this.appVo.getSettings();
+			}
 			// Load theme preference (with backward compatibility)
 			if (this.appVo.getSettings() != null && this.appVo.getSettings().getTheme() != null) {
 				// New structure: use settings.theme
@@ -354,8 +405,19 @@ public class App extends Application {
 		}
 		if (appVo.getProxySettings() != null) {
 			this.proxySettings = appVo.getProxySettings();
-			ApiHelper.getInstance().setProxySettings(this.proxySettings);
 		}
+		ApiHelper.getInstance().setClientSettings(this.proxySettings, settings.getClientProfile());
+		RequestScheduler.getInstance().setLimits(settings.getMaxConcurrentRequests(),
+				settings.getMaxConcurrentRequestsPerHost());
+		OAuthTokenStore.getInstance().setRefreshPercent(settings.getTokenRefreshPercent());
+		OAuthTokenStore.getInstance().setCacheFile(settings.isPersistTokenCache() ? tokenCacheFile : null);
+		RequestScheduler.getInstance().setStatusListener((activeCount, queuedCount) -> Platform.runLater(() -> {
+			if (activeCount == 0 && queuedCount == 0) {
+				requestStatusLabel.setText("");
+			} else {
+				requestStatusLabel.setText("Requests: " + activeCount + " running, " + queuedCount + " queued");
+			}
+		}));
 
 		List<ApiModelVo> apiModelVoList = appVo.getApiList();
 		Tab currentTab = null;
@@ -376,7 +438,7 @@ public class App extends Application {
 						? treeItemMap.get(apiModelVo.getGroupId()) 
 						: null;
 					if (groupTreeItem == null) {
-						groupTreeItem = treeItemMap.get(CommonUtil.getGroupId(CommonConstants.GROUP_NAME_AUTH_CONFIGURATIONS, apiGroupVoMap));
+						groupTreeItem = treeItemMap.get(groupRegistry.getAuthConfigurationsGroupId());
 					}
 					groupTreeItem.getChildren().add(newTreeItem);
 				}
@@ -394,7 +456,7 @@ public class App extends Application {
 					TreeItem<ApiModelVo> newTreeItem = new TreeItem<>(apiModelVo);
 					String groupId = apiModelVo.getGroupId();
 					if (groupId == null) {
-						groupId = CommonUtil.getGroupId(CommonConstants.GROUP_NAME_HISTORY, apiGroupVoMap);
+						groupId = groupRegistry.getHistoryGroupId();
 					}
 					treeItemMap.get(groupId).getChildren().add(newTreeItem);
 				}
@@ -408,6 +470,15 @@ public class App extends Application {
 		if (currentTab != null) {
 			centerTabs.getSelectionModel().select(currentTab);
 		}
+
+		Timeline idleTabTimeline = new Timeline(new KeyFrame(Duration.minutes(1), event -> {
+			int idleMinutes = settings.getTabIdleUnloadMinutes();
+			if (idleMinutes > 0) {
+				tabManager.unloadIdleTabs(TimeUnit.MINUTES.toMillis(idleMinutes), inFlightRequestMap::containsKey);
+			}
+		}));
+		idleTabTimeline.setCycleCount(Animation.INDEFINITE);
+		idleTabTimeline.play();
 	}
 
 	private void initGroups() {
@@ -415,32 +486,40 @@ public class App extends Application {
 			ApiGroupVo historyGroupVo = new ApiGroupVo();
 			historyGroupVo.setId(UUID.randomUUID().toString());
 			historyGroupVo.setName(CommonConstants.GROUP_NAME_HISTORY);
-			apiGroupVoMap.put(historyGroupVo.getId(), historyGroupVo);
+			groupRegistry.add(historyGroupVo);
 			ApiGroupVo authGroupVo = new ApiGroupVo();
 			authGroupVo.setId(UUID.randomUUID().toString());
 			authGroupVo.setName(CommonConstants.GROUP_NAME_AUTH_CONFIGURATIONS);
-			apiGroupVoMap.put(authGroupVo.getId(), authGroupVo);
+			groupRegistry.add(authGroupVo);
+			persistenceService.groupChanged(historyGroupVo.getId());
+			persistenceService.groupChanged(authGroupVo.getId());
 		}
 	}
 
 	private VBox createApiTabContent(String tabId) {
 		ApiModelVo apiModelVo = apiModelVoMap.get(tabId);
+		RequestEditorModel editorModel = new RequestEditorModel(apiModelVo);
 
 		ComboBox<String> methodComboBox = new ComboBox<>(
 				FXCollections.observableArrayList("GET", "POST", "PUT", "DELETE", "PATCH", "HEAD"));
-		if (StringUtil.nonEmptyStr(apiModelVo.getMethod())) {
-			methodComboBox.setValue(apiModelVo.getMethod());
-		} else {
+		if (!StringUtil.nonEmptyStr(editorModel.methodProperty().get())) {
 			// Default to POST for auth configs
-			methodComboBox.setValue(apiModelVo.isAuthConfig() ? "POST" : "GET");
+			editorModel.methodProperty().set(apiModelVo.isAuthConfig() ? "POST" : "GET");
 		}
+		methodComboBox.valueProperty().bindBidirectional(editorModel.methodProperty());
 
 		// Set default URL for auth configs
 		String defaultUrl = apiModelVo.isAuthConfig() ? "" : "https://jsonplaceholder.typicode.com/todos";
-		TextField urlTextField = new TextField(
-				StringUtil.nonEmptyStr(apiModelVo.getUrl()) ? apiModelVo.getUrl() : defaultUrl);
+		if (!StringUtil.nonEmptyStr(editorModel.urlProperty().get())) {
+			editorModel.urlProperty().set(defaultUrl);
+		}
+		TextField urlTextField = new TextField();
+		urlTextField.textProperty().bindBidirectional(editorModel.urlProperty());
 		HBox.setHgrow(urlTextField, Priority.ALWAYS);
 		Button sendButton = new Button("Send");
+		Button cancelButton = new Button("Cancel");
+		cancelButton.setDisable(true);
+		cancelButton.setOnAction(e -> cancelRequest(tabId));
 
 		Tab currentTab = null;
 		for (Tab tab : centerTabs.getTabs()) {
@@ -452,48 +531,36 @@ public class App extends Application {
 
 		HBox requestBar = new HBox(10);
 		requestBar.setPadding(new Insets(10));
-		requestBar.getChildren().addAll(methodComboBox, urlTextField, sendButton);
+		requestBar.getChildren().addAll(methodComboBox, urlTextField, sendButton, cancelButton);
 		requestBar.setAlignment(Pos.CENTER_LEFT);
 		requestBar.getStyleClass().add("request-bar");
 
 		Tab finalCurrentTab = currentTab;
-		urlTextField.textProperty().addListener((obs, oldVal, newVal) -> {
-			if (finalCurrentTab != null && !newVal.equals(oldVal)) {
-				tabManager.markTabAsModified(finalCurrentTab);
-			}
-		});
-
-		methodComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
-			if (finalCurrentTab != null && !newVal.equals(oldVal)) {
-				tabManager.markTabAsModified(finalCurrentTab);
-			}
-		});
 
 		VBox paramsContainer = new VBox(5);
 		paramsContainer.setPadding(new Insets(10));
 		Button addParamButton = new Button("+ Add Parameter");
 		addParamButton.setOnAction(e -> {
-			HBox newRow = createParamRow(paramsContainer, false, null, null);
+			RequestEditorModel.Entry entry = new RequestEditorModel.Entry(null, null);
+			editorModel.getParams().add(entry);
+			HBox newRow = createParamRow(paramsContainer, editorModel.getParams(), entry, false);
 			paramsContainer.getChildren().add(paramsContainer.getChildren().size() - 1, newRow);
 		});
 
-		if (apiModelVo.getParams() != null && !apiModelVo.getParams().isEmpty()) {
-			for (Map.Entry<String, String> entry : apiModelVo.getParams().entrySet()) {
-				HBox newRow = createParamRow(paramsContainer, false, entry.getKey(), entry.getValue());
-				paramsContainer.getChildren().add(newRow);
-			}
-		} else {
+		if (editorModel.getParams().isEmpty()) {
 			// For auth configs, prefill with OAuth2 params
 			if (apiModelVo.isAuthConfig()) {
-				paramsContainer.getChildren()
-						.add(createParamRow(paramsContainer, false, "grant_type", "client_credentials"));
-				paramsContainer.getChildren().add(createParamRow(paramsContainer, false, "client_id", ""));
-				paramsContainer.getChildren().add(createParamRow(paramsContainer, false, "client_secret", ""));
-				paramsContainer.getChildren().add(createParamRow(paramsContainer, false, "scope", ""));
+				editorModel.getParams().add(new RequestEditorModel.Entry("grant_type", "client_credentials"));
+				editorModel.getParams().add(new RequestEditorModel.Entry("client_id", ""));
+				editorModel.getParams().add(new RequestEditorModel.Entry("client_secret", ""));
+				editorModel.getParams().add(new RequestEditorModel.Entry("scope", ""));
 			} else {
-				paramsContainer.getChildren().add(createParamRow(paramsContainer, false, null, null));
+				editorModel.getParams().add(new RequestEditorModel.Entry(null, null));
 			}
 		}
+		for (RequestEditorModel.Entry entry : editorModel.getParams()) {
+			paramsContainer.getChildren().add(createParamRow(paramsContainer, editorModel.getParams(), entry, false));
+		}
 		paramsContainer.getChildren().add(addParamButton);
 		ScrollPane paramsScrollPane = new ScrollPane(paramsContainer);
 		paramsScrollPane.setFitToWidth(true);
@@ -502,17 +569,17 @@ public class App extends Application {
 		headersContainer.setPadding(new Insets(10));
 		Button addHeaderButton = new Button("+ Add Header");
 		addHeaderButton.setOnAction(e -> {
-			HBox newRow = createParamRow(headersContainer, true, null, null);
+			RequestEditorModel.Entry entry = new RequestEditorModel.Entry(null, null);
+			editorModel.getHeaders().add(entry);
+			HBox newRow = createParamRow(headersContainer, editorModel.getHeaders(), entry, true);
 			headersContainer.getChildren().add(headersContainer.getChildren().size() - 1, newRow);
 		});
 
-		if (apiModelVo.getHeaders() != null && !apiModelVo.getHeaders().isEmpty()) {
-			for (Map.Entry<String, String> entry : apiModelVo.getHeaders().entrySet()) {
-				HBox newRow = createParamRow(headersContainer, true, entry.getKey(), entry.getValue());
-				headersContainer.getChildren().add(newRow);
-			}
-		} else {
-			headersContainer.getChildren().add(createParamRow(headersContainer, true, null, null));
+		if (editorModel.getHeaders().isEmpty()) {
+			editorModel.getHeaders().add(new RequestEditorModel.Entry(null, null));
+		}
+		for (RequestEditorModel.Entry entry : editorModel.getHeaders()) {
+			headersContainer.getChildren().add(createParamRow(headersContainer, editorModel.getHeaders(), entry, true));
 		}
 		headersContainer.getChildren().add(addHeaderButton);
 		ScrollPane headersScrollPane = new ScrollPane(headersContainer);
@@ -528,7 +595,7 @@ public class App extends Application {
 			VBox authTabContent = createAuthConfigContent(apiModelVo, finalCurrentTab);
 			authTab.setContent(authTabContent);
 		} else {
-			VBox authSelectionContent = createAuthSelectionContent(apiModelVo, finalCurrentTab);
+			VBox authSelectionContent = createAuthSelectionContent(editorModel);
 			authTab.setContent(authSelectionContent);
 		}
 		topTabs.getTabs().add(authTab);
@@ -536,13 +603,15 @@ public class App extends Application {
 		topTabs.getTabs().add(new Tab("Params", paramsScrollPane));
 		topTabs.getTabs().add(new Tab("Headers", headersScrollPane));
 
-		TextArea bodyTextArea = new TextArea(apiModelVo.getBody());
-		bodyTextArea.textProperty().addListener((obs, oldVal, newVal) -> {
-			if (finalCurrentTab != null && !newVal.equals(oldVal)) {
-				tabManager.markTabAsModified(finalCurrentTab);
-			}
-		});
+		TextArea bodyTextArea = new TextArea();
+		bodyTextArea.textProperty().bindBidirectional(editorModel.bodyProperty());
+		// Registered after the defaults above so only user edits mark the tab
+		if (finalCurrentTab != null) {
+			editorModel.addChangeListener(() -> tabManager.markTabAsModified(finalCurrentTab));
+		}
+		tabManager.setEditorModel(tabId, editorModel);
 		topTabs.getTabs().add(new Tab("Body", bodyTextArea));
+		topTabs.getTabs().add(new Tab("Options", createRequestOptionsContent(editorModel)));
 		topTabs.getTabs().forEach(tab -> tab.setClosable(false));
 
 		// Bottom Content: Response and Console tabs
@@ -552,13 +621,19 @@ public class App extends Application {
 		VBox responseContainer = new VBox(5);
 		responseContainer.setPadding(new Insets(10));
 		Label responseLabel = new Label("Status Code");
-		HBox responseLabelRow = new HBox(responseLabel);
+		Button saveFullResponseButton = new Button("Save full response...");
+		saveFullResponseButton.setVisible(false);
+		saveFullResponseButton.setManaged(false);
+		saveFullResponseButton.setOnAction(e -> saveFullResponse(tabId, saveFullResponseButton));
+		HBox responseLabelRow = new HBox(10, saveFullResponseButton, responseLabel);
 		responseLabelRow.setAlignment(Pos.CENTER_RIGHT);
 		responseLabel.setPadding(new Insets(0, 10, 0, 0));
 		CodeArea responseArea = new CodeArea();
 		responseArea.setWrapText(true);
 		responseArea.setStyle("-fx-word-wrap: break-word;");
 		VirtualizedScrollPane<CodeArea> responseAreaScrollPane = new VirtualizedScrollPane<>(responseArea);
+		ResponseHighlighter responseHighlighter = new ResponseHighlighter(responseArea,
+				() -> settings.getMaxHighlightedResponseChars(), tabId);
 
 		ProgressIndicator loadingSpinner = new ProgressIndicator();
 		loadingSpinner.setMaxSize(50, 50);
@@ -575,22 +650,23 @@ public class App extends Application {
 		// Console tab
 		VBox consoleContainer = new VBox(5);
 		consoleContainer.setPadding(new Insets(10));
-		TextArea consoleArea = new TextArea();
-		consoleArea.setEditable(false);
-		consoleArea.setWrapText(false);
-		consoleArea.setStyle("-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
-		VBox.setVgrow(consoleArea, Priority.ALWAYS);
-
-		Button clearConsoleButton = new Button("Clear Console");
-		clearConsoleButton.setOnAction(e -> consoleArea.clear());
-		HBox consoleButtonBar = new HBox(10, clearConsoleButton);
-		consoleButtonBar.setPadding(new Insets(0, 0, 5, 0));
-
-		consoleContainer.getChildren().addAll(consoleButtonBar, consoleArea);
+		ConsoleView consoleView = new ConsoleView(() -> settings.getConsoleBufferChars(), tabId);
+		VBox.setVgrow(consoleView, Priority.ALWAYS);
+		ConsoleView previousConsoleView = consoleViewMap.put(tabId, consoleView);
+		if (previousConsoleView != null) {
+			previousConsoleView.dispose();
+		}
+
+		consoleContainer.getChildren().add(consoleView);
 		Tab consoleTab = new Tab("Console", consoleContainer);
 		consoleTab.setClosable(false);
 
-		bottomTabs.getTabs().addAll(responseTab, consoleTab);
+		// Timing tab
+		TimingView timingView = new TimingView();
+		Tab timingTab = new Tab("Timing", timingView);
+		timingTab.setClosable(false);
+
+		bottomTabs.getTabs().addAll(responseTab, consoleTab, timingTab);
 
 		SplitPane mainContentSplit = new SplitPane();
 		mainContentSplit.setOrientation(Orientation.VERTICAL);
@@ -602,9 +678,7 @@ public class App extends Application {
 		VBox.setVgrow(mainContentSplit, Priority.ALWAYS);
 
 		Runnable sendAction = () -> {
-			invokeApi(tabId, methodComboBox.getValue(), urlTextField.getText(), getParams(paramsContainer),
-					getParams(headersContainer), bodyTextArea.getText(), responseArea, responseLabel, loadingSpinner,
-					consoleArea);
+			invokeApi(tabId, editorModel, responseArea, responseHighlighter, responseLabel, loadingSpinner, cancelButton, saveFullResponseButton, consoleView, timingView);
 		};
 
 		sendButton.setOnAction(e -> sendAction.run());
@@ -619,25 +693,70 @@ public class App extends Application {
 		return mainLayout;
 	}
 
-	private HBox createParamRow(VBox parentContainer, boolean isHeaderRow, String key, String value) {
+	/**
+	 * Per-request overrides of the client profile configured in Settings
+	 */
+	private VBox createRequestOptionsContent(RequestEditorModel editorModel) {
+		GridPane optionsGrid = new GridPane();
+		optionsGrid.setHgap(10);
+		optionsGrid.setVgap(10);
+
+		Integer requestTimeoutSeconds = editorModel.requestTimeoutSecondsProperty().get();
+		Label timeoutLabel = new Label("Request timeout (seconds):");
+		TextField timeoutField = new TextField(requestTimeoutSeconds != null ? String.valueOf(requestTimeoutSeconds) : "");
+		timeoutField.setPromptText("Default (" + settings.getClientProfile().getRequestTimeoutSeconds() + ")");
+		timeoutField.textProperty().addListener((obs, oldVal, newVal) -> {
+			try {
+				editorModel.requestTimeoutSecondsProperty()
+						.set(newVal.trim().isEmpty() ? null : Integer.valueOf(newVal.trim()));
+			} catch (NumberFormatException e) {
+				// Keep the last valid value while typing
+			}
+		});
+		optionsGrid.add(timeoutLabel, 0, 0);
+		optionsGrid.add(timeoutField, 1, 0);
+
+		Label versionLabel = new Label("HTTP version:");
+		ComboBox<String> versionComboBox = new ComboBox<>(
+				FXCollections.observableArrayList("Default", HttpClient.Version.HTTP_2.name(), HttpClient.Version.HTTP_1_1.name()));
+		HttpClient.Version httpVersion = editorModel.httpVersionProperty().get();
+		versionComboBox.setValue(httpVersion != null ? httpVersion.name() : "Default");
+		versionComboBox.valueProperty().addListener((obs, oldVal, newVal) -> editorModel.httpVersionProperty()
+				.set("Default".equals(newVal) ? null : HttpClient.Version.valueOf(newVal)));
+		optionsGrid.add(versionLabel, 0, 1);
+		optionsGrid.add(versionComboBox, 1, 1);
+
+		Label redirectLabel = new Label("Follow redirects:");
+		ComboBox<String> redirectComboBox = new ComboBox<>(FXCollections.observableArrayList("Default",
+				HttpClient.Redirect.NEVER.name(), HttpClient.Redirect.NORMAL.name(), HttpClient.Redirect.ALWAYS.name()));
+		HttpClient.Redirect redirectPolicy = editorModel.redirectPolicyProperty().get();
+		redirectComboBox.setValue(redirectPolicy != null ? redirectPolicy.name() : "Default");
+		redirectComboBox.valueProperty().addListener((obs, oldVal, newVal) -> editorModel.redirectPolicyProperty()
+				.set("Default".equals(newVal) ? null : HttpClient.Redirect.valueOf(newVal)));
+		optionsGrid.add(redirectLabel, 0, 2);
+		optionsGrid.add(redirectComboBox, 1, 2);
+
+		VBox optionsBox = new VBox(10, optionsGrid);
+		optionsBox.setPadding(new Insets(10));
+		return optionsBox;
+	}
+
+	private HBox createParamRow(VBox parentContainer, ObservableList<RequestEditorModel.Entry> entries,
+			RequestEditorModel.Entry entry, boolean isHeaderRow) {
 		CheckBox enableCheckBox = new CheckBox();
-		enableCheckBox.setSelected(true);
+		enableCheckBox.selectedProperty().bindBidirectional(entry.enabledProperty());
 
 		TextField keyField = new TextField();
 		keyField.setId("key");
 		keyField.setPromptText("Key");
-		if (StringUtil.nonEmptyStr(key)) {
-			keyField.setText(key);
-		}
+		keyField.textProperty().bindBidirectional(entry.keyProperty());
 		if (isHeaderRow) {
 			TextFields.bindAutoCompletion(keyField, CommonConstants.HTTP_HEADERS);
 		}
 		TextField valueField = new TextField();
 		valueField.setId("value");
 		valueField.setPromptText("Value");
-		if (StringUtil.nonEmptyStr(value)) {
-			valueField.setText(value);
-		}
+		valueField.textProperty().bindBidirectional(entry.valueProperty());
 		Button deleteButton = new Button("✕");
 		deleteButton.setStyle("-fx-font-size: 10px; -fx-padding: 2 5 2 5;");
 
@@ -648,24 +767,9 @@ public class App extends Application {
 		HBox.setHgrow(keyField, Priority.ALWAYS);
 		HBox.setHgrow(valueField, Priority.ALWAYS);
 
-		deleteButton.setOnAction(e -> parentContainer.getChildren().remove(row));
-
-		keyField.textProperty().addListener((obs, oldVal, newVal) -> {
-			if (!newVal.equals(oldVal)) {
-				tabManager.markParentTabAsModified(parentContainer);
-			}
-		});
-
-		valueField.textProperty().addListener((obs, oldVal, newVal) -> {
-			if (!newVal.equals(oldVal)) {
-				tabManager.markParentTabAsModified(parentContainer);
-			}
-		});
-
-		enableCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
-			if (!newVal.equals(oldVal)) {
-				tabManager.markParentTabAsModified(parentContainer);
-			}
+		deleteButton.setOnAction(e -> {
+			entries.remove(entry);
+			parentContainer.getChildren().remove(row);
 		});
 
 		return row;
@@ -680,14 +784,12 @@ public class App extends Application {
 
 		// Check if this is a group and update the ApiGroupVo
 		if (isGroupTreeItem(event.getTreeItem())) {
-			ApiGroupVo groupVo = apiGroupVoMap.get(existingModel.getId());
-			if (groupVo != null) {
-				groupVo.setName(newName);
-			}
+			groupRegistry.rename(existingModel.getId(), newName);
 			// Save the changes
-			saveApiModelVoMapAsJson();
+			persistenceService.groupChanged(existingModel.getId());
 		} else {
 			// Handle regular API request items
+			boolean isTabFound = false;
 			for (Tab tab : centerTabs.getTabs()) {
 				if (tab.getId().equals(existingModel.getId())) {
 					if (tab.getText().lastIndexOf(" *") != -1) {
@@ -696,9 +798,13 @@ public class App extends Application {
 						tab.setText(tabManager.truncateTabTitle(newName));
 						tabManager.saveTab(tab);
 					}
+					isTabFound = true;
 					break;
 				}
 			}
+			if (!isTabFound) {
+				persistenceService.apiChanged(existingModel.getId());
+			}
 		}
 	}
 
@@ -706,6 +812,96 @@ public class App extends Application {
 		tabManager.addNewTab(treeItem.getValue().getId(), true, true);
 	}
 
+	/**
+	 * Opens a load test for a saved request, or for all requests under a group
+	 */
+	public void openLoadTest(TreeItem<ApiModelVo> treeItem) {
+		if (treeItem == null || treeItem.getValue() == null) {
+			return;
+		}
+		List<ApiModelVo> requests = new ArrayList<>();
+		collectRequests(treeItem, requests);
+		if (requests.isEmpty()) {
+			Alert alert = new Alert(Alert.AlertType.INFORMATION);
+			alert.setTitle("Load Test");
+			alert.setHeaderText("No requests to load test");
+			alert.setContentText("\"" + treeItem.getValue().getName() + "\" has no saved requests.");
+			alert.initOwner(centerTabs.getScene().getWindow());
+			alert.showAndWait();
+			return;
+		}
+		// The stubs and the auth configs they use are read in one go off the FX thread
+		List<String> stubIds = new ArrayList<>();
+		Set<String> authConfigIds = new LinkedHashSet<>();
+		for (ApiModelVo request : requests) {
+			if (!request.isDetailsLoaded()) {
+				stubIds.add(request.getId());
+			} else if (StringUtil.nonEmptyStr(request.getAuthConfigId())) {
+				authConfigIds.add(request.getAuthConfigId());
+			}
+		}
+		Set<String> authConfigStubIds = new HashSet<>();
+		for (ApiModelVo apiModelVo : apiModelVoMap.values()) {
+			if (apiModelVo.isAuthConfig() && !apiModelVo.isDetailsLoaded()) {
+				authConfigStubIds.add(apiModelVo.getId());
+			}
+		}
+		String name = treeItem.getValue().getName();
+		Window owner = centerTabs.getScene().getWindow();
+		CompletableFuture.supplyAsync(() -> {
+			try {
+				Map<String, ApiModelVo> details = persistenceService.readDetails(stubIds);
+				for (ApiModelVo requestDetails : details.values()) {
+					if (StringUtil.nonEmptyStr(requestDetails.getAuthConfigId())) {
+						authConfigIds.add(requestDetails.getAuthConfigId());
+					}
+				}
+				authConfigIds.retainAll(authConfigStubIds);
+				details.putAll(persistenceService.readDetails(authConfigIds));
+				return details;
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, runnable -> Thread.ofVirtual().name("rattle-load-test-read").start(runnable))
+				.whenComplete((details, throwable) -> Platform.runLater(() -> {
+					if (throwable != null) {
+						Throwable cause = CommonUtil.unwrapCompletionException(throwable);
+						cause.printStackTrace();
+						Alert alert = new Alert(Alert.AlertType.ERROR);
+						alert.setTitle("Load Test");
+						alert.setHeaderText("Failed to read the requests");
+						alert.setContentText(cause.getMessage());
+						alert.initOwner(owner);
+						alert.showAndWait();
+						return;
+					}
+					PersistenceService.fillDetails(requests, details);
+					Map<String, ApiModelVo> authConfigMap = new HashMap<>();
+					for (ApiModelVo request : requests) {
+						ApiModelVo authConfig = StringUtil.nonEmptyStr(request.getAuthConfigId())
+								? apiModelVoMap.get(request.getAuthConfigId()) : null;
+						if (authConfig != null) {
+							authConfigMap.put(authConfig.getId(), authConfig);
+						}
+					}
+					PersistenceService.fillDetails(authConfigMap.values(), details);
+					new LoadTestDialog(name, requests, authConfigMap).show(owner);
+				}));
+	}
+
+	private void collectRequests(TreeItem<ApiModelVo> treeItem, List<ApiModelVo> requests) {
+		if (isGroupTreeItem(treeItem)) {
+			for (TreeItem<ApiModelVo> child : treeItem.getChildren()) {
+				collectRequests(child, requests);
+			}
+			return;
+		}
+		ApiModelVo apiModelVo = treeItem.getValue() != null ? apiModelVoMap.get(treeItem.getValue().getId()) : null;
+		if (apiModelVo != null && !apiModelVo.isAuthConfig()) {
+			requests.add(apiModelVo);
+		}
+	}
+
 	public void deleteGroup(TreeItem<ApiModelVo> treeItem) {
 		if (treeItem == null || treeItem.getValue() == null) {
 			return;
@@ -729,9 +925,9 @@ public class App extends Application {
 		// Remove from maps
 		if (value.getId() != null) {
 			treeItemMap.remove(value.getId());
-			apiGroupVoMap.remove(value.getId());
+			groupRegistry.remove(value.getId());
+			persistenceService.groupChanged(value.getId());
 		}
-		saveApiModelVoMapAsJson();
 	}
 
 	private void deleteGroupChildren(TreeItem<ApiModelVo> groupItem) {
@@ -743,13 +939,14 @@ public class App extends Application {
 		var children = new java.util.ArrayList<>(groupItem.getChildren());
 		for (TreeItem<ApiModelVo> child : children) {
 			if (child.getValue() != null) {
-				boolean isGroup = treeItemMap.containsValue(child);
+				boolean isGroup = treeIndex.isGroup(child);
 				if (isGroup) {
 					// Recursively delete subgroup
 					deleteGroupChildren(child);
 					if (child.getValue().getId() != null) {
 						treeItemMap.remove(child.getValue().getId());
-						apiGroupVoMap.remove(child.getValue().getId());
+						groupRegistry.remove(child.getValue().getId());
+						persistenceService.groupChanged(child.getValue().getId());
 					}
 				} else {
 					// Delete API item or auth config
@@ -766,7 +963,9 @@ public class App extends Application {
 						if (toClose != null) {
 							centerTabs.getTabs().remove(toClose);
 						}
+						releaseTabResources(itemId);
 						apiModelVoMap.remove(itemId);
+						persistenceService.apiChanged(itemId);
 					}
 				}
 			}
@@ -792,6 +991,7 @@ public class App extends Application {
 		if (toClose != null) {
 			centerTabs.getTabs().remove(toClose);
 		}
+		releaseTabResources(value.getId());
 
 		TreeItem<ApiModelVo> parent = treeItem.getParent();
 		if (parent != null) {
@@ -799,203 +999,371 @@ public class App extends Application {
 		}
 
 		apiModelVoMap.remove(value.getId());
-		saveApiModelVoMapAsJson();
+		persistenceService.apiChanged(value.getId());
 	}
 
-	private void invokeApi(String tabId, String method, String url, Map<String, String> params,
-			Map<String, String> headers, String body, CodeArea responseArea, Label responseLabel,
-			ProgressIndicator loadingSpinner, TextArea consoleArea) {
-		ApiModelVo currentApiModel = apiModelVoMap.get(tabId);
-
+	private void invokeApi(String tabId, RequestEditorModel editorModel, CodeArea responseArea,
+			ResponseHighlighter responseHighlighter, Label responseLabel, ProgressIndicator loadingSpinner,
+			Button cancelButton, Button saveFullResponseButton, ConsoleView consoleView, TimingView timingView) {
+		// Sends what is in the editor, saved or not
+		String url = editorModel.urlProperty().get();
 		ApiModelVo apiModelVo = new ApiModelVo();
-		apiModelVo.setMethod(method);
+		apiModelVo.setId(tabId);
+		apiModelVo.setMethod(editorModel.methodProperty().get());
 		apiModelVo.setUrl(url);
-		apiModelVo.setParams(params);
-		apiModelVo.setHeaders(headers != null ? new LinkedHashMap<>(headers) : new LinkedHashMap<>());
-		apiModelVo.setBody(body);
-
+		apiModelVo.setParams(editorModel.getParamMap());
+		apiModelVo.setHeaders(editorModel.getHeaderMap());
+		apiModelVo.setBody(editorModel.bodyProperty().get());
+		apiModelVo.setRequestTimeoutSeconds(editorModel.requestTimeoutSecondsProperty().get());
+		apiModelVo.setHttpVersion(editorModel.httpVersionProperty().get());
+		apiModelVo.setRedirectPolicy(editorModel.redirectPolicyProperty().get());
+
+		responseHighlighter.cancel();
 		responseArea.clear();
+		releaseResponseBody(tabId);
+		saveFullResponseButton.setVisible(false);
+		saveFullResponseButton.setManaged(false);
 		loadingSpinner.setVisible(true);
+		cancelButton.setDisable(false);
+		timingView.clear();
+
+		// The tree and its lazy loading belong to the FX thread, so the auth config is
+		// resolved here and only the loaded copy is handed to the scheduler
+		ApiModelVo authConfig = resolveAuthConfig(editorModel.authConfigIdProperty().get());
+		ExchangeTimer exchangeTimer = new ExchangeTimer();
+		CompletableFuture<ApiModelVo> requestFuture = scheduleRequest(url,
+				authorizeRequest(apiModelVo, authConfig), exchangeTimer);
+		CompletableFuture<ApiModelVo> previousFuture = inFlightRequestMap.put(tabId, requestFuture);
+		if (previousFuture != null) {
+			previousFuture.cancel(true);
+		}
 
-		javafx.concurrent.Task<Void> task = new javafx.concurrent.Task<Void>() {
-			@Override
-			protected Void call() throws Exception {
-				try {
-					// Check if auth config is set for this request
-					if (currentApiModel != null && StringUtil.nonEmptyStr(currentApiModel.getAuthConfigId())) {
-						String authConfigId = currentApiModel.getAuthConfigId();
-						ApiModelVo authConfig = apiModelVoMap.get(authConfigId);
-
-						if (authConfig != null && authConfig.isAuthConfig()) {
-							if (OAuthTokenStore.getInstance().isTokenExpired(authConfigId)) {
-								String tokenJsonStr = fetchAuthToken(authConfig);
-								OAuthTokenStore.getInstance().storeToken(authConfigId, tokenJsonStr);
-							}
-							String bearerToken = OAuthTokenStore.getInstance().getBearerToken(authConfigId);
-							if (bearerToken != null) {
-								apiModelVo.getHeaders().put("Authorization", bearerToken);
-							}
-						}
-					}
-
-					ApiHelper.getInstance().invokeApi(apiModelVo);
-				} catch (Exception e) {
-					apiModelVo.setResponse("Error: " + e.getClass().getName() + "\n" + "Message: " + e.getMessage()
-							+ "\n\n" + "Stack Trace:\n" + CommonUtil.getStackTraceAsString(e));
-					throw e;
+		requestFuture.whenComplete((result, throwable) -> Platform.runLater(() -> {
+			// A newer send from the same tab owns the response area now
+			if (!inFlightRequestMap.remove(tabId, requestFuture)) {
+				if (apiModelVo.getResponseBody() != null) {
+					apiModelVo.getResponseBody().release();
 				}
-				return null;
+				return;
 			}
-
-			@Override
-			protected void succeeded() {
-				loadingSpinner.setVisible(false);
-
-				responseLabel.setText("Status Code: " + apiModelVo.getStatusCode());
-				responseArea.appendText(apiModelVo.getResponse());
-				responseArea.scrollYToPixel(0);
-				RichJsonFX highlighter = new RichJsonFX();
-				try {
-					responseArea.setStyleSpans(0, highlighter.highlight(apiModelVo.getResponse()));
-				} catch (Exception exp) {
-					exp.printStackTrace();
+			loadingSpinner.setVisible(false);
+			cancelButton.setDisable(true);
+			if (requestFuture.isCancelled()) {
+				responseLabel.setText("Status: Cancelled");
+				responseArea.replaceText("Request cancelled.");
+			} else if (throwable == null) {
+				showApiResponse(apiModelVo, responseArea, responseHighlighter, responseLabel, consoleView)
+						.thenRun(() -> {
+							// Highlighting is the last step of post-processing
+							exchangeTimer.markPostProcessingEnd();
+							ExchangeTimingsVo timings = exchangeTimer.getTimings();
+							apiModelVo.setTimings(timings);
+							Platform.runLater(() -> {
+								if (!inFlightRequestMap.containsKey(tabId)) {
+									timingView.show(timings);
+								}
+							});
+						});
+				ResponseBody responseBody = apiModelVo.getResponseBody();
+				if (responseBody != null && responseBody.isTruncated()) {
+					responseBodyMap.put(tabId, responseBody);
+					saveFullResponseButton.setVisible(true);
+					saveFullResponseButton.setManaged(true);
 				}
+			} else {
+				showApiError(apiModelVo, CommonUtil.unwrapCompletionException(throwable), responseArea,
+						responseLabel, consoleView);
+				timingView.show(apiModelVo.getTimings());
+			}
+		}));
+	}
 
-				if (apiModelVo.getConsoleLog() != null) {
-					Platform.runLater(() -> {
-						consoleArea.appendText(apiModelVo.getConsoleLog() + "\n");
-						consoleArea.positionCaret(0);
-						consoleArea.setScrollTop(0);
-					});
-				}
+	/**
+	 * Cancels the request in flight for the tab, aborting the underlying exchange
+	 */
+	private void cancelRequest(String tabId) {
+		CompletableFuture<ApiModelVo> requestFuture = inFlightRequestMap.get(tabId);
+		if (requestFuture != null) {
+			requestFuture.cancel(true);
+		}
+	}
+
+	/**
+	 * Cancels the tab's request and frees what its content holds outside the scene
+	 * graph: the response spill file and the console archive.
+	 */
+	private void releaseTabResources(String tabId) {
+		cancelRequest(tabId);
+		releaseResponseBody(tabId);
+		ConsoleView consoleView = consoleViewMap.remove(tabId);
+		if (consoleView != null) {
+			consoleView.dispose();
+		}
+	}
+
+	/**
+	 * Deletes the spill file of the tab's last truncated response, if any
+	 */
+	private void releaseResponseBody(String tabId) {
+		ResponseBody responseBody = responseBodyMap.remove(tabId);
+		if (responseBody != null) {
+			responseBody.release();
+		}
+	}
+
+	private void saveFullResponse(String tabId, Button saveFullResponseButton) {
+		ResponseBody responseBody = responseBodyMap.get(tabId);
+		if (responseBody == null) {
+			return;
+		}
+		FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle("Save Full Response");
+		fileChooser.setInitialFileName("response.json");
+		File targetFile = fileChooser.showSaveDialog(saveFullResponseButton.getScene().getWindow());
+		if (targetFile == null) {
+			return;
+		}
+		saveFullResponseButton.setDisable(true);
+		Thread.ofVirtual().name("rattle-save-response").start(() -> {
+			try {
+				responseBody.saveTo(targetFile.toPath());
+				Platform.runLater(() -> saveFullResponseButton.setDisable(false));
+			} catch (Exception e) {
+				e.printStackTrace();
+				Platform.runLater(() -> {
+					saveFullResponseButton.setDisable(false);
+					Alert alert = new Alert(Alert.AlertType.ERROR);
+					alert.setTitle("Save Full Response");
+					alert.setHeaderText("Failed to save response");
+					alert.setContentText(e.getMessage());
+					alert.initOwner(saveFullResponseButton.getScene().getWindow());
+					alert.showAndWait();
+				});
 			}
+		});
+	}
 
-			@Override
-			protected void failed() {
-				loadingSpinner.setVisible(false);
-
-				responseLabel.setText("Status: Error");
-				if (apiModelVo.getResponse() != null && !apiModelVo.getResponse().isEmpty()) {
-					responseArea.appendText(apiModelVo.getResponse());
-					if (apiModelVo.getConsoleLog() != null) {
-						Platform.runLater(() -> {
-							consoleArea.appendText(apiModelVo.getConsoleLog() + "\n");
-						});
-					}
-				} else {
-					Throwable exception = getException();
-					responseArea.appendText(
-							"Error: " + exception.getClass().getName() + "\n" + "Message: " + exception.getMessage()
-									+ "\n\n" + "Stack Trace:\n" + CommonUtil.getStackTraceAsString(exception));
-					if (apiModelVo.getConsoleLog() != null) {
-						Platform.runLater(() -> {
-							consoleArea.appendText(apiModelVo.getConsoleLog() + "\n");
-						});
-					}
-				}
-				responseArea.scrollYToPixel(0);
+	/**
+	 * Starts a flight recording, or stops the running one and saves it under
+	 * ~/.rattle in the background
+	 *
+	 * @return true if a recording is now running
+	 */
+	private boolean toggleFlightRecording() {
+		FlightRecording flightRecording = FlightRecording.getInstance();
+		if (!flightRecording.isRecording()) {
+			try {
+				flightRecording.start();
+				return true;
+			} catch (Exception e) {
+				e.printStackTrace();
+				showFlightRecordingAlert(Alert.AlertType.ERROR, "Failed to start recording", e.getMessage());
+				return false;
 			}
-		};
+		}
+		Thread.ofVirtual().name("rattle-flight-recording-dump").start(() -> {
+			try {
+				Path file = flightRecording.stopAndDump(Paths.get(System.getProperty("user.home"), ".rattle"));
+				Platform.runLater(() -> showFlightRecordingAlert(Alert.AlertType.INFORMATION, "Recording saved",
+						file.toString()));
+			} catch (Exception e) {
+				e.printStackTrace();
+				Platform.runLater(() -> showFlightRecordingAlert(Alert.AlertType.ERROR, "Failed to save recording",
+						e.getMessage()));
+			}
+		});
+		return false;
+	}
 
-		new Thread(task).start();
+	private void showFlightRecordingAlert(Alert.AlertType alertType, String headerText, String contentText) {
+		Alert alert = new Alert(alertType);
+		alert.setTitle("Flight Recording");
+		alert.setHeaderText(headerText);
+		alert.setContentText(contentText);
+		alert.initOwner(centerTabs.getScene().getWindow());
+		alert.showAndWait();
 	}
 
-	private void saveApiModelVoMapAsJson() {
-		ObjectMapper mapper = CommonUtil.getObjectMapper();
-		File dir = new File(System.getProperty("user.home"), ".rattle");
-		if (!dir.exists()) {
-			dir.mkdirs();
-		}
-		File outFile = new File(dir, CommonConstants.FILE_NAME);
-		try (FileWriter out = new FileWriter(outFile)) {
-			AppVo appVo = new AppVo();
-			List<ApiModelVo> apiModelVoList = new ArrayList<>();
-			appVo.setApiList(apiModelVoList);
-			appVo.setApiGroups(new ArrayList<>(apiGroupVoMap.values()));
-			
-			// Create SettingsVo with current settings
-			SettingsVo settings = new SettingsVo();
-			settings.setTheme(currentTheme);
-			settings.setProxySettings(this.proxySettings);
-			appVo.setSettings(settings);
-			
-			// Also set legacy fields for backward compatibility
-			appVo.setProxySettings(this.proxySettings);
-			appVo.setTheme(currentTheme);
-			for (Map.Entry<String, ApiModelVo> entry : apiModelVoMap.entrySet()) {
-				ApiModelVo apiModelVo = entry.getValue().clone();
-				apiModelVo.setResponse(null);
-				apiModelVo.setConsoleLog(null);
-				
-				// Update groupId from tree structure (source of truth)
-				String groupIdFromTree = getGroupIdFromTree(apiModelVo.getId());
-				if (groupIdFromTree != null) {
-					apiModelVo.setGroupId(groupIdFromTree);
-				} else if (apiModelVo.getGroupId() == null) {
-					// Fallback to default groups if not in tree
-					if (apiModelVo.isAuthConfig()) {
-						apiModelVo.setGroupId(CommonUtil.getGroupId(CommonConstants.GROUP_NAME_AUTH_CONFIGURATIONS, apiGroupVoMap));
-					} else {
-						apiModelVo.setGroupId(CommonUtil.getGroupId(CommonConstants.GROUP_NAME_HISTORY, apiGroupVoMap));
-					}
+	/**
+	 * Returns the loaded auth config selected for the request, or null when it has
+	 * none. Must be called on the FX thread.
+	 */
+	private ApiModelVo resolveAuthConfig(String authConfigId) {
+		if (!StringUtil.nonEmptyStr(authConfigId)) {
+			return null;
+		}
+		ApiModelVo authConfig = apiModelVoMap.get(authConfigId);
+		if (authConfig == null || !authConfig.isAuthConfig()) {
+			return null;
+		}
+		persistenceService.ensureLoaded(authConfig);
+		return authConfig;
+	}
+
+	/**
+	 * Adds the bearer token of the auth config to the request, fetching a new token
+	 * first when the cached one has expired.
+	 */
+	private CompletableFuture<ApiModelVo> authorizeRequest(ApiModelVo apiModelVo, ApiModelVo authConfig) {
+		if (authConfig == null) {
+			return CompletableFuture.completedFuture(apiModelVo);
+		}
+		return ApiHelper.getInstance().authorizeAsync(apiModelVo, authConfig);
+	}
+
+	/**
+	 * Hands the request to the scheduler once its token is there, so a slow token
+	 * fetch does not hold a scheduler slot. Cancelling the returned future stops
+	 * the wait for the token or aborts the scheduled exchange.
+	 */
+	private CompletableFuture<ApiModelVo> scheduleRequest(String url, CompletableFuture<ApiModelVo> authorizedFuture,
+			ExchangeTimer exchangeTimer) {
+		CompletableFuture<ApiModelVo> requestFuture = new CompletableFuture<>();
+		authorizedFuture.whenComplete((authorizedApiModel, throwable) -> {
+			if (throwable != null) {
+				requestFuture.completeExceptionally(CommonUtil.unwrapCompletionException(throwable));
+				return;
+			}
+			if (requestFuture.isDone()) {
+				return;
+			}
+			CompletableFuture<ApiModelVo> scheduledFuture = RequestScheduler.getInstance().submit(
+					RequestScheduler.getHostKey(url),
+					() -> ApiHelper.getInstance().invokeApiAsync(authorizedApiModel, exchangeTimer));
+			requestFuture.whenComplete((result, requestThrowable) -> {
+				if (requestFuture.isCancelled()) {
+					scheduledFuture.cancel(true);
 				}
-				apiModelVoList.add(apiModelVo);
-				for (Tab tab : centerTabs.getTabs()) {
-					if (tab.getId().equals(apiModelVo.getId())) {
-						apiModelVo.setTabOpen(true);
-					}
+			});
+			scheduledFuture.whenComplete((result, scheduledThrowable) -> {
+				if (scheduledThrowable != null) {
+					requestFuture.completeExceptionally(CommonUtil.unwrapCompletionException(scheduledThrowable));
+				} else {
+					requestFuture.complete(result);
 				}
-			}
-			out.write(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(appVo));
-			out.flush();
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+			});
+		});
+		return requestFuture;
 	}
-	
+
 	/**
-	 * Finds the groupId of an item by searching the tree structure
+	 * @return completes when the response is highlighted
 	 */
-	private String getGroupIdFromTree(String itemId) {
-		if (itemId == null) {
-			return null;
+	private CompletableFuture<Void> showApiResponse(ApiModelVo apiModelVo, CodeArea responseArea,
+			ResponseHighlighter responseHighlighter, Label responseLabel, ConsoleView consoleView) {
+		responseLabel.setText("Status Code: " + apiModelVo.getStatusCode());
+		responseArea.appendText(apiModelVo.getResponse());
+		ResponseBody responseBody = apiModelVo.getResponseBody();
+		if (responseBody != null && responseBody.isTruncated()) {
+			responseLabel.setText("Status Code: " + apiModelVo.getStatusCode() + " (truncated, "
+					+ responseBody.getSize() + " bytes)");
+			responseArea.appendText("\n\n[Response truncated to the first "
+					+ (CommonConstants.RESPONSE_MEMORY_LIMIT_BYTES / (1024 * 1024))
+					+ " MB. Use \"Save full response...\" to get the complete payload.]");
 		}
-		return findGroupIdInTree(virtualRootItem, itemId);
+		responseArea.scrollYToPixel(0);
+		// Styles arrive in the background, starting with the visible paragraphs
+		CompletableFuture<Void> highlightFuture = responseHighlighter.highlight(apiModelVo.getResponse());
+
+		if (apiModelVo.getConsoleLog() != null) {
+			consoleView.log(apiModelVo.getConsoleLog());
+		}
+		return highlightFuture;
 	}
-	
-	private String findGroupIdInTree(TreeItem<ApiModelVo> node, String itemId) {
-		if (node == null) {
-			return null;
+
+	private void showApiError(ApiModelVo apiModelVo, Throwable exception, CodeArea responseArea, Label responseLabel,
+			ConsoleView consoleView) {
+		responseLabel.setText("Status: Error");
+		responseArea.appendText(
+				"Error: " + exception.getClass().getName() + "\n" + "Message: " + exception.getMessage()
+						+ "\n\n" + "Stack Trace:\n" + CommonUtil.getStackTraceAsString(exception));
+		if (apiModelVo.getConsoleLog() != null) {
+			consoleView.log(apiModelVo.getConsoleLog());
 		}
-		
-		// Search in children
-		for (TreeItem<ApiModelVo> child : node.getChildren()) {
-			// Check if this child is the item we're looking for
-			if (child.getValue() != null && itemId.equals(child.getValue().getId())) {
-				// Found the item, return its parent's ID (which is the group)
-				if (node.getValue() != null && node.getValue().getId() != null) {
-					return node.getValue().getId();
+		responseArea.scrollYToPixel(0);
+	}
+
+	/**
+	 * Copies the requested part of the workspace for the persistence thread. Runs on
+	 * the FX thread, so it only copies; serialization happens in the background.
+	 *
+	 * @param apiIds   requests to copy, or null for all
+	 * @param groupIds groups to copy, or null for all
+	 */
+	private AppVo createAppSnapshot(Set<String> apiIds, Set<String> groupIds) {
+		AppVo appVo = new AppVo();
+		List<ApiModelVo> apiModelVoList = new ArrayList<>();
+		appVo.setApiList(apiModelVoList);
+		List<ApiGroupVo> apiGroupVoList = new ArrayList<>();
+		appVo.setApiGroups(apiGroupVoList);
+		// Look up only the changed entities so a save does not scale with the workspace
+		Iterable<String> groupIdsToCopy = groupIds != null ? groupIds : apiGroupVoMap.keySet();
+		for (String groupId : groupIdsToCopy) {
+			ApiGroupVo apiGroupVo = apiGroupVoMap.get(groupId);
+			if (apiGroupVo != null) {
+				apiGroupVoList.add(apiGroupVo.clone());
+			}
+		}
+
+		// Update SettingsVo with current settings
+		settings.setTheme(currentTheme);
+		settings.setProxySettings(this.proxySettings);
+		appVo.setSettings(settings);
+
+		// Also set legacy fields for backward compatibility
+		appVo.setProxySettings(this.proxySettings);
+		appVo.setTheme(currentTheme);
+
+		Set<String> openTabIds = new HashSet<>();
+		for (Tab tab : centerTabs.getTabs()) {
+			openTabIds.add(tab.getId());
+		}
+		Iterable<String> apiIdsToCopy = apiIds != null ? apiIds : apiModelVoMap.keySet();
+		for (String apiId : apiIdsToCopy) {
+			ApiModelVo source = apiModelVoMap.get(apiId);
+			if (source == null) {
+				continue;
+			}
+			if (apiIds != null) {
+				// Changed entries are written whole, so stubs need their details first
+				persistenceService.ensureLoaded(source);
+			}
+			ApiModelVo apiModelVo = source.clone();
+			apiModelVo.setResponse(null);
+			apiModelVo.setConsoleLog(null);
+
+			// Update groupId from tree structure (source of truth)
+			String groupIdFromTree = treeIndex.getParentGroupId(apiModelVo.getId());
+			if (groupIdFromTree != null) {
+				apiModelVo.setGroupId(groupIdFromTree);
+			} else if (apiModelVo.getGroupId() == null) {
+				// Fallback to default groups if not in tree
+				if (apiModelVo.isAuthConfig()) {
+					apiModelVo.setGroupId(groupRegistry.getAuthConfigurationsGroupId());
+				} else {
+					apiModelVo.setGroupId(groupRegistry.getHistoryGroupId());
 				}
-				return null;
 			}
-			
-			// Recursively search in this child's subtree
-			String result = findGroupIdInTree(child, itemId);
-			if (result != null) {
-				return result;
+			if (openTabIds.contains(apiModelVo.getId())) {
+				apiModelVo.setTabOpen(true);
 			}
+			apiModelVoList.add(apiModelVo);
 		}
-		
-		return null;
+		return appVo;
 	}
 
 	private void openProxySettingsDialog() {
-		SettingsDialog dialog = new SettingsDialog(this.proxySettings, this.currentTheme);
+		SettingsDialog dialog = new SettingsDialog(this.proxySettings, this.currentTheme, this.settings);
 		dialog.initOwner(centerTabs.getScene() != null ? centerTabs.getScene().getWindow() : null);
 		dialog.showAndWait().ifPresent(settingsVo -> {
 			// Update proxy settings
 			this.proxySettings = settingsVo.getProxySettings();
-			ApiHelper.getInstance().setProxySettings(settingsVo.getProxySettings());
+			this.settings = settingsVo;
+			ApiHelper.getInstance().setClientSettings(settingsVo.getProxySettings(), settings.getClientProfile());
+			RequestScheduler.getInstance().setLimits(settings.getMaxConcurrentRequests(),
+					settings.getMaxConcurrentRequestsPerHost());
+			OAuthTokenStore.getInstance().setRefreshPercent(settings.getTokenRefreshPercent());
+			OAuthTokenStore.getInstance().setCacheFile(settings.isPersistTokenCache() ? tokenCacheFile : null);
 			
 			// Update theme
 			String newTheme = settingsVo.getTheme();
@@ -1005,7 +1373,7 @@ public class App extends Application {
 				updateFooterStyle();
 			}
 			
-			saveApiModelVoMapAsJson();
+			persistenceService.settingsChanged();
 
 			Alert alert = new Alert(Alert.AlertType.INFORMATION);
 			alert.setTitle("Settings");
@@ -1038,7 +1406,7 @@ public class App extends Application {
 			String trimmedGroupName = groupName.trim();
 
 			// Check if group already exists at the root level
-			if (CommonUtil.isGroupExists(trimmedGroupName, apiGroupVoMap, null)) {
+			if (groupRegistry.isGroupExists(trimmedGroupName, null)) {
 				Alert alert = new Alert(Alert.AlertType.ERROR);
 				alert.setTitle("Duplicate Group");
 				alert.setHeaderText("Group already exists");
@@ -1055,7 +1423,7 @@ public class App extends Application {
 			newGroup.setName(trimmedGroupName);
 
 			// Add to map
-			apiGroupVoMap.put(newGroup.getId(), newGroup);
+			groupRegistry.add(newGroup);
 
 			// Create tree item for the group
 			ApiModelVo groupVo = new ApiModelVo();
@@ -1069,60 +1437,10 @@ public class App extends Application {
 			treeItemMap.put(newGroup.getId(), groupTreeItem);
 			
 			// Save the changes
-			saveApiModelVoMapAsJson();
+			persistenceService.groupChanged(newGroup.getId());
 		});
 	}
 
-	private String fetchAuthToken(ApiModelVo authConfig) throws Exception {
-		// Create a request to fetch the token
-		ApiModelVo tokenRequest = new ApiModelVo();
-		tokenRequest.setMethod(authConfig.getMethod() != null ? authConfig.getMethod() : "POST");
-		tokenRequest.setUrl(authConfig.getUrl());
-		tokenRequest.setParams(authConfig.getParams());
-		tokenRequest.setHeaders(authConfig.getHeaders());
-		tokenRequest.setBody(authConfig.getBody());
-
-		// Invoke the token endpoint
-		ApiHelper.getInstance().invokeApi(tokenRequest);
-
-		// Return the JSON response for OAuthTokenStore to parse
-		if (tokenRequest.getStatusCode() >= 200 && tokenRequest.getStatusCode() < 300) {
-			return tokenRequest.getResponse();
-		} else {
-			throw new Exception("Auth token request failed with status " + tokenRequest.getStatusCode() + ": "
-					+ tokenRequest.getResponse());
-		}
-	}
-
-	private Map<String, String> getParams(VBox paramsContainer) {
-		Map<String, String> params = new LinkedHashMap<>();
-		for (Node node : paramsContainer.getChildren()) {
-			if (node instanceof HBox) {
-				HBox row = (HBox) node;
-				String key = null;
-				String value = null;
-				boolean isSelected = false;
-				for (Node fieldNode : row.getChildren()) {
-					if (fieldNode instanceof TextField) {
-						TextField textField = (TextField) fieldNode;
-						if ("key".equals(textField.getId())) {
-							key = textField.getText();
-						} else if ("value".equals(textField.getId())) {
-							value = textField.getText();
-						}
-					} else if (fieldNode instanceof CheckBox) {
-						CheckBox checkBox = (CheckBox) fieldNode;
-						isSelected = checkBox.isSelected();
-					}
-				}
-				if (isSelected && StringUtil.nonEmptyStr(key)) {
-					params.put(key, value);
-				}
-			}
-		}
-		return params;
-	}
-
 	public void openTab(String id) {
 		tabManager.openTab(id);
 	}
@@ -1156,7 +1474,7 @@ public class App extends Application {
 	}
 	
 	public boolean isGroupTreeItem(TreeItem<ApiModelVo> treeItem) {
-		return treeItemMap.containsValue(treeItem);
+		return treeIndex.isGroup(treeItem);
 	}
 	
 	public boolean isAuthConfigurationGroup(TreeItem<ApiModelVo> treeItem) {
@@ -1206,7 +1524,7 @@ public class App extends Application {
 			String trimmedGroupName = groupName.trim();
 
 			// Check if group already exists within the same parent
-			if (CommonUtil.isGroupExists(trimmedGroupName, apiGroupVoMap, parentGroupTreeItem.getValue().getId())) {
+			if (groupRegistry.isGroupExists(trimmedGroupName, parentGroupTreeItem.getValue().getId())) {
 				Alert alert = new Alert(Alert.AlertType.ERROR);
 				alert.setTitle("Duplicate Group");
 				alert.setHeaderText("Group already exists");
@@ -1224,7 +1542,7 @@ public class App extends Application {
 			newGroup.setParentId(parentGroupTreeItem.getValue().getId());
 
 			// Add to map
-			apiGroupVoMap.put(newGroup.getId(), newGroup);
+			groupRegistry.add(newGroup);
 
 			// Create tree item for the sub-group
 			ApiModelVo groupVo = new ApiModelVo();
@@ -1241,11 +1559,11 @@ public class App extends Application {
 			treeItemMap.put(newGroup.getId(), groupTreeItem);
 			
 			// Save the changes
-			saveApiModelVoMapAsJson();
+			persistenceService.groupChanged(newGroup.getId());
 		});
 	}
 
-	private VBox createAuthSelectionContent(ApiModelVo apiModelVo, Tab currentTab) {
+	private VBox createAuthSelectionContent(RequestEditorModel editorModel) {
 		VBox authBox = new VBox(10);
 		authBox.setPadding(new Insets(10));
 
@@ -1270,13 +1588,13 @@ public class App extends Application {
 			authConfigIdMap.put("None", "None");
 
 			// Build hierarchical list from auth configurations
-			TreeItem<ApiModelVo> authConfigRoot = treeItemMap.get(CommonUtil.getGroupId(CommonConstants.GROUP_NAME_AUTH_CONFIGURATIONS, apiGroupVoMap));
+			TreeItem<ApiModelVo> authConfigRoot = treeItemMap.get(groupRegistry.getAuthConfigurationsGroupId());
 			buildAuthConfigDropdown(authConfigRoot, "", authOptions, authConfigIdMap);
 			
 			authComboBox.setItems(authOptions);
 			
 			// Set the currently selected item
-			String currentAuthId = apiModelVo.getAuthConfigId();
+			String currentAuthId = editorModel.authConfigIdProperty().get();
 			if (currentAuthId == null) {
 				authComboBox.setValue("None");
 			} else {
@@ -1313,16 +1631,8 @@ public class App extends Application {
 			if (selected != null) {
 				String authConfigId = authConfigIdMap.get(selected);
 				if (authConfigId != null) {
-					String newAuthId = "None".equals(authConfigId) ? null : authConfigId;
-					String currentAuthId = apiModelVo.getAuthConfigId();
-					
-					// Only mark as modified if the value actually changed
-					if ((newAuthId == null && currentAuthId != null) || (newAuthId != null && !newAuthId.equals(currentAuthId))) {
-						apiModelVo.setAuthConfigId(newAuthId);
-						if (currentTab != null) {
-							tabManager.markTabAsModified(currentTab);
-						}
-					}
+					// The model only reports a change, and marks the tab, if the value differs
+					editorModel.authConfigIdProperty().set("None".equals(authConfigId) ? null : authConfigId);
 				}
 			}
 		});
@@ -1350,7 +1660,7 @@ public class App extends Application {
 
 		for (TreeItem<ApiModelVo> child : sourceNode.getChildren()) {
 			if (child.getValue() != null) {
-				boolean isGroup = treeItemMap.containsValue(child);
+				boolean isGroup = treeIndex.isGroup(child);
 
 				if (isGroup) {
 					// This is a subgroup, build the path and recurse
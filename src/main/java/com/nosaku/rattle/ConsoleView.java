@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import com.nosaku.rattle.util.ConsoleBuffer;
+import com.nosaku.rattle.util.FlightEvents;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+/**
+ * Console backed by a {@link ConsoleBuffer} and rendered through a virtualized
+ * ListView, one cell per line. Lines evicted from memory can be paged back in
+ * from the archive with the Older/Newer buttons.
+ */
+public final class ConsoleView extends VBox {
+	private static final int MAX_DISPLAYED_LINE_LENGTH = 10000;
+
+	private final ConsoleBuffer consoleBuffer;
+	private final String requestId;
+	private final ObservableList<String> liveLines = FXCollections.observableArrayList();
+	private final ListView<String> listView = new ListView<>(liveLines);
+	private final Button olderButton = new Button("Older");
+	private final Button newerButton = new Button("Newer");
+	private final Label archiveLabel = new Label();
+	// -1 while showing the live lines, otherwise the archive page shown
+	private int archivePage = -1;
+
+	public ConsoleView(IntSupplier charBudget) {
+		this(charBudget, null);
+	}
+
+	/**
+	 * @param requestId the request whose exchanges are logged, for flight recording
+	 */
+	public ConsoleView(IntSupplier charBudget, String requestId) {
+		super(5);
+		this.consoleBuffer = new ConsoleBuffer(charBudget);
+		this.requestId = requestId;
+
+		listView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+		listView.setStyle("-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
+		listView.setCellFactory(view -> new ListCell<>() {
+			@Override
+			protected void updateItem(String item, boolean empty) {
+				super.updateItem(item, empty);
+				if (empty || item == null) {
+					setText(null);
+				} else if (item.length() > MAX_DISPLAYED_LINE_LENGTH) {
+					setText(item.substring(0, MAX_DISPLAYED_LINE_LENGTH) + " ... (" + item.length() + " chars)");
+				} else {
+					setText(item);
+				}
+			}
+		});
+		MenuItem copyItem = new MenuItem("Copy");
+		copyItem.setOnAction(e -> copySelection());
+		listView.setContextMenu(new ContextMenu(copyItem));
+		listView.setOnKeyPressed(event -> {
+			if (event.isShortcutDown() && event.getCode() == KeyCode.C) {
+				copySelection();
+			}
+		});
+		VBox.setVgrow(listView, Priority.ALWAYS);
+
+		Button clearButton = new Button("Clear Console");
+		clearButton.setOnAction(e -> clear());
+		olderButton.setOnAction(e -> showArchivePage(archivePage < 0
+				? consoleBuffer.getArchivedPageCount() - 1 : archivePage - 1));
+		newerButton.setOnAction(e -> {
+			if (archivePage + 1 >= consoleBuffer.getArchivedPageCount()) {
+				showLive();
+			} else {
+				showArchivePage(archivePage + 1);
+			}
+		});
+		Region spacer = new Region();
+		HBox.setHgrow(spacer, Priority.ALWAYS);
+		HBox buttonBar = new HBox(10, clearButton, spacer, archiveLabel, olderButton, newerButton);
+		buttonBar.setAlignment(Pos.CENTER_LEFT);
+		buttonBar.setPadding(new Insets(0, 0, 5, 0));
+
+		getChildren().addAll(buttonBar, listView);
+		updateArchiveControls();
+	}
+
+	/**
+	 * Appends the text to the console. May be called from any thread.
+	 */
+	public void log(String text) {
+		if (!Platform.isFxApplicationThread()) {
+			Platform.runLater(() -> log(text));
+			return;
+		}
+		FlightEvents.ConsoleAppendEvent consoleAppendEvent = new FlightEvents.ConsoleAppendEvent();
+		consoleAppendEvent.begin();
+		int firstNewLine = liveLines.size();
+		ConsoleBuffer.AppendResult appendResult = consoleBuffer.append(text);
+		liveLines.addAll(appendResult.addedLines());
+		if (appendResult.evictedCount() > 0) {
+			int evictedCount = Math.min(appendResult.evictedCount(), liveLines.size());
+			liveLines.remove(0, evictedCount);
+			firstNewLine -= evictedCount;
+		}
+		if (archivePage < 0) {
+			// Show the start of the new entry, as the request log reads top-down
+			listView.scrollTo(Math.max(0, firstNewLine));
+		}
+		updateArchiveControls();
+		if (consoleAppendEvent.shouldCommit()) {
+			consoleAppendEvent.requestId = requestId;
+			consoleAppendEvent.chars = text.length();
+			consoleAppendEvent.addedLines = appendResult.addedLines().size();
+			consoleAppendEvent.evictedLines = appendResult.evictedCount();
+			consoleAppendEvent.commit();
+		}
+	}
+
+	public void clear() {
+		consoleBuffer.clear();
+		liveLines.clear();
+		showLive();
+	}
+
+	/**
+	 * Deletes the archive. Call when the console is discarded.
+	 */
+	public void dispose() {
+		consoleBuffer.close();
+		liveLines.clear();
+	}
+
+	private void showArchivePage(int page) {
+		if (page < 0) {
+			return;
+		}
+		consoleBuffer.readArchivedPage(page).whenComplete((pageLines, throwable) -> Platform.runLater(() -> {
+			if (throwable != null) {
+				System.err.println("Failed to read console archive: " + throwable.getMessage());
+				return;
+			}
+			archivePage = page;
+			listView.setItems(FXCollections.observableArrayList(pageLines));
+			listView.scrollTo(0);
+			updateArchiveControls();
+		}));
+	}
+
+	private void showLive() {
+		archivePage = -1;
+		listView.setItems(liveLines);
+		listView.scrollTo(Math.max(0, liveLines.size() - 1));
+		updateArchiveControls();
+	}
+
+	private void updateArchiveControls() {
+		int archivedLineCount = consoleBuffer.getArchivedLineCount();
+		int pageCount = consoleBuffer.getArchivedPageCount();
+		boolean hasArchive = archivedLineCount > 0;
+		archiveLabel.setVisible(hasArchive);
+		olderButton.setVisible(hasArchive);
+		newerButton.setVisible(hasArchive);
+		if (archivePage < 0) {
+			archiveLabel.setText(archivedLineCount + " older lines archived to disk");
+		} else {
+			archiveLabel.setText("Archived page " + (archivePage + 1) + " of " + pageCount);
+		}
+		olderButton.setDisable(archivePage == 0);
+		newerButton.setDisable(archivePage < 0);
+	}
+
+	private void copySelection() {
+		List<String> selectedLines = listView.getSelectionModel().getSelectedItems();
+		if (selectedLines.isEmpty()) {
+			return;
+		}
+		ClipboardContent content = new ClipboardContent();
+		content.putString(selectedLines.stream().collect(Collectors.joining("\n")));
+		Clipboard.getSystemClipboard().setContent(content);
+	}
+}
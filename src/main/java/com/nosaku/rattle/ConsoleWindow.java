@@ -21,15 +21,11 @@
  */
 package com.nosaku.rattle;
 
-import javafx.application.Platform;
+import com.nosaku.rattle.util.CommonConstants;
+
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
-import javafx.scene.control.Button;
-import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.Priority;
-import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
@@ -38,7 +34,7 @@ import javafx.stage.Window;
  */
 public class ConsoleWindow {
 	private Stage consoleStage;
-	private TextArea consoleArea;
+	private ConsoleView consoleView;
 	
 	/**
 	 * Shows the console window. Creates it if it doesn't exist yet.
@@ -86,10 +82,8 @@ public class ConsoleWindow {
 	 * @param message The message to log
 	 */
 	public void log(String message) {
-		if (consoleArea != null) {
-			Platform.runLater(() -> {
-				consoleArea.appendText(message + "\n");
-			});
+		if (consoleView != null) {
+			consoleView.log(message);
 		}
 	}
 	
@@ -97,10 +91,8 @@ public class ConsoleWindow {
 	 * Clears all console content
 	 */
 	public void clear() {
-		if (consoleArea != null) {
-			Platform.runLater(() -> {
-				consoleArea.clear();
-			});
+		if (consoleView != null) {
+			consoleView.clear();
 		}
 	}
 	
@@ -118,20 +110,8 @@ public class ConsoleWindow {
 			// Icon not found, continue without it
 		}
 
-		consoleArea = new TextArea();
-		consoleArea.setEditable(false);
-		consoleArea.setWrapText(false);
-		consoleArea.setStyle("-fx-font-family: 'Courier New'; -fx-font-size: 12px;");
-
-		Button clearButton = new Button("Clear Console");
-		clearButton.setOnAction(e -> consoleArea.clear());
-
-		HBox buttonBar = new HBox(10, clearButton);
-		buttonBar.setPadding(new Insets(5));
-		buttonBar.setStyle("-fx-background-color: #f0f0f0;");
-
-		VBox consoleLayout = new VBox(buttonBar, consoleArea);
-		VBox.setVgrow(consoleArea, Priority.ALWAYS);
+		consoleView = new ConsoleView(() -> CommonConstants.DEFAULT_CONSOLE_BUFFER_CHARS);
+		consoleView.setPadding(new Insets(5));
 
 		double consoleWidth = 800;
 		double consoleHeight = 600;
@@ -140,9 +120,13 @@ public class ConsoleWindow {
 			consoleHeight = owner.getHeight() / 2;
 		}
 
-		Scene consoleScene = new Scene(consoleLayout, consoleWidth, consoleHeight);
+		Scene consoleScene = new Scene(consoleView, consoleWidth, consoleHeight);
 		consoleStage.setScene(consoleScene);
 
-		consoleStage.setOnCloseRequest(e -> consoleStage = null);
+		consoleStage.setOnCloseRequest(e -> {
+			consoleView.dispose();
+			consoleView = null;
+			consoleStage = null;
+		});
 	}
 }
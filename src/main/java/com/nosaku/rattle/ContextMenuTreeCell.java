@@ -59,6 +59,11 @@ public class ContextMenuTreeCell extends TextFieldTreeCell<ApiModelVo> {
 		cloneItem.setOnAction(event -> {
 			app.cloneTreeItem(getTreeItem());
 		});
+		MenuItem loadTestItem = new MenuItem("Load Test...");
+		childMenu.getItems().add(loadTestItem);
+		loadTestItem.setOnAction(event -> {
+			app.openLoadTest(getTreeItem());
+		});
 		MenuItem deleteItem = new MenuItem("Delete");
 		childMenu.getItems().add(deleteItem);
 		deleteItem.setOnAction(event -> {
@@ -139,6 +144,13 @@ public class ContextMenuTreeCell extends TextFieldTreeCell<ApiModelVo> {
 				app.addSubGroup(getTreeItem());
 			}
 		});
+		MenuItem groupLoadTestItem = new MenuItem("Load Test...");
+		groupMenu.getItems().add(groupLoadTestItem);
+		groupLoadTestItem.setOnAction(event -> {
+			if (getTreeItem() != null) {
+				app.openLoadTest(getTreeItem());
+			}
+		});
 		MenuItem renameGroupItem = new MenuItem("Rename");
 		groupMenu.getItems().add(renameGroupItem);
 		renameGroupItem.setOnAction(event -> {
@@ -0,0 +1,459 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.util.GroupRegistry;
+import com.nosaku.rattle.util.OAuthTokenStore;
+import com.nosaku.rattle.util.StringUtil;
+import com.nosaku.rattle.util.TokenCacheFile;
+import com.nosaku.rattle.util.WorkspaceStore;
+import com.nosaku.rattle.vo.ApiGroupVo;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.AppVo;
+import com.nosaku.rattle.vo.RunReportVo;
+import com.nosaku.rattle.vo.RunResultVo;
+import com.nosaku.rattle.vo.SettingsVo;
+
+/**
+ * Runs saved requests from the command line without starting JavaFX, for smoke
+ * tests in a build or on a server. Requests go through the same ApiHelper,
+ * RequestScheduler and OAuthTokenStore as the UI. The workspace and the token
+ * cache are only read, never written, so it is safe to run while the app is
+ * open; tokens fetched during a run are not cached.
+ *
+ * <pre>
+ * rattle run [--workspace DIR] [--request NAME|ID]... [--group NAME|ID]... [--tree NAME|ID]...
+ *            [--parallel N] [--json FILE] [--junit FILE]
+ * </pre>
+ * 
+ * Without a selection every request outside History and Auth configurations is
+ * run. A request passes with a 2xx or 3xx status. The exit code is 0 when all
+ * requests pass, 1 when any fails and 2 for usage or workspace errors.
+ */
+public class HeadlessRunner {
+	public static final String COMMAND = "run";
+	public static final int EXIT_PASSED = 0;
+	public static final int EXIT_FAILED = 1;
+	public static final int EXIT_USAGE = 2;
+
+	private Path workspaceDir = Paths.get(System.getProperty("user.home"), ".rattle");
+	private final List<String> requestSelectors = new ArrayList<>();
+	private final List<String> groupSelectors = new ArrayList<>();
+	private final List<String> treeSelectors = new ArrayList<>();
+	private int parallelism = CommonConstants.DEFAULT_RUNNER_PARALLELISM;
+	private File jsonFile;
+	private File junitFile;
+
+	private final Map<String, ApiModelVo> apiModelVoMap = new LinkedHashMap<>();
+	private final Map<String, ApiGroupVo> apiGroupVoMap = new LinkedHashMap<>();
+	private final GroupRegistry groupRegistry = new GroupRegistry(apiGroupVoMap);
+
+	/**
+	 * @param args the arguments after the "run" command
+	 * @return the process exit code
+	 */
+	public static int run(String[] args) {
+		HeadlessRunner runner = new HeadlessRunner();
+		try {
+			runner.parseArgs(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			printUsage();
+			return EXIT_USAGE;
+		}
+		return runner.run();
+	}
+
+	private void parseArgs(String[] args) {
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("--help".equals(arg) || "-h".equals(arg)) {
+				throw new IllegalArgumentException("");
+			}
+			if (i + 1 >= args.length) {
+				throw new IllegalArgumentException("Missing value for " + arg);
+			}
+			String value = args[++i];
+			switch (arg) {
+			case "--workspace":
+				workspaceDir = Paths.get(value);
+				break;
+			case "--request":
+				requestSelectors.add(value);
+				break;
+			case "--group":
+				groupSelectors.add(value);
+				break;
+			case "--tree":
+				treeSelectors.add(value);
+				break;
+			case "--parallel":
+				try {
+					parallelism = Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Invalid --parallel value: " + value);
+				}
+				if (parallelism < 1) {
+					throw new IllegalArgumentException("--parallel must be at least 1");
+				}
+				break;
+			case "--json":
+				jsonFile = new File(value);
+				break;
+			case "--junit":
+				junitFile = new File(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option: " + arg);
+			}
+		}
+	}
+
+	private static void printUsage() {
+		System.err.println("Usage: rattle run [--workspace DIR] [--request NAME|ID]... [--group NAME|ID]...");
+		System.err.println("                  [--tree NAME|ID]... [--parallel N] [--json FILE] [--junit FILE]");
+		System.err.println();
+		System.err.println("  --workspace  directory holding rattle.json (default ~/.rattle)");
+		System.err.println("  --request    a single request");
+		System.err.println("  --group      the requests directly in a group");
+		System.err.println("  --tree       the requests in a group and all its subgroups");
+		System.err.println("  --parallel   requests in flight at once (default "
+				+ CommonConstants.DEFAULT_RUNNER_PARALLELISM + ")");
+		System.err.println("  --json       write the results as JSON");
+		System.err.println("  --junit      write the results as JUnit XML");
+		System.err.println();
+		System.err.println("Without --request, --group or --tree all requests are run.");
+	}
+
+	private int run() {
+		List<ApiModelVo> requests;
+		SettingsVo settings;
+		WorkspaceStore store = WorkspaceStore.openReadOnly(workspaceDir);
+		try {
+			AppVo appVo = store.load();
+			if (appVo == null) {
+				System.err.println("No workspace found in " + workspaceDir);
+				return EXIT_USAGE;
+			}
+			settings = appVo.getSettings() != null ? appVo.getSettings() : new SettingsVo();
+			if (settings.getProxySettings() == null) {
+				settings.setProxySettings(appVo.getProxySettings());
+			}
+			for (ApiGroupVo apiGroupVo : appVo.getApiGroups()) {
+				groupRegistry.add(apiGroupVo);
+			}
+			for (ApiModelVo apiModelVo : appVo.getApiList()) {
+				apiModelVoMap.put(apiModelVo.getId(), apiModelVo);
+			}
+			requests = selectRequests();
+			for (int i = 0; i < requests.size(); i++) {
+				requests.set(i, loadDetails(store, requests.get(i)));
+				String authConfigId = requests.get(i).getAuthConfigId();
+				if (StringUtil.nonEmptyStr(authConfigId) && apiModelVoMap.containsKey(authConfigId)) {
+					apiModelVoMap.put(authConfigId, loadDetails(store, apiModelVoMap.get(authConfigId)));
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			return EXIT_USAGE;
+		} catch (IOException e) {
+			System.err.println("Could not read workspace in " + workspaceDir + ": " + e.getMessage());
+			return EXIT_USAGE;
+		} finally {
+			store.close();
+		}
+		if (requests.isEmpty()) {
+			System.err.println("No requests selected");
+			return EXIT_USAGE;
+		}
+
+		ApiHelper.getInstance().setClientSettings(settings.getProxySettings(), settings.getClientProfile());
+		RequestScheduler.getInstance().setLimits(parallelism, parallelism);
+		OAuthTokenStore tokenStore = OAuthTokenStore.getInstance();
+		// A run is too short for background renewals to pay off
+		tokenStore.setRefreshPercent(0);
+		if (settings.isPersistTokenCache()) {
+			tokenStore.addCachedTokens(new TokenCacheFile(workspaceDir).loadAsync().join());
+		}
+
+		RunReportVo report = new RunReportVo();
+		report.setStartedAt(System.currentTimeMillis());
+		report.setParallelism(parallelism);
+		long startNanos = System.nanoTime();
+		List<CompletableFuture<RunResultVo>> resultFutures = new ArrayList<>();
+		for (ApiModelVo request : requests) {
+			resultFutures.add(runRequest(request));
+		}
+		for (CompletableFuture<RunResultVo> resultFuture : resultFutures) {
+			RunResultVo result = resultFuture.join();
+			report.getResults().add(result);
+			switch (result.getOutcome()) {
+			case PASSED:
+				report.setPassed(report.getPassed() + 1);
+				break;
+			case FAILED:
+				report.setFailed(report.getFailed() + 1);
+				break;
+			case ERROR:
+				report.setErrors(report.getErrors() + 1);
+				break;
+			}
+		}
+		report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+		System.out.println();
+		System.out.println(report.getResults().size() + " requests, " + report.getPassed() + " passed, "
+				+ report.getFailed() + " failed, " + report.getErrors() + " errors in " + report.getDurationMillis()
+				+ " ms");
+		try {
+			if (jsonFile != null) {
+				writeJson(report, jsonFile);
+			}
+			if (junitFile != null) {
+				writeJunitXml(report, junitFile);
+			}
+		} catch (IOException | XMLStreamException e) {
+			System.err.println("Could not write results: " + e.getMessage());
+			return EXIT_USAGE;
+		}
+		return report.getPassed() == report.getResults().size() ? EXIT_PASSED : EXIT_FAILED;
+	}
+
+	/**
+	 * Resolves the selectors to requests in workspace order, each once
+	 */
+	private List<ApiModelVo> selectRequests() {
+		Set<String> groupIds = new LinkedHashSet<>();
+		for (String selector : groupSelectors) {
+			groupIds.add(resolveGroupId(selector));
+		}
+		for (String selector : treeSelectors) {
+			addGroupTree(resolveGroupId(selector), groupIds);
+		}
+		Set<String> requestIds = new LinkedHashSet<>();
+		for (String selector : requestSelectors) {
+			boolean isFound = false;
+			for (ApiModelVo apiModelVo : apiModelVoMap.values()) {
+				if (!apiModelVo.isAuthConfig() && (selector.equals(apiModelVo.getId())
+						|| selector.equalsIgnoreCase(apiModelVo.getName()))) {
+					requestIds.add(apiModelVo.getId());
+					isFound = true;
+				}
+			}
+			if (!isFound) {
+				throw new IllegalArgumentException("No request named " + selector);
+			}
+		}
+
+		boolean isSelectAll = requestSelectors.isEmpty() && groupSelectors.isEmpty() && treeSelectors.isEmpty();
+		String historyGroupId = groupRegistry.getHistoryGroupId();
+		List<ApiModelVo> requests = new ArrayList<>();
+		for (ApiModelVo apiModelVo : apiModelVoMap.values()) {
+			if (apiModelVo.isAuthConfig()) {
+				continue;
+			}
+			boolean isSelected = isSelectAll
+					? historyGroupId == null || !historyGroupId.equals(apiModelVo.getGroupId())
+					: requestIds.contains(apiModelVo.getId()) || groupIds.contains(apiModelVo.getGroupId());
+			if (isSelected) {
+				requests.add(apiModelVo);
+			}
+		}
+		return requests;
+	}
+
+	private String resolveGroupId(String selector) {
+		if (groupRegistry.get(selector) != null) {
+			return selector;
+		}
+		String groupId = groupRegistry.getGroupId(selector);
+		if (groupId == null) {
+			throw new IllegalArgumentException("No group named " + selector);
+		}
+		return groupId;
+	}
+
+	private void addGroupTree(String groupId, Set<String> groupIds) {
+		if (!groupIds.add(groupId)) {
+			return;
+		}
+		for (ApiGroupVo apiGroupVo : apiGroupVoMap.values()) {
+			if (groupId.equals(apiGroupVo.getParentId())) {
+				addGroupTree(apiGroupVo.getId(), groupIds);
+			}
+		}
+	}
+
+	private static ApiModelVo loadDetails(WorkspaceStore store, ApiModelVo apiModelVo) throws IOException {
+		if (apiModelVo.isDetailsLoaded()) {
+			return apiModelVo;
+		}
+		ApiModelVo loaded = store.readApi(apiModelVo.getId());
+		return loaded != null ? loaded : apiModelVo;
+	}
+
+	private CompletableFuture<RunResultVo> runRequest(ApiModelVo savedRequest) {
+		ApiModelVo apiModelVo = ApiHelper.createExchange(savedRequest);
+
+		RunResultVo result = new RunResultVo();
+		result.setId(savedRequest.getId());
+		result.setName(savedRequest.getName());
+		result.setGroupPath(getGroupPath(savedRequest.getGroupId()));
+		result.setMethod(savedRequest.getMethod());
+		result.setUrl(savedRequest.getUrl());
+
+		ApiModelVo authConfig = StringUtil.nonEmptyStr(savedRequest.getAuthConfigId())
+				? apiModelVoMap.get(savedRequest.getAuthConfigId()) : null;
+		CompletableFuture<ApiModelVo> requestFuture;
+		long[] startNanos = new long[1];
+		try {
+			requestFuture = RequestScheduler.getInstance().submit(RequestScheduler.getHostKey(savedRequest.getUrl()),
+					() -> {
+						startNanos[0] = System.nanoTime();
+						CompletableFuture<ApiModelVo> authorizedFuture = authConfig != null && authConfig.isAuthConfig()
+								? ApiHelper.getInstance().authorizeAsync(apiModelVo, authConfig)
+								: CompletableFuture.completedFuture(apiModelVo);
+						// The token future may complete on the HTTP executor; build and send elsewhere
+						return authorizedFuture.thenComposeAsync(ApiHelper.getInstance()::invokeApiAsync,
+								runnable -> Thread.ofVirtual().name("rattle-run-send").start(runnable));
+					});
+		} catch (Exception e) {
+			requestFuture = CompletableFuture.failedFuture(e);
+		}
+		return requestFuture.handle((response, throwable) -> {
+			result.setTimeMillis(startNanos[0] != 0
+					? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos[0]) : 0);
+			if (throwable != null) {
+				Throwable cause = CommonUtil.unwrapCompletionException(throwable);
+				result.setOutcome(RunResultVo.Outcome.ERROR);
+				result.setMessage(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+			} else {
+				result.setStatusCode(response.getStatusCode());
+				result.setTimings(response.getTimings());
+				if (response.getStatusCode() == 0) {
+					result.setOutcome(RunResultVo.Outcome.ERROR);
+					result.setMessage("Method " + savedRequest.getMethod() + " is not supported");
+				} else if (response.getStatusCode() >= 200 && response.getStatusCode() < 400) {
+					result.setOutcome(RunResultVo.Outcome.PASSED);
+				} else {
+					result.setOutcome(RunResultVo.Outcome.FAILED);
+					result.setMessage("Expected a 2xx or 3xx status, got " + response.getStatusCode());
+				}
+				if (response.getResponseBody() != null) {
+					response.getResponseBody().release();
+				}
+			}
+			System.out.println(String.format(Locale.ROOT, "%-6s %3d %7d ms  %s", result.getOutcome(),
+					result.getStatusCode(), result.getTimeMillis(), getDisplayName(result)));
+			return result;
+		});
+	}
+
+	private String getGroupPath(String groupId) {
+		List<String> names = new ArrayList<>();
+		ApiGroupVo apiGroupVo = groupId != null ? groupRegistry.get(groupId) : null;
+		// Bounded by the group count in case a broken file has a parent cycle
+		while (apiGroupVo != null && names.size() < apiGroupVoMap.size()) {
+			names.add(0, apiGroupVo.getName());
+			apiGroupVo = apiGroupVo.getParentId() != null ? groupRegistry.get(apiGroupVo.getParentId()) : null;
+		}
+		return String.join("/", names);
+	}
+
+	private static String getDisplayName(RunResultVo result) {
+		return StringUtil.nonEmptyStr(result.getGroupPath()) ? result.getGroupPath() + "/" + result.getName()
+				: result.getName();
+	}
+
+	private static void writeJson(RunReportVo report, File file) throws IOException {
+		CommonUtil.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+	}
+
+	/**
+	 * Writes the results in the JUnit XML layout that CI servers pick up, one
+	 * testcase per request with its group path as the class name
+	 */
+	private static void writeJunitXml(RunReportVo report, File file) throws IOException, XMLStreamException {
+		try (OutputStream out = Files.newOutputStream(file.toPath())) {
+			XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			writer.writeCharacters("\n");
+			writer.writeStartElement("testsuite");
+			writer.writeAttribute("name", "rattle");
+			writer.writeAttribute("tests", String.valueOf(report.getResults().size()));
+			writer.writeAttribute("failures", String.valueOf(report.getFailed()));
+			writer.writeAttribute("errors", String.valueOf(report.getErrors()));
+			writer.writeAttribute("skipped", "0");
+			writer.writeAttribute("time", toSeconds(report.getDurationMillis()));
+			writer.writeAttribute("timestamp", Instant.ofEpochMilli(report.getStartedAt()).toString());
+			for (RunResultVo result : report.getResults()) {
+				writer.writeCharacters("\n  ");
+				writer.writeStartElement("testcase");
+				writer.writeAttribute("classname", StringUtil.nonEmptyStr(result.getGroupPath())
+						? result.getGroupPath().replace('/', '.') : "rattle");
+				writer.writeAttribute("name", result.getName() != null ? result.getName() : result.getId());
+				writer.writeAttribute("time", toSeconds(result.getTimeMillis()));
+				if (result.getOutcome() != RunResultVo.Outcome.PASSED) {
+					writer.writeCharacters("\n    ");
+					writer.writeEmptyElement(result.getOutcome() == RunResultVo.Outcome.FAILED ? "failure" : "error");
+					writer.writeAttribute("message", result.getMessage() != null ? result.getMessage() : "");
+					writer.writeAttribute("type", result.getOutcome() == RunResultVo.Outcome.FAILED
+							? "HTTP " + result.getStatusCode() : "error");
+					writer.writeCharacters("\n  ");
+				}
+				writer.writeEndElement();
+			}
+			writer.writeCharacters("\n");
+			writer.writeEndElement();
+			writer.writeCharacters("\n");
+			writer.writeEndDocument();
+			writer.close();
+		}
+	}
+
+	private static String toSeconds(long millis) {
+		return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+	}
+}
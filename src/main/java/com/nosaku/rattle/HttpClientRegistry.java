@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import com.nosaku.rattle.util.TlsTimingContext;
+import com.nosaku.rattle.vo.HttpClientProfileVo;
+import com.nosaku.rattle.vo.ProxySettingsVo;
+
+/**
+ * Keeps HttpClient instances keyed by their effective configuration so that
+ * switching settings back and forth reuses warm connection pools and TLS sessions.
+ * The least recently used client is evicted, and closed once the last exchange
+ * that acquired it has released it.
+ */
+public class HttpClientRegistry {
+	private static final int MAX_CLIENTS = 4;
+
+	private final Executor executor;
+	private final Map<ClientKey, HttpClient> clientMap;
+	private final Map<HttpClient, Integer> inUseCountMap = new HashMap<>();
+
+	public HttpClientRegistry(Executor executor) {
+		this.executor = executor;
+		this.clientMap = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Looks up or creates the client without holding on to it, to warm it up
+	 * ahead of the first request
+	 */
+	public HttpClient getClient(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile) {
+		return getClient(proxySettings, clientProfile, false);
+	}
+
+	/**
+	 * Looks up or creates the client and keeps it open until
+	 * {@link #release(HttpClient)}, even if it is evicted meanwhile. Every call
+	 * must be paired with one release once the exchange has completed.
+	 */
+	public HttpClient acquireClient(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile) {
+		return getClient(proxySettings, clientProfile, true);
+	}
+
+	public void release(HttpClient client) {
+		synchronized (this) {
+			int inUseCount = inUseCountMap.merge(client, -1, Integer::sum);
+			if (inUseCount > 0) {
+				return;
+			}
+			inUseCountMap.remove(client);
+			if (clientMap.containsValue(client)) {
+				return;
+			}
+		}
+		close(client);
+	}
+
+	private HttpClient getClient(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile, boolean isAcquire) {
+		ClientKey key = ClientKey.of(proxySettings, clientProfile);
+		HttpClient evictedClient = null;
+		HttpClient client;
+		synchronized (this) {
+			client = clientMap.get(key);
+			if (client == null) {
+				client = createHttpClient(proxySettings, clientProfile);
+				clientMap.put(key, client);
+				if (clientMap.size() > MAX_CLIENTS) {
+					Map.Entry<ClientKey, HttpClient> eldest = clientMap.entrySet().iterator().next();
+					clientMap.remove(eldest.getKey());
+					// A client still in use is closed by its last release instead
+					if (!inUseCountMap.containsKey(eldest.getValue())) {
+						evictedClient = eldest.getValue();
+					}
+				}
+			}
+			if (isAcquire) {
+				inUseCountMap.merge(client, 1, Integer::sum);
+			}
+		}
+		if (evictedClient != null) {
+			close(evictedClient);
+		}
+		return client;
+	}
+
+	private void close(HttpClient client) {
+		// close() waits for outstanding exchanges, so drain off the caller's thread
+		Thread.ofVirtual().name("rattle-http-client-close").start(client::close);
+	}
+
+	private HttpClient createHttpClient(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile) {
+		HttpClient.Builder builder = HttpClient.newBuilder();
+		builder.executor(executor);
+		if (clientProfile.getConnectTimeoutSeconds() > 0) {
+			builder.connectTimeout(Duration.ofSeconds(clientProfile.getConnectTimeoutSeconds()));
+		}
+		if (clientProfile.getHttpVersion() != null) {
+			builder.version(clientProfile.getHttpVersion());
+		}
+		if (clientProfile.getRedirectPolicy() != null) {
+			builder.followRedirects(clientProfile.getRedirectPolicy());
+		}
+		
+		SSLContext sslContext = null;
+		try {
+			sslContext = SSLContext.getDefault();
+		} catch (Exception e) {
+			System.err.println("Error getting default SSL context: " + e.getMessage());
+		}
+		if (proxySettings != null) {
+			ProxySettingsVo.ProxyMode mode = proxySettings.getProxyMode();
+			
+			if (!proxySettings.isVerifySslCertificate()) {
+				try {
+					sslContext = createInsecureSSLContext();
+				} catch (Exception e) {
+					System.err.println("Error creating insecure SSL context: " + e.getMessage());
+				}
+			}
+			
+			if (mode == ProxySettingsVo.ProxyMode.ON) {
+				if (proxySettings.getHttpProxy() != null && !proxySettings.getHttpProxy().isEmpty()) {
+					String[] parts = proxySettings.getHttpProxy().split(":");
+					if (parts.length == 2) {
+						try {
+							int port = Integer.parseInt(parts[1]);
+							builder.proxy(ProxySelector.of(new InetSocketAddress(parts[0], port)));
+						} catch (NumberFormatException e) {
+							System.err.println("Invalid HTTP proxy port: " + parts[1]);
+						}
+					}
+				}
+				
+				if (proxySettings.getUsername() != null && !proxySettings.getUsername().isEmpty() &&
+					proxySettings.getPassword() != null && !proxySettings.getPassword().isEmpty()) {
+					final String username = proxySettings.getUsername();
+					final String password = proxySettings.getPassword();
+					
+					Authenticator authenticator = new Authenticator() {
+						@Override
+						protected PasswordAuthentication getPasswordAuthentication() {
+							return new PasswordAuthentication(username, password.toCharArray());
+						}
+					};
+					builder.authenticator(authenticator);
+				}
+			} else if (mode == ProxySettingsVo.ProxyMode.SYSTEM_PROXY) {
+				builder.proxy(ProxySelector.getDefault());
+			}
+		}
+		
+		if (sslContext != null) {
+			// Records TLS handshakes for the timing breakdown
+			builder.sslContext(new TlsTimingContext(sslContext));
+		}
+		return builder.build();
+	}
+	
+	private SSLContext createInsecureSSLContext() throws Exception {
+		SSLContext sslContext = SSLContext.getInstance("TLS");
+		
+		TrustManager[] trustAllCerts = new TrustManager[]{
+			new X509TrustManager() {
+				@Override
+				public X509Certificate[] getAcceptedIssuers() {
+					return new X509Certificate[0];
+				}
+				
+				@Override
+				public void checkClientTrusted(X509Certificate[] certs, String authType) {
+					// No-op - trust all
+				}
+				
+				@Override
+				public void checkServerTrusted(X509Certificate[] certs, String authType) {
+					// No-op - trust all
+				}
+			}
+		};
+		
+		sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
+		return sslContext;
+	}
+
+	private record ClientKey(ProxySettingsVo.ProxyMode proxyMode, String httpProxy, String username, String password,
+			boolean isVerifySslCertificate, int connectTimeoutSeconds, HttpClient.Version httpVersion,
+			HttpClient.Redirect redirectPolicy) {
+
+		private static ClientKey of(ProxySettingsVo proxySettings, HttpClientProfileVo clientProfile) {
+			if (proxySettings == null) {
+				return new ClientKey(null, null, null, null, true, clientProfile.getConnectTimeoutSeconds(),
+						clientProfile.getHttpVersion(), clientProfile.getRedirectPolicy());
+			}
+			return new ClientKey(proxySettings.getProxyMode(), proxySettings.getHttpProxy(),
+					proxySettings.getUsername(), proxySettings.getPassword(), proxySettings.isVerifySslCertificate(),
+					clientProfile.getConnectTimeoutSeconds(), clientProfile.getHttpVersion(),
+					clientProfile.getRedirectPolicy());
+		}
+	}
+}
@@ -21,8 +21,14 @@
  */
 package com.nosaku.rattle;
 
+import java.util.Arrays;
+
 public class Launcher {
 	public static void main(String[] args) {
+		// Checked before App is touched, so the headless runner never loads JavaFX
+		if (args.length > 0 && HeadlessRunner.COMMAND.equals(args[0])) {
+			System.exit(HeadlessRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+		}
 		App.main(args);
 	}
 }
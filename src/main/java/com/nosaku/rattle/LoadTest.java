@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.util.LatencyHistogram;
+import com.nosaku.rattle.util.StringUtil;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.LoadTestResultVo;
+
+/**
+ * Load test of saved requests, sent in turn for the given duration. Exchanges go
+ * straight through ApiHelper, bypassing the RequestScheduler limits meant for
+ * interactive use, and discard the body. Latency is recorded for every response,
+ * error statuses included. Results can be read while the test runs.
+ * <p>
+ * In the closed model a fixed number of virtual users send back to back,
+ * optionally paced to a total target rate, and latency is measured from the
+ * actual send. When the server stalls, the users stall with it and the slow
+ * period is under-sampled. The open model instead starts sends at a constant
+ * arrival rate, each on its own virtual thread, and measures latency from the
+ * intended send time, so a stall shows up in every request scheduled during it.
+ * Sends that start a full interval or more after their slot, because the
+ * in-flight limit was reached or the machine fell behind, count as missed slots.
+ */
+public class LoadTest {
+	public enum Model {
+		CLOSED, OPEN
+	}
+
+	private final String name;
+	private final Model model;
+	private final List<ApiModelVo> requests;
+	private final Map<String, ApiModelVo> authConfigMap;
+	private final int concurrency;
+	private final int durationSeconds;
+	private final double targetRate;
+
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	private final LongAdder successCount = new LongAdder();
+	private final LongAdder errorCount = new LongAdder();
+	private final Map<String, LongAdder> errorMap = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	private final LongAdder missedSlotCount = new LongAdder();
+	private final CompletableFuture<Void> completion = new CompletableFuture<>();
+	private volatile boolean isStopped;
+	private volatile long startNanos;
+	private volatile long finishNanos;
+	private long startedAt;
+
+	/**
+	 * @param requests      fully loaded saved requests, sent in turn
+	 * @param authConfigMap fully loaded auth configs the requests refer to, by id
+	 * @param concurrency   virtual users in the closed model, the in-flight limit in
+	 *                      the open model
+	 * @param targetRate    total requests per second; 0 for no limit in the closed
+	 *                      model, required in the open model
+	 */
+	public LoadTest(String name, Model model, List<ApiModelVo> requests, Map<String, ApiModelVo> authConfigMap,
+			int concurrency, int durationSeconds, double targetRate) {
+		if (model == Model.OPEN && targetRate <= 0) {
+			throw new IllegalArgumentException("The open model needs a target rate");
+		}
+		this.name = name;
+		this.model = model;
+		this.requests = List.copyOf(requests);
+		this.authConfigMap = authConfigMap;
+		this.concurrency = concurrency;
+		this.durationSeconds = durationSeconds;
+		this.targetRate = targetRate;
+	}
+
+	public void start() {
+		startedAt = System.currentTimeMillis();
+		startNanos = System.nanoTime();
+		long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+		if (model == Model.OPEN) {
+			Thread.ofVirtual().name("rattle-load-dispatcher").start(() -> {
+				runDispatcher(endNanos);
+				finishNanos = System.nanoTime();
+				completion.complete(null);
+			});
+			return;
+		}
+		CountDownLatch workerLatch = new CountDownLatch(concurrency);
+		for (int worker = 0; worker < concurrency; worker++) {
+			int firstIndex = worker;
+			Thread.ofVirtual().name("rattle-load-" + worker).start(() -> {
+				try {
+					runWorker(firstIndex, endNanos);
+				} finally {
+					workerLatch.countDown();
+				}
+			});
+		}
+		Thread.ofVirtual().name("rattle-load-monitor").start(() -> {
+			try {
+				workerLatch.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finishNanos = System.nanoTime();
+			completion.complete(null);
+		});
+	}
+
+	/**
+	 * Stops sending; requests in flight still complete and are counted
+	 */
+	public void stop() {
+		isStopped = true;
+	}
+
+	public boolean isRunning() {
+		return startNanos != 0 && !completion.isDone();
+	}
+
+	public CompletableFuture<Void> getCompletion() {
+		return completion;
+	}
+
+	private void runWorker(int index, long endNanos) {
+		long intervalNanos = targetRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / targetRate) : 0;
+		while (!isStopped && System.nanoTime() < endNanos) {
+			if (intervalNanos > 0) {
+				// Slots are shared, so the workers together keep to the target rate
+				long slotNanos = startNanos + sequence.getAndIncrement() * intervalNanos;
+				if (slotNanos >= endNanos || !sleepUntil(slotNanos)) {
+					break;
+				}
+			}
+			send(requests.get(index % requests.size()), 0);
+			index += concurrency;
+		}
+	}
+
+	private void runDispatcher(long endNanos) {
+		long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / targetRate);
+		long missedThresholdNanos = Math.max(intervalNanos, TimeUnit.MILLISECONDS.toNanos(1));
+		Semaphore inFlight = new Semaphore(concurrency);
+		for (long slot = 0; !isStopped; slot++) {
+			long intendedNanos = startNanos + slot * intervalNanos;
+			if (intendedNanos >= endNanos || !sleepUntil(intendedNanos)) {
+				break;
+			}
+			try {
+				inFlight.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (System.nanoTime() - intendedNanos >= missedThresholdNanos) {
+				missedSlotCount.increment();
+			}
+			ApiModelVo savedRequest = requests.get((int) (slot % requests.size()));
+			Thread.ofVirtual().name("rattle-load-" + slot).start(() -> {
+				try {
+					send(savedRequest, intendedNanos);
+				} finally {
+					inFlight.release();
+				}
+			});
+		}
+		// Requests in flight still count
+		inFlight.acquireUninterruptibly(concurrency);
+	}
+
+	private boolean sleepUntil(long deadlineNanos) {
+		long waitNanos = deadlineNanos - System.nanoTime();
+		while (waitNanos > 0 && !isStopped) {
+			try {
+				Thread.sleep(Duration.ofNanos(Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(100))));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+			waitNanos = deadlineNanos - System.nanoTime();
+		}
+		return !isStopped;
+	}
+
+	/**
+	 * Sends one request and records its outcome
+	 *
+	 * @param latencyStartNanos the time latency is measured from, or 0 for the send time
+	 */
+	private void send(ApiModelVo savedRequest, long latencyStartNanos) {
+		ApiModelVo apiModelVo = ApiHelper.createExchange(savedRequest);
+		try {
+			ApiModelVo authConfig = StringUtil.nonEmptyStr(savedRequest.getAuthConfigId())
+					? authConfigMap.get(savedRequest.getAuthConfigId()) : null;
+			if (authConfig != null && authConfig.isAuthConfig()) {
+				ApiHelper.getInstance().authorizeAsync(apiModelVo, authConfig).join();
+			}
+			long sendNanos = latencyStartNanos != 0 ? latencyStartNanos : System.nanoTime();
+			int statusCode = ApiHelper.getInstance().sendForStatusAsync(apiModelVo).join();
+			histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendNanos));
+			if (statusCode >= 200 && statusCode < 400) {
+				successCount.increment();
+			} else {
+				recordError("HTTP " + statusCode);
+			}
+		} catch (Exception e) {
+			recordError(CommonUtil.unwrapCompletionException(e).getClass().getSimpleName());
+		}
+	}
+
+	private void recordError(String kind) {
+		errorCount.increment();
+		errorMap.computeIfAbsent(kind, key -> new LongAdder()).increment();
+	}
+
+	/**
+	 * Returns the results so far, or the final results once the test has finished
+	 */
+	public LoadTestResultVo getResult() {
+		LoadTestResultVo result = new LoadTestResultVo();
+		result.setName(name);
+		result.setModel(model.name());
+		result.setMissedSlots(missedSlotCount.sum());
+		result.setConcurrency(concurrency);
+		result.setDurationSeconds(durationSeconds);
+		result.setTargetRate(targetRate);
+		result.setStartedAt(startedAt);
+		boolean isFinished = completion.isDone();
+		long endNanos = isFinished ? finishNanos : System.nanoTime();
+		long elapsedNanos = startNanos != 0 ? endNanos - startNanos : 0;
+		result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+		result.setFinished(isFinished);
+
+		long success = successCount.sum();
+		long errors = errorCount.sum();
+		result.setSuccessCount(success);
+		result.setErrorCount(errors);
+		result.setTotalCount(success + errors);
+		result.setThroughput(elapsedNanos > 0 ? (success + errors) * 1e9 / elapsedNanos : 0);
+		result.setMinMillis(histogram.getMinValue() / 1000.0);
+		result.setMeanMillis(histogram.getMean() / 1000.0);
+		result.setP50Millis(histogram.getValueAtPercentile(50) / 1000.0);
+		result.setP90Millis(histogram.getValueAtPercentile(90) / 1000.0);
+		result.setP99Millis(histogram.getValueAtPercentile(99) / 1000.0);
+		result.setP999Millis(histogram.getValueAtPercentile(99.9) / 1000.0);
+		result.setMaxMillis(histogram.getMaxValue() / 1000.0);
+		Map<String, Long> errorCounts = new TreeMap<>();
+		errorMap.forEach((kind, count) -> errorCounts.put(kind, count.sum()));
+		result.setErrors(errorCounts);
+		return result;
+	}
+}
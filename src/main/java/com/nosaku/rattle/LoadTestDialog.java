@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.nosaku.rattle.util.CommonUtil;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.LoadTestResultVo;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Separator;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.TextField;
+import javafx.scene.image.Image;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+/**
+ * Window that runs a load test against a saved request or group and shows
+ * throughput, latency percentiles and errors while it runs
+ */
+public class LoadTestDialog {
+	private static final int DEFAULT_CONCURRENCY = 10;
+	private static final int DEFAULT_DURATION_SECONDS = 30;
+	private static final String MODEL_CLOSED = "Closed (virtual users)";
+	private static final String MODEL_OPEN = "Open (constant arrival rate)";
+
+	private final String name;
+	private final List<ApiModelVo> requests;
+	private final Map<String, ApiModelVo> authConfigMap;
+	private Stage stage;
+	private LoadTest loadTest;
+	private Timeline refreshTimeline;
+
+	private ComboBox<String> modelComboBox;
+	private Label concurrencyLabel;
+	private TextField concurrencyField;
+	private TextField durationField;
+	private TextField targetRateField;
+	private Button startButton;
+	private Button stopButton;
+	private Button exportButton;
+	private final Map<String, Label> valueLabelMap = new LinkedHashMap<>();
+	private TextArea errorsArea;
+
+	public LoadTestDialog(String name, List<ApiModelVo> requests, Map<String, ApiModelVo> authConfigMap) {
+		this.name = name;
+		this.requests = requests;
+		this.authConfigMap = authConfigMap;
+	}
+
+	public void show(Window owner) {
+		stage = new Stage();
+		stage.setTitle("Load Test - " + name);
+		try {
+			stage.getIcons().add(new Image("rattlesnake.png"));
+		} catch (Exception e) {
+			// Icon not found, continue without it
+		}
+		if (owner != null) {
+			stage.initOwner(owner);
+		}
+
+		GridPane settingsGrid = new GridPane();
+		settingsGrid.setHgap(10);
+		settingsGrid.setVgap(10);
+		modelComboBox = new ComboBox<>();
+		modelComboBox.getItems().addAll(MODEL_CLOSED, MODEL_OPEN);
+		modelComboBox.setValue(MODEL_CLOSED);
+		concurrencyLabel = new Label("Virtual users:");
+		concurrencyField = new TextField(String.valueOf(DEFAULT_CONCURRENCY));
+		durationField = new TextField(String.valueOf(DEFAULT_DURATION_SECONDS));
+		targetRateField = new TextField("0");
+		targetRateField.setPromptText("0 sends as fast as possible");
+		modelComboBox.valueProperty().addListener((obs, oldValue, newValue) -> {
+			boolean isOpen = MODEL_OPEN.equals(newValue);
+			concurrencyLabel.setText(isOpen ? "Max in flight:" : "Virtual users:");
+			targetRateField.setPromptText(isOpen ? "Required" : "0 sends as fast as possible");
+		});
+		settingsGrid.add(new Label("Model:"), 0, 0);
+		settingsGrid.add(modelComboBox, 1, 0);
+		settingsGrid.add(concurrencyLabel, 0, 1);
+		settingsGrid.add(concurrencyField, 1, 1);
+		settingsGrid.add(new Label("Duration (seconds):"), 0, 2);
+		settingsGrid.add(durationField, 1, 2);
+		settingsGrid.add(new Label("Target rate (requests/s):"), 0, 3);
+		settingsGrid.add(targetRateField, 1, 3);
+
+		startButton = new Button("Start");
+		startButton.setOnAction(e -> start());
+		stopButton = new Button("Stop");
+		stopButton.setDisable(true);
+		stopButton.setOnAction(e -> {
+			if (loadTest != null) {
+				loadTest.stop();
+			}
+		});
+		exportButton = new Button("Export JSON...");
+		exportButton.setDisable(true);
+		exportButton.setOnAction(e -> exportResult());
+		HBox buttonBar = new HBox(10, startButton, stopButton, exportButton);
+
+		GridPane resultGrid = new GridPane();
+		resultGrid.setHgap(20);
+		resultGrid.setVgap(6);
+		String[] labels = { "Elapsed", "Requests", "Throughput", "Errors", "Missed slots", "p50", "p90", "p99", "p99.9", "Max" };
+		for (int i = 0; i < labels.length; i++) {
+			Label valueLabel = new Label("-");
+			valueLabel.setStyle("-fx-font-family: monospace;");
+			valueLabelMap.put(labels[i], valueLabel);
+			resultGrid.add(new Label(labels[i] + ":"), 0, i);
+			resultGrid.add(valueLabel, 1, i);
+		}
+
+		errorsArea = new TextArea();
+		errorsArea.setEditable(false);
+		errorsArea.setPrefRowCount(5);
+		errorsArea.setPromptText("No errors");
+
+		Label requestsLabel = new Label(requests.size() == 1 ? "1 request" : requests.size() + " requests, sent in turn");
+		VBox root = new VBox(10, requestsLabel, settingsGrid, buttonBar, new Separator(), resultGrid,
+				new Label("Errors:"), errorsArea);
+		root.setPadding(new Insets(15));
+
+		stage.setScene(new Scene(root, 420, 620));
+		if (owner != null && owner.getScene() != null) {
+			stage.getScene().getStylesheets().addAll(owner.getScene().getStylesheets());
+		}
+		stage.setOnHidden(e -> {
+			if (loadTest != null) {
+				loadTest.stop();
+			}
+			if (refreshTimeline != null) {
+				refreshTimeline.stop();
+			}
+		});
+		stage.show();
+	}
+
+	private void start() {
+		int concurrency = parsePositiveInt(concurrencyField.getText(), DEFAULT_CONCURRENCY);
+		int durationSeconds = parsePositiveInt(durationField.getText(), DEFAULT_DURATION_SECONDS);
+		double targetRate;
+		try {
+			targetRate = Math.max(0, Double.parseDouble(targetRateField.getText().trim()));
+		} catch (NumberFormatException e) {
+			targetRate = 0;
+		}
+		LoadTest.Model model = MODEL_OPEN.equals(modelComboBox.getValue()) ? LoadTest.Model.OPEN
+				: LoadTest.Model.CLOSED;
+		if (model == LoadTest.Model.OPEN && targetRate <= 0) {
+			Alert alert = new Alert(Alert.AlertType.WARNING);
+			alert.setTitle("Load Test");
+			alert.setHeaderText("Target rate required");
+			alert.setContentText("The open model sends at a constant arrival rate. Enter the requests per second.");
+			alert.initOwner(stage);
+			alert.showAndWait();
+			return;
+		}
+		loadTest = new LoadTest(name, model, requests, authConfigMap, concurrency, durationSeconds, targetRate);
+		setRunning(true);
+		loadTest.start();
+
+		refreshTimeline = new Timeline(new KeyFrame(Duration.millis(500), e -> showResult(loadTest.getResult())));
+		refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+		refreshTimeline.play();
+		LoadTest currentLoadTest = loadTest;
+		currentLoadTest.getCompletion().thenRun(() -> Platform.runLater(() -> {
+			if (loadTest == currentLoadTest) {
+				refreshTimeline.stop();
+				showResult(currentLoadTest.getResult());
+				setRunning(false);
+			}
+		}));
+	}
+
+	private void setRunning(boolean isRunning) {
+		startButton.setDisable(isRunning);
+		stopButton.setDisable(!isRunning);
+		exportButton.setDisable(isRunning);
+		modelComboBox.setDisable(isRunning);
+		concurrencyField.setDisable(isRunning);
+		durationField.setDisable(isRunning);
+		targetRateField.setDisable(isRunning);
+	}
+
+	private void showResult(LoadTestResultVo result) {
+		valueLabelMap.get("Elapsed").setText(String.format(Locale.ROOT, "%.1f s", result.getElapsedMillis() / 1000.0));
+		valueLabelMap.get("Requests").setText(String.valueOf(result.getTotalCount()));
+		valueLabelMap.get("Throughput").setText(String.format(Locale.ROOT, "%.1f req/s", result.getThroughput()));
+		valueLabelMap.get("Errors").setText(result.getErrorCount() + (result.getTotalCount() > 0
+				? String.format(Locale.ROOT, " (%.2f%%)", 100.0 * result.getErrorCount() / result.getTotalCount())
+				: ""));
+		valueLabelMap.get("Missed slots").setText(
+				LoadTest.Model.OPEN.name().equals(result.getModel()) ? String.valueOf(result.getMissedSlots()) : "-");
+		valueLabelMap.get("p50").setText(formatMillis(result.getP50Millis()));
+		valueLabelMap.get("p90").setText(formatMillis(result.getP90Millis()));
+		valueLabelMap.get("p99").setText(formatMillis(result.getP99Millis()));
+		valueLabelMap.get("p99.9").setText(formatMillis(result.getP999Millis()));
+		valueLabelMap.get("Max").setText(formatMillis(result.getMaxMillis()));
+		StringBuilder errorsText = new StringBuilder();
+		result.getErrors().forEach((kind, count) -> errorsText.append(kind).append(": ").append(count).append("\n"));
+		errorsArea.setText(errorsText.toString());
+	}
+
+	private void exportResult() {
+		if (loadTest == null) {
+			return;
+		}
+		FileChooser fileChooser = new FileChooser();
+		fileChooser.setTitle("Export Load Test Result");
+		fileChooser.setInitialFileName("load-test.json");
+		File targetFile = fileChooser.showSaveDialog(stage);
+		if (targetFile == null) {
+			return;
+		}
+		try {
+			CommonUtil.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(targetFile, loadTest.getResult());
+		} catch (Exception e) {
+			e.printStackTrace();
+			Alert alert = new Alert(Alert.AlertType.ERROR);
+			alert.setTitle("Export Load Test Result");
+			alert.setHeaderText("Failed to export result");
+			alert.setContentText(e.getMessage());
+			alert.initOwner(stage);
+			alert.showAndWait();
+		}
+	}
+
+	private static String formatMillis(double millis) {
+		return String.format(Locale.ROOT, "%.2f ms", millis);
+	}
+
+	private static int parsePositiveInt(String text, int defaultValue) {
+		try {
+			int value = Integer.parseInt(text.trim());
+			return value > 0 ? value : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+}
@@ -33,6 +33,8 @@ import javafx.scene.input.KeyCombination;
  * Builder class for creating the application menu bar
  */
 public class MenuBarBuilder {
+	private static final String START_FLIGHT_RECORDING_TEXT = "Start _Flight Recording";
+	private static final String STOP_FLIGHT_RECORDING_TEXT = "Stop and Save _Flight Recording";
 	
 	private final MenuCallbacks callbacks;
 	
@@ -99,7 +101,12 @@ public class MenuBarBuilder {
 		aboutMenuItem.setMnemonicParsing(true);
 		aboutMenuItem.setOnAction(e -> callbacks.onAbout());
 		
-		helpMenu.getItems().add(aboutMenuItem);
+		MenuItem flightRecordingMenuItem = new MenuItem(START_FLIGHT_RECORDING_TEXT);
+		flightRecordingMenuItem.setMnemonicParsing(true);
+		flightRecordingMenuItem.setOnAction(e -> flightRecordingMenuItem.setText(
+				callbacks.onFlightRecording() ? STOP_FLIGHT_RECORDING_TEXT : START_FLIGHT_RECORDING_TEXT));
+		
+		helpMenu.getItems().addAll(flightRecordingMenuItem, aboutMenuItem);
 		return helpMenu;
 	}
 	
@@ -113,5 +120,12 @@ public class MenuBarBuilder {
 		void onNewGroup();
 		void onProxySettings();
 		void onAbout();
+
+		/**
+		 * Starts a flight recording, or stops and saves the running one
+		 * 
+		 * @return true if a recording is now running
+		 */
+		boolean onFlightRecording();
 	}
 }
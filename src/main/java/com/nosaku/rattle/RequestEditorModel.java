@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.net.http.HttpClient;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.nosaku.rattle.util.StringUtil;
+import com.nosaku.rattle.vo.ApiModelVo;
+
+import javafx.beans.Observable;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Editable state of a request tab. The controls bind to its properties, and save
+ * and send read it instead of walking the scene graph. Each field tracks whether
+ * it changed since it was last committed to the ApiModelVo.
+ */
+public class RequestEditorModel {
+	public enum Field {
+		METHOD, URL, PARAMS, HEADERS, BODY, REQUEST_TIMEOUT, HTTP_VERSION, REDIRECT_POLICY, AUTH_CONFIG
+	}
+
+	/**
+	 * A key/value row of the params or headers table
+	 */
+	public static class Entry {
+		private final BooleanProperty enabled = new SimpleBooleanProperty(true);
+		private final StringProperty key = new SimpleStringProperty("");
+		private final StringProperty value = new SimpleStringProperty("");
+
+		public Entry(String key, String value) {
+			this.key.set(key != null ? key : "");
+			this.value.set(value != null ? value : "");
+		}
+
+		public BooleanProperty enabledProperty() {
+			return enabled;
+		}
+
+		public StringProperty keyProperty() {
+			return key;
+		}
+
+		public StringProperty valueProperty() {
+			return value;
+		}
+	}
+
+	private final StringProperty method = new SimpleStringProperty();
+	private final StringProperty url = new SimpleStringProperty();
+	private final StringProperty body = new SimpleStringProperty();
+	private final ObservableList<Entry> params = createEntryList();
+	private final ObservableList<Entry> headers = createEntryList();
+	// Options and auth selection, null for the defaults and no auth
+	private final ObjectProperty<Integer> requestTimeoutSeconds = new SimpleObjectProperty<>();
+	private final ObjectProperty<HttpClient.Version> httpVersion = new SimpleObjectProperty<>();
+	private final ObjectProperty<HttpClient.Redirect> redirectPolicy = new SimpleObjectProperty<>();
+	private final StringProperty authConfigId = new SimpleStringProperty();
+	private final Set<Field> dirtyFields = EnumSet.noneOf(Field.class);
+
+	/**
+	 * Starts with the values of the request, all fields clean
+	 */
+	public RequestEditorModel(ApiModelVo apiModelVo) {
+		method.set(apiModelVo.getMethod());
+		url.set(apiModelVo.getUrl());
+		body.set(apiModelVo.getBody());
+		addEntries(params, apiModelVo.getParams());
+		addEntries(headers, apiModelVo.getHeaders());
+		requestTimeoutSeconds.set(apiModelVo.getRequestTimeoutSeconds());
+		httpVersion.set(apiModelVo.getHttpVersion());
+		redirectPolicy.set(apiModelVo.getRedirectPolicy());
+		authConfigId.set(apiModelVo.getAuthConfigId());
+
+		// Change listeners rather than invalidation listeners, which stay quiet until the value is read again
+		method.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.METHOD));
+		url.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.URL));
+		body.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.BODY));
+		params.addListener((ListChangeListener<Entry>) change -> dirtyFields.add(Field.PARAMS));
+		headers.addListener((ListChangeListener<Entry>) change -> dirtyFields.add(Field.HEADERS));
+		requestTimeoutSeconds.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.REQUEST_TIMEOUT));
+		httpVersion.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.HTTP_VERSION));
+		redirectPolicy.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.REDIRECT_POLICY));
+		authConfigId.addListener((observable, oldValue, newValue) -> dirtyFields.add(Field.AUTH_CONFIG));
+	}
+
+	public StringProperty methodProperty() {
+		return method;
+	}
+
+	public StringProperty urlProperty() {
+		return url;
+	}
+
+	public StringProperty bodyProperty() {
+		return body;
+	}
+
+	public ObjectProperty<Integer> requestTimeoutSecondsProperty() {
+		return requestTimeoutSeconds;
+	}
+
+	public ObjectProperty<HttpClient.Version> httpVersionProperty() {
+		return httpVersion;
+	}
+
+	public ObjectProperty<HttpClient.Redirect> redirectPolicyProperty() {
+		return redirectPolicy;
+	}
+
+	public StringProperty authConfigIdProperty() {
+		return authConfigId;
+	}
+
+	public ObservableList<Entry> getParams() {
+		return params;
+	}
+
+	public ObservableList<Entry> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Enabled params with a key, in table order
+	 */
+	public Map<String, String> getParamMap() {
+		return toMap(params);
+	}
+
+	/**
+	 * Enabled headers with a key, in table order
+	 */
+	public Map<String, String> getHeaderMap() {
+		return toMap(headers);
+	}
+
+	public boolean isDirty() {
+		return !dirtyFields.isEmpty();
+	}
+
+	public Set<Field> getDirtyFields() {
+		return Collections.unmodifiableSet(dirtyFields);
+	}
+
+	/**
+	 * Registers a listener called on every edit of any field, including edits of
+	 * a single param or header row
+	 */
+	public void addChangeListener(Runnable listener) {
+		method.addListener((observable, oldValue, newValue) -> listener.run());
+		url.addListener((observable, oldValue, newValue) -> listener.run());
+		body.addListener((observable, oldValue, newValue) -> listener.run());
+		params.addListener((ListChangeListener<Entry>) change -> listener.run());
+		headers.addListener((ListChangeListener<Entry>) change -> listener.run());
+		requestTimeoutSeconds.addListener((observable, oldValue, newValue) -> listener.run());
+		httpVersion.addListener((observable, oldValue, newValue) -> listener.run());
+		redirectPolicy.addListener((observable, oldValue, newValue) -> listener.run());
+		authConfigId.addListener((observable, oldValue, newValue) -> listener.run());
+	}
+
+	/**
+	 * Writes the fields changed since the last commit to the request
+	 *
+	 * @return false if nothing had changed
+	 */
+	public boolean commitTo(ApiModelVo apiModelVo) {
+		if (dirtyFields.isEmpty()) {
+			return false;
+		}
+		for (Field field : dirtyFields) {
+			switch (field) {
+			case METHOD:
+				apiModelVo.setMethod(method.get());
+				break;
+			case URL:
+				apiModelVo.setUrl(url.get());
+				break;
+			case PARAMS:
+				apiModelVo.setParams(getParamMap());
+				break;
+			case HEADERS:
+				apiModelVo.setHeaders(getHeaderMap());
+				break;
+			case BODY:
+				apiModelVo.setBody(body.get());
+				break;
+			case REQUEST_TIMEOUT:
+				apiModelVo.setRequestTimeoutSeconds(requestTimeoutSeconds.get());
+				break;
+			case HTTP_VERSION:
+				apiModelVo.setHttpVersion(httpVersion.get());
+				break;
+			case REDIRECT_POLICY:
+				apiModelVo.setRedirectPolicy(redirectPolicy.get());
+				break;
+			case AUTH_CONFIG:
+				apiModelVo.setAuthConfigId(authConfigId.get());
+				break;
+			}
+		}
+		dirtyFields.clear();
+		return true;
+	}
+
+	private static ObservableList<Entry> createEntryList() {
+		return FXCollections.observableArrayList(
+				entry -> new Observable[] { entry.enabled, entry.key, entry.value });
+	}
+
+	private static void addEntries(ObservableList<Entry> entries, Map<String, String> values) {
+		if (values != null) {
+			for (Map.Entry<String, String> value : values.entrySet()) {
+				entries.add(new Entry(value.getKey(), value.getValue()));
+			}
+		}
+	}
+
+	private static Map<String, String> toMap(ObservableList<Entry> entries) {
+		Map<String, String> result = new LinkedHashMap<>();
+		for (Entry entry : entries) {
+			if (entry.enabled.get() && StringUtil.nonEmptyStr(entry.key.get())) {
+				result.put(entry.key.get(), entry.value.get());
+			}
+		}
+		return result;
+	}
+}
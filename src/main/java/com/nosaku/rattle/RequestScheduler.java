@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.util.CommonUtil;
+
+/**
+ * Runs outgoing requests on virtual threads, bounded by a global and a per-host
+ * concurrency limit. Requests for a busy host wait in FIFO order while other
+ * hosts are served round-robin.
+ */
+public class RequestScheduler {
+	private static RequestScheduler instance;
+
+	private final ExecutorService executor;
+	private final Map<String, HostQueue> hostQueueMap;
+	private int maxConcurrentRequests;
+	private int maxConcurrentRequestsPerHost;
+	private int activeCount;
+	private int queuedCount;
+	private StatusListener statusListener;
+
+	private RequestScheduler() {
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.hostQueueMap = new LinkedHashMap<>();
+		this.maxConcurrentRequests = CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS;
+		this.maxConcurrentRequestsPerHost = CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST;
+	}
+
+	public static synchronized RequestScheduler getInstance() {
+		if (instance == null) {
+			instance = new RequestScheduler();
+		}
+		return instance;
+	}
+
+	/**
+	 * Updates the concurrency limits. Raising a limit immediately starts queued
+	 * requests; lowering it lets running requests finish.
+	 */
+	public void setLimits(int maxConcurrentRequests, int maxConcurrentRequestsPerHost) {
+		synchronized (this) {
+			this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+			this.maxConcurrentRequestsPerHost = Math.max(1, maxConcurrentRequestsPerHost);
+		}
+		dispatch();
+	}
+
+	public void setStatusListener(StatusListener statusListener) {
+		this.statusListener = statusListener;
+	}
+
+	public synchronized int getActiveCount() {
+		return activeCount;
+	}
+
+	public synchronized int getQueuedCount() {
+		return queuedCount;
+	}
+
+	/**
+	 * Queues a request for the given host. The action is invoked on a virtual thread
+	 * once a slot is free and holds the slot until its future completes. Cancelling
+	 * the returned future removes a queued request or cancels a running one.
+	 */
+	public <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> action) {
+		ScheduledRequest<T> request = new ScheduledRequest<>(host != null ? host : "", action);
+		request.resultFuture.whenComplete((result, throwable) -> {
+			if (request.resultFuture.isCancelled()) {
+				cancel(request);
+			}
+		});
+		synchronized (this) {
+			hostQueueMap.computeIfAbsent(request.host, key -> new HostQueue()).pending.add(request);
+			queuedCount++;
+		}
+		dispatch();
+		return request.resultFuture;
+	}
+
+	/**
+	 * Returns the host:port key used to group requests for the per-host limit
+	 */
+	public static String getHostKey(String url) {
+		try {
+			URI uri = URI.create(url);
+			if (uri.getHost() == null) {
+				return "";
+			}
+			return uri.getPort() != -1 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+		} catch (Exception e) {
+			return "";
+		}
+	}
+
+	private void dispatch() {
+		List<ScheduledRequest<?>> toStart = new ArrayList<>();
+		synchronized (this) {
+			boolean isStarted = true;
+			while (isStarted && activeCount < maxConcurrentRequests) {
+				isStarted = false;
+				Iterator<Map.Entry<String, HostQueue>> iterator = hostQueueMap.entrySet().iterator();
+				while (iterator.hasNext()) {
+					Map.Entry<String, HostQueue> entry = iterator.next();
+					HostQueue hostQueue = entry.getValue();
+					if (hostQueue.pending.isEmpty() || hostQueue.activeCount >= maxConcurrentRequestsPerHost) {
+						continue;
+					}
+					ScheduledRequest<?> request = hostQueue.pending.poll();
+					hostQueue.activeCount++;
+					activeCount++;
+					queuedCount--;
+					toStart.add(request);
+					// Move the host to the end so other hosts get the next free slot
+					iterator.remove();
+					hostQueueMap.put(entry.getKey(), hostQueue);
+					isStarted = true;
+					break;
+				}
+			}
+		}
+		for (ScheduledRequest<?> request : toStart) {
+			executor.execute(() -> run(request));
+		}
+		notifyStatus();
+	}
+
+	private <T> void run(ScheduledRequest<T> request) {
+		if (request.resultFuture.isDone()) {
+			release(request);
+			return;
+		}
+		CompletableFuture<T> actionFuture;
+		try {
+			actionFuture = request.action.get();
+		} catch (Throwable t) {
+			request.resultFuture.completeExceptionally(CommonUtil.unwrapCompletionException(t));
+			release(request);
+			return;
+		}
+		synchronized (request) {
+			request.actionFuture = actionFuture;
+		}
+		if (request.resultFuture.isCancelled()) {
+			actionFuture.cancel(true);
+		}
+		actionFuture.whenComplete((result, throwable) -> {
+			if (throwable != null) {
+				request.resultFuture.completeExceptionally(CommonUtil.unwrapCompletionException(throwable));
+			} else {
+				request.resultFuture.complete(result);
+			}
+			release(request);
+		});
+	}
+
+	private void cancel(ScheduledRequest<?> request) {
+		boolean isRemoved = false;
+		synchronized (this) {
+			HostQueue hostQueue = hostQueueMap.get(request.host);
+			if (hostQueue != null && hostQueue.pending.remove(request)) {
+				queuedCount--;
+				isRemoved = true;
+				if (hostQueue.activeCount == 0 && hostQueue.pending.isEmpty()) {
+					hostQueueMap.remove(request.host);
+				}
+			}
+		}
+		if (isRemoved) {
+			notifyStatus();
+			return;
+		}
+		CompletableFuture<?> actionFuture;
+		synchronized (request) {
+			actionFuture = request.actionFuture;
+		}
+		if (actionFuture != null) {
+			actionFuture.cancel(true);
+		}
+	}
+
+	private void release(ScheduledRequest<?> request) {
+		synchronized (this) {
+			if (request.isReleased) {
+				return;
+			}
+			request.isReleased = true;
+			activeCount--;
+			HostQueue hostQueue = hostQueueMap.get(request.host);
+			if (hostQueue != null) {
+				hostQueue.activeCount--;
+				if (hostQueue.activeCount == 0 && hostQueue.pending.isEmpty()) {
+					hostQueueMap.remove(request.host);
+				}
+			}
+		}
+		dispatch();
+	}
+
+	private void notifyStatus() {
+		StatusListener listener = statusListener;
+		if (listener != null) {
+			int active;
+			int queued;
+			synchronized (this) {
+				active = activeCount;
+				queued = queuedCount;
+			}
+			listener.onStatusChanged(active, queued);
+		}
+	}
+
+	private static class HostQueue {
+		private final ArrayDeque<ScheduledRequest<?>> pending = new ArrayDeque<>();
+		private int activeCount;
+	}
+
+	private static class ScheduledRequest<T> {
+		private final String host;
+		private final Supplier<CompletableFuture<T>> action;
+		private final CompletableFuture<T> resultFuture = new CompletableFuture<>();
+		private CompletableFuture<T> actionFuture;
+		private boolean isReleased;
+
+		private ScheduledRequest(String host, Supplier<CompletableFuture<T>> action) {
+			this.host = host;
+			this.action = action;
+		}
+	}
+
+	/**
+	 * Receives the number of running and queued requests whenever they change
+	 */
+	public interface StatusListener {
+		void onStatusChanged(int activeCount, int queuedCount);
+	}
+}
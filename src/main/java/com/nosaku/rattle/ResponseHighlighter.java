@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+
+import com.nosaku.rattle.util.FlightEvents;
+
+import javafx.application.Platform;
+
+/**
+ * JSON syntax highlighter for the response area. Style spans are computed on a
+ * virtual thread in chunks of lines, starting with the chunk nearest the visible
+ * paragraphs, and applied one chunk at a time so the FX thread is never blocked
+ * for long. Text above the plain-text limit is left unstyled.
+ */
+public class ResponseHighlighter {
+	private static final int LINES_PER_CHUNK = 500;
+	private static final Collection<String> STYLE_NONE = Collections.emptyList();
+	private static final Collection<String> STYLE_START_OBJECT = Collections.singleton("json-start-object");
+	private static final Collection<String> STYLE_END_OBJECT = Collections.singleton("json-end-object");
+	private static final Collection<String> STYLE_START_ARRAY = Collections.singleton("json-start-array");
+	private static final Collection<String> STYLE_END_ARRAY = Collections.singleton("json-end-array");
+	private static final Collection<String> STYLE_PROPERTY = Collections.singleton("json-property");
+	private static final Collection<String> STYLE_STRING = Collections.singleton("json-string");
+	private static final Collection<String> STYLE_INT = Collections.singleton("json-int");
+	private static final Collection<String> STYLE_FLOAT = Collections.singleton("json-float");
+	private static final Collection<String> STYLE_TRUE = Collections.singleton("json-true");
+	private static final Collection<String> STYLE_FALSE = Collections.singleton("json-false");
+	private static final Collection<String> STYLE_NULL = Collections.singleton("json-null");
+
+	private final CodeArea codeArea;
+	// Bumped for every new text; background work for an older generation stops
+	private final AtomicInteger generation = new AtomicInteger();
+	private final IntSupplier plainTextLimit;
+	private final String requestId;
+
+	/**
+	 * @param requestId the request whose responses are shown, for flight recording
+	 */
+	public ResponseHighlighter(CodeArea codeArea, IntSupplier plainTextLimit, String requestId) {
+		this.codeArea = codeArea;
+		this.plainTextLimit = plainTextLimit;
+		this.requestId = requestId;
+	}
+
+	/**
+	 * Highlights text that was just placed at the start of the code area. Must be
+	 * called on the FX thread.
+	 *
+	 * @return completes once the last chunk is applied, or highlighting is skipped
+	 *         or cancelled
+	 */
+	public CompletableFuture<Void> highlight(String text) {
+		int currentGeneration = generation.incrementAndGet();
+		if (text == null || text.isEmpty() || text.length() > plainTextLimit.getAsInt()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		int firstVisibleParagraph = getFirstVisibleParagraph();
+		CompletableFuture<Void> highlightFuture = new CompletableFuture<>();
+		Thread.ofVirtual().name("rattle-highlighter").start(() -> {
+			try {
+				highlightInChunks(text, currentGeneration, firstVisibleParagraph);
+			} finally {
+				highlightFuture.complete(null);
+			}
+		});
+		return highlightFuture;
+	}
+
+	/**
+	 * Stops any highlighting still in progress
+	 */
+	public void cancel() {
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Computes the style spans of the whole text in the chunks the background
+	 * thread uses, without applying them. Needs neither a code area nor the FX
+	 * thread.
+	 */
+	public static void computeStyleSpans(String text, Consumer<StyleSpans<Collection<String>>> chunkConsumer) {
+		LineIndex lineIndex = new LineIndex(text);
+		for (int startLine = 0; startLine < lineIndex.lineCount; startLine += LINES_PER_CHUNK) {
+			int endLine = Math.min(startLine + LINES_PER_CHUNK, lineIndex.lineCount);
+			chunkConsumer.accept(computeStyleSpans(text, lineIndex, startLine, endLine));
+		}
+	}
+
+	private void highlightInChunks(String text, int currentGeneration, int firstVisibleParagraph) {
+		FlightEvents.HighlightEvent highlightEvent = new FlightEvents.HighlightEvent();
+		highlightEvent.begin();
+		LineIndex lineIndex = new LineIndex(text);
+		int chunkCount = (lineIndex.lineCount + LINES_PER_CHUNK - 1) / LINES_PER_CHUNK;
+		boolean[] isChunkDone = new boolean[chunkCount];
+		int anchorChunk = Math.min(firstVisibleParagraph / LINES_PER_CHUNK, chunkCount - 1);
+		int appliedChunkCount = 0;
+		for (int remaining = chunkCount; remaining > 0; remaining--) {
+			if (generation.get() != currentGeneration) {
+				break;
+			}
+			int chunk = findNearestPendingChunk(isChunkDone, anchorChunk);
+			int startLine = chunk * LINES_PER_CHUNK;
+			int endLine = Math.min(startLine + LINES_PER_CHUNK, lineIndex.lineCount);
+			StyleSpans<Collection<String>> styleSpans = computeStyleSpans(text, lineIndex, startLine, endLine);
+			int offset = lineIndex.paragraphOffsets[startLine];
+
+			// Wait for each chunk to be applied so the FX queue never backs up, and pick
+			// up the current scroll position to decide which chunk comes next
+			CompletableFuture<Integer> appliedFuture = new CompletableFuture<>();
+			Platform.runLater(() -> {
+				if (generation.get() != currentGeneration) {
+					appliedFuture.complete(-1);
+					return;
+				}
+				FlightEvents.StyleSpansEvent styleSpansEvent = new FlightEvents.StyleSpansEvent();
+				styleSpansEvent.begin();
+				try {
+					codeArea.setStyleSpans(offset, styleSpans);
+					if (styleSpansEvent.shouldCommit()) {
+						styleSpansEvent.requestId = requestId;
+						styleSpansEvent.firstLine = startLine;
+						styleSpansEvent.lines = endLine - startLine;
+						styleSpansEvent.spans = styleSpans.getSpanCount();
+						styleSpansEvent.commit();
+					}
+					appliedFuture.complete(getFirstVisibleParagraph());
+				} catch (Exception e) {
+					// The text changed under us, e.g. edited by the user
+					e.printStackTrace();
+					appliedFuture.complete(-1);
+				}
+			});
+			int visibleParagraph = appliedFuture.join();
+			if (visibleParagraph < 0) {
+				break;
+			}
+			isChunkDone[chunk] = true;
+			appliedChunkCount++;
+			anchorChunk = Math.min(visibleParagraph / LINES_PER_CHUNK, chunkCount - 1);
+		}
+		if (highlightEvent.shouldCommit()) {
+			highlightEvent.requestId = requestId;
+			highlightEvent.chars = text.length();
+			highlightEvent.lines = lineIndex.lineCount;
+			highlightEvent.chunks = appliedChunkCount;
+			highlightEvent.commit();
+		}
+	}
+
+	private int getFirstVisibleParagraph() {
+		try {
+			return Math.max(0, codeArea.firstVisibleParToAllParIndex());
+		} catch (Exception e) {
+			// Not laid out yet
+			return 0;
+		}
+	}
+
+	private static int findNearestPendingChunk(boolean[] isChunkDone, int anchorChunk) {
+		for (int distance = 0; distance < isChunkDone.length; distance++) {
+			if (anchorChunk + distance < isChunkDone.length && !isChunkDone[anchorChunk + distance]) {
+				return anchorChunk + distance;
+			}
+			if (anchorChunk - distance >= 0 && !isChunkDone[anchorChunk - distance]) {
+				return anchorChunk - distance;
+			}
+		}
+		return -1;
+	}
+
+	private static StyleSpans<Collection<String>> computeStyleSpans(String text, LineIndex lineIndex, int startLine,
+			int endLine) {
+		SpanCollector spans = new SpanCollector();
+		for (int line = startLine; line < endLine; line++) {
+			highlightLine(text, lineIndex.lineStarts[line], lineIndex.lineEnds[line], spans);
+			if (line < lineIndex.lineCount - 1) {
+				// Line terminators count as a single character in the code area
+				spans.add(STYLE_NONE, 1);
+			}
+		}
+		return spans.create();
+	}
+
+	/**
+	 * Tokenizes one line. JSON strings cannot contain raw line breaks, so every
+	 * token starts and ends on the same line.
+	 */
+	private static void highlightLine(String text, int from, int to, SpanCollector spans) {
+		int i = from;
+		while (i < to) {
+			char c = text.charAt(i);
+			if (c == '{') {
+				spans.add(STYLE_START_OBJECT, 1);
+				i++;
+			} else if (c == '}') {
+				spans.add(STYLE_END_OBJECT, 1);
+				i++;
+			} else if (c == '[') {
+				spans.add(STYLE_START_ARRAY, 1);
+				i++;
+			} else if (c == ']') {
+				spans.add(STYLE_END_ARRAY, 1);
+				i++;
+			} else if (c == '"') {
+				int end = i + 1;
+				while (end < to) {
+					char ch = text.charAt(end);
+					if (ch == '\\') {
+						end += 2;
+					} else {
+						end++;
+						if (ch == '"') {
+							break;
+						}
+					}
+				}
+				end = Math.min(end, to);
+				int next = end;
+				while (next < to && (text.charAt(next) == ' ' || text.charAt(next) == '\t')) {
+					next++;
+				}
+				boolean isProperty = next < to && text.charAt(next) == ':';
+				spans.add(isProperty ? STYLE_PROPERTY : STYLE_STRING, end - i);
+				i = end;
+			} else if (c == '-' || (c >= '0' && c <= '9')) {
+				int end = i + 1;
+				boolean isFloat = false;
+				while (end < to) {
+					char ch = text.charAt(end);
+					if (ch == '.' || ch == 'e' || ch == 'E') {
+						isFloat = true;
+					} else if (!(ch >= '0' && ch <= '9') && ch != '+' && ch != '-') {
+						break;
+					}
+					end++;
+				}
+				spans.add(isFloat ? STYLE_FLOAT : STYLE_INT, end - i);
+				i = end;
+			} else if (c == 't' && text.startsWith("true", i) && i + 4 <= to) {
+				spans.add(STYLE_TRUE, 4);
+				i += 4;
+			} else if (c == 'f' && text.startsWith("false", i) && i + 5 <= to) {
+				spans.add(STYLE_FALSE, 5);
+				i += 5;
+			} else if (c == 'n' && text.startsWith("null", i) && i + 4 <= to) {
+				spans.add(STYLE_NULL, 4);
+				i += 4;
+			} else {
+				spans.add(STYLE_NONE, 1);
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Line boundaries of the text, splitting on \r\n, \r and \n like the code area
+	 * does, plus the offset of each paragraph in the code area's normalized text.
+	 */
+	private static class LineIndex {
+		private int[] lineStarts = new int[1024];
+		private int[] lineEnds = new int[1024];
+		private int[] paragraphOffsets = new int[1024];
+		private int lineCount;
+
+		LineIndex(String text) {
+			int lineStart = 0;
+			int paragraphOffset = 0;
+			int length = text.length();
+			for (int i = 0; i < length; i++) {
+				char c = text.charAt(i);
+				if (c == '\n' || c == '\r') {
+					addLine(lineStart, i, paragraphOffset);
+					paragraphOffset += i - lineStart + 1;
+					if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+						i++;
+					}
+					lineStart = i + 1;
+				}
+			}
+			addLine(lineStart, length, paragraphOffset);
+		}
+
+		private void addLine(int start, int end, int paragraphOffset) {
+			if (lineCount == lineStarts.length) {
+				lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+				lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+				paragraphOffsets = Arrays.copyOf(paragraphOffsets, lineCount * 2);
+			}
+			lineStarts[lineCount] = start;
+			lineEnds[lineCount] = end;
+			paragraphOffsets[lineCount] = paragraphOffset;
+			lineCount++;
+		}
+	}
+
+	/**
+	 * Merges adjacent runs of the same style before handing them to the builder
+	 */
+	private static class SpanCollector {
+		private final StyleSpansBuilder<Collection<String>> builder = new StyleSpansBuilder<>();
+		private Collection<String> style = STYLE_NONE;
+		private int length;
+		private boolean isEmpty = true;
+
+		void add(Collection<String> spanStyle, int spanLength) {
+			if (spanStyle == style) {
+				length += spanLength;
+				return;
+			}
+			flush();
+			style = spanStyle;
+			length = spanLength;
+		}
+
+		StyleSpans<Collection<String>> create() {
+			flush();
+			if (isEmpty) {
+				builder.add(STYLE_NONE, 0);
+			}
+			return builder.create();
+		}
+
+		private void flush() {
+			if (length > 0) {
+				builder.add(style, length);
+				isEmpty = false;
+			}
+			length = 0;
+		}
+	}
+}
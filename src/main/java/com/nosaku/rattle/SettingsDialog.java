@@ -21,15 +21,21 @@
  */
 package com.nosaku.rattle;
 
+import java.net.http.HttpClient;
 import java.util.Objects;
 
+import com.nosaku.rattle.util.CommonConstants;
+import com.nosaku.rattle.vo.HttpClientProfileVo;
 import com.nosaku.rattle.vo.ProxySettingsVo;
 import com.nosaku.rattle.vo.ProxySettingsVo.ProxyMode;
 import com.nosaku.rattle.vo.SettingsVo;
 
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.control.ButtonBar;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.PasswordField;
@@ -44,8 +50,10 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class SettingsDialog extends Dialog<SettingsVo> {
+	// The memory limits are entered in thousands of characters
+	private static final int CHARS_PER_UNIT = 1000;
 
-	public SettingsDialog(ProxySettingsVo currentProxySettings, String currentTheme) {
+	public SettingsDialog(ProxySettingsVo currentProxySettings, String currentTheme, SettingsVo currentSettings) {
 		super();
 		setTitle("Settings");
 		setHeaderText("Application Settings");
@@ -200,8 +208,100 @@ public class SettingsDialog extends Dialog<SettingsVo> {
 
 		proxySection.getChildren().addAll(proxySectionLabel, grid);
 
+		// === REQUESTS SECTION ===
+		VBox requestsSection = new VBox(10);
+		Label requestsSectionLabel = new Label("Requests");
+		requestsSectionLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+
+		GridPane requestsGrid = new GridPane();
+		requestsGrid.setHgap(10);
+		requestsGrid.setVgap(10);
+
+		Label maxConcurrentLabel = new Label("Max concurrent requests:");
+		TextField maxConcurrentField = new TextField(String.valueOf(currentSettings != null
+				? currentSettings.getMaxConcurrentRequests() : CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS));
+		requestsGrid.add(maxConcurrentLabel, 0, 0);
+		requestsGrid.add(maxConcurrentField, 1, 0);
+
+		Label maxPerHostLabel = new Label("Max concurrent requests per host:");
+		TextField maxPerHostField = new TextField(String.valueOf(currentSettings != null
+				? currentSettings.getMaxConcurrentRequestsPerHost() : CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST));
+		requestsGrid.add(maxPerHostLabel, 0, 1);
+		requestsGrid.add(maxPerHostField, 1, 1);
+
+		HttpClientProfileVo currentProfile = currentSettings != null && currentSettings.getClientProfile() != null
+				? currentSettings.getClientProfile() : new HttpClientProfileVo();
+
+		Label connectTimeoutLabel = new Label("Connect timeout (seconds):");
+		TextField connectTimeoutField = new TextField(String.valueOf(currentProfile.getConnectTimeoutSeconds()));
+		connectTimeoutField.setPromptText("0 for no limit");
+		requestsGrid.add(connectTimeoutLabel, 0, 2);
+		requestsGrid.add(connectTimeoutField, 1, 2);
+
+		Label requestTimeoutLabel = new Label("Request timeout (seconds):");
+		TextField requestTimeoutField = new TextField(String.valueOf(currentProfile.getRequestTimeoutSeconds()));
+		requestTimeoutField.setPromptText("0 for no limit");
+		requestsGrid.add(requestTimeoutLabel, 0, 3);
+		requestsGrid.add(requestTimeoutField, 1, 3);
+
+		Label httpVersionLabel = new Label("HTTP version:");
+		ComboBox<HttpClient.Version> httpVersionComboBox = new ComboBox<>(
+				FXCollections.observableArrayList(HttpClient.Version.HTTP_2, HttpClient.Version.HTTP_1_1));
+		httpVersionComboBox.setValue(currentProfile.getHttpVersion() != null ? currentProfile.getHttpVersion()
+				: HttpClient.Version.HTTP_2);
+		requestsGrid.add(httpVersionLabel, 0, 4);
+		requestsGrid.add(httpVersionComboBox, 1, 4);
+
+		Label redirectLabel = new Label("Follow redirects:");
+		ComboBox<HttpClient.Redirect> redirectComboBox = new ComboBox<>(
+				FXCollections.observableArrayList(HttpClient.Redirect.values()));
+		redirectComboBox.setValue(currentProfile.getRedirectPolicy() != null ? currentProfile.getRedirectPolicy()
+				: HttpClient.Redirect.NEVER);
+		requestsGrid.add(redirectLabel, 0, 5);
+		requestsGrid.add(redirectComboBox, 1, 5);
+
+		Label highlightLimitLabel = new Label("Highlight responses up to (thousand characters):");
+		TextField highlightLimitField = new TextField(String.valueOf((currentSettings != null
+				? currentSettings.getMaxHighlightedResponseChars()
+				: CommonConstants.DEFAULT_MAX_HIGHLIGHTED_RESPONSE_CHARS) / CHARS_PER_UNIT));
+		highlightLimitField.setPromptText("Larger responses are shown as plain text");
+		requestsGrid.add(highlightLimitLabel, 0, 6);
+		requestsGrid.add(highlightLimitField, 1, 6);
+
+		Label consoleBufferLabel = new Label("Console memory per tab (thousand characters):");
+		TextField consoleBufferField = new TextField(String.valueOf((currentSettings != null
+				? currentSettings.getConsoleBufferChars()
+				: CommonConstants.DEFAULT_CONSOLE_BUFFER_CHARS) / CHARS_PER_UNIT));
+		consoleBufferField.setPromptText("Older lines are archived to disk");
+		requestsGrid.add(consoleBufferLabel, 0, 7);
+		requestsGrid.add(consoleBufferField, 1, 7);
+
+		Label idleUnloadLabel = new Label("Unload idle tabs after (minutes):");
+		TextField idleUnloadField = new TextField(String.valueOf(currentSettings != null
+				? currentSettings.getTabIdleUnloadMinutes()
+				: CommonConstants.DEFAULT_TAB_IDLE_UNLOAD_MINUTES));
+		idleUnloadField.setPromptText("0 keeps all tabs loaded");
+		requestsGrid.add(idleUnloadLabel, 0, 8);
+		requestsGrid.add(idleUnloadField, 1, 8);
+
+		Label tokenRefreshLabel = new Label("Refresh OAuth2 tokens at (% of lifetime):");
+		TextField tokenRefreshField = new TextField(String.valueOf(currentSettings != null
+				? currentSettings.getTokenRefreshPercent()
+				: CommonConstants.DEFAULT_TOKEN_REFRESH_PERCENT));
+		tokenRefreshField.setPromptText("0 fetches tokens only when expired");
+		requestsGrid.add(tokenRefreshLabel, 0, 9);
+		requestsGrid.add(tokenRefreshField, 1, 9);
+
+		Label persistTokensLabel = new Label("Keep OAuth2 tokens between restarts:");
+		CheckBox persistTokensCheckBox = new CheckBox("Obfuscated, not secured, under ~/.rattle");
+		persistTokensCheckBox.setSelected(currentSettings != null && currentSettings.isPersistTokenCache());
+		requestsGrid.add(persistTokensLabel, 0, 10);
+		requestsGrid.add(persistTokensCheckBox, 1, 10);
+
+		requestsSection.getChildren().addAll(requestsSectionLabel, requestsGrid);
+
 		// Add all sections to main container
-		mainContainer.getChildren().addAll(themeSection, separator, proxySection);
+		mainContainer.getChildren().addAll(themeSection, separator, proxySection, new Separator(), requestsSection);
 
 		// Add buttons
 		ButtonType saveButtonType = new ButtonType("Save", ButtonBar.ButtonData.OK_DONE);
@@ -225,9 +325,52 @@ public class SettingsDialog extends Dialog<SettingsVo> {
 				result.setPassword(passwordField.getText().trim().isEmpty() ? null : passwordField.getText().trim());
 				result.setVerifySslCertificate(verifySslCheckBox.isSelected());
 				
-				return new SettingsVo(selectedTheme, result);
+				SettingsVo settingsVo = new SettingsVo(selectedTheme, result);
+				settingsVo.setMaxConcurrentRequests(parsePositiveInt(maxConcurrentField.getText(),
+						CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS));
+				settingsVo.setMaxConcurrentRequestsPerHost(parsePositiveInt(maxPerHostField.getText(),
+						CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST));
+				settingsVo.setClientProfile(new HttpClientProfileVo(
+						parseNonNegativeInt(connectTimeoutField.getText(), CommonConstants.DEFAULT_CONNECT_TIMEOUT_SECONDS),
+						parseNonNegativeInt(requestTimeoutField.getText(), CommonConstants.DEFAULT_REQUEST_TIMEOUT_SECONDS),
+						httpVersionComboBox.getValue(), redirectComboBox.getValue()));
+				settingsVo.setMaxHighlightedResponseChars(toChars(parseNonNegativeInt(highlightLimitField.getText(),
+						CommonConstants.DEFAULT_MAX_HIGHLIGHTED_RESPONSE_CHARS / CHARS_PER_UNIT)));
+				settingsVo.setConsoleBufferChars(toChars(parsePositiveInt(consoleBufferField.getText(),
+						CommonConstants.DEFAULT_CONSOLE_BUFFER_CHARS / CHARS_PER_UNIT)));
+				settingsVo.setTabIdleUnloadMinutes(parseNonNegativeInt(idleUnloadField.getText(),
+						CommonConstants.DEFAULT_TAB_IDLE_UNLOAD_MINUTES));
+				settingsVo.setTokenRefreshPercent(Math.min(100, parseNonNegativeInt(tokenRefreshField.getText(),
+						CommonConstants.DEFAULT_TOKEN_REFRESH_PERCENT)));
+				settingsVo.setPersistTokenCache(persistTokensCheckBox.isSelected());
+				return settingsVo;
 			}
 			return null;
 		});
 	}
+	
+	/**
+	 * Converts a limit entered in thousands of characters, clamped to fit an int
+	 */
+	private static int toChars(int thousands) {
+		return Math.min(thousands, Integer.MAX_VALUE / CHARS_PER_UNIT) * CHARS_PER_UNIT;
+	}
+	
+	private static int parseNonNegativeInt(String text, int defaultValue) {
+		try {
+			int value = Integer.parseInt(text.trim());
+			return value >= 0 ? value : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+	
+	private static int parsePositiveInt(String text, int defaultValue) {
+		try {
+			int value = Integer.parseInt(text.trim());
+			return value > 0 ? value : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
 }
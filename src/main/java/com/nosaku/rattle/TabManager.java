@@ -22,33 +22,28 @@
 package com.nosaku.rattle;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import com.nosaku.rattle.util.CommonConstants;
-import com.nosaku.rattle.util.CommonUtil;
-import com.nosaku.rattle.util.StringUtil;
-import com.nosaku.rattle.vo.ApiGroupVo;
+import com.nosaku.rattle.util.GroupRegistry;
 import com.nosaku.rattle.vo.ApiModelVo;
 
 import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.event.Event;
 import javafx.event.EventHandler;
-import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
-import javafx.scene.control.CheckBox;
-import javafx.scene.control.ComboBox;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.SplitPane;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
-import javafx.scene.control.TextArea;
-import javafx.scene.control.TextField;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
-import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 
 /**
@@ -56,28 +51,60 @@ import javafx.scene.layout.VBox;
  */
 public class TabManager {
 	
+	private static final String LAST_SELECTED_KEY = "rattle.lastSelectedNanos";
+	
 	private final TabPane tabPane;
 	private final TreeView<ApiModelVo> treeView;
 	private final Map<String, ApiModelVo> apiModelVoMap;
-	private final Map<String, ApiGroupVo> apiGroupVoMap;
+	private final GroupRegistry groupRegistry;
 	private final TabContentFactory contentFactory;
-	private final Runnable onSaveCallback;
+	private final Consumer<List<String>> onSaveCallback;
+	private final Consumer<ApiModelVo> detailsLoader;
+	// Frees what a tab's content holds outside the scene graph, on close and on unload
+	private final Consumer<String> onTabClosedCallback;
 	Map<String, TreeItem<ApiModelVo>> treeItemMap;
+	private final TreeIndex treeIndex;
+	// Editor models of the tabs whose content is built, by tab id
+	private final Map<String, RequestEditorModel> editorModelMap = new HashMap<>();
 	
 	private int tabIndex;
 	private int authConfigIndex;
 	
-	public TabManager(TabPane tabPane, Map<String, TreeItem<ApiModelVo>> treeItemMap,
+	public TabManager(TabPane tabPane, Map<String, TreeItem<ApiModelVo>> treeItemMap, TreeIndex treeIndex,
 			TreeView<ApiModelVo> treeView, Map<String, ApiModelVo> apiModelVoMap,
-			Map<String, ApiGroupVo> apiGroupVoMap,
-			TabContentFactory contentFactory, Runnable onSaveCallback) {
+			GroupRegistry groupRegistry,
+			TabContentFactory contentFactory, Consumer<List<String>> onSaveCallback, Consumer<ApiModelVo> detailsLoader,
+			Consumer<String> onTabClosedCallback) {
 		this.tabPane = tabPane;
 		this.treeItemMap = treeItemMap;
+		this.treeIndex = treeIndex;
 		this.treeView = treeView;
 		this.apiModelVoMap = apiModelVoMap;
-		this.apiGroupVoMap = apiGroupVoMap;
+		this.groupRegistry = groupRegistry;
 		this.contentFactory = contentFactory;
 		this.onSaveCallback = onSaveCallback;
+		this.detailsLoader = detailsLoader;
+		this.onTabClosedCallback = onTabClosedCallback;
+		tabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) -> {
+			if (oldTab != null) {
+				oldTab.getProperties().put(LAST_SELECTED_KEY, System.nanoTime());
+			}
+			if (newTab != null) {
+				// Deferred so restoring many tabs, each selected in turn, only builds the last one
+				Platform.runLater(() -> {
+					if (newTab.isSelected()) {
+						loadTabContent(newTab);
+					}
+				});
+			}
+		});
+		tabPane.getTabs().addListener((ListChangeListener<Tab>) change -> {
+			while (change.next()) {
+				for (Tab removedTab : change.getRemoved()) {
+					editorModelMap.remove(removedTab.getId());
+				}
+			}
+		});
 		this.tabIndex = 0;
 		this.authConfigIndex = 0;
 	}
@@ -98,6 +125,13 @@ public class TabManager {
 		return authConfigIndex;
 	}
 	
+	/**
+	 * Registers the editor model backing a tab's content, read back on save
+	 */
+	public void setEditorModel(String tabId, RequestEditorModel editorModel) {
+		editorModelMap.put(tabId, editorModel);
+	}
+	
 	/**
 	 * Adds a new auth configuration tab to the tab pane
 	 */
@@ -142,6 +176,8 @@ public class TabManager {
 			tab.setId(apiModelVo.getId());
 		} else {
 			apiModelVo = apiModelVoMap.get(tabId);
+			// Requests outside open tabs are loaded as stubs at startup
+			detailsLoader.accept(apiModelVo);
 			if (isCloneItem) {
 				int index = isAuthConfig ? ++authConfigIndex : ++tabIndex;
 				ApiModelVo clonedModel = apiModelVo.clone();
@@ -163,12 +199,9 @@ public class TabManager {
 			}
 		}
 		
+		// Content is built when the tab is first selected, see loadTabContent
 		tabPane.getTabs().add(tab);
 		
-		VBox contentContainer = contentFactory.createTabContent(tab.getId());
-		contentContainer.setFocusTraversable(true);
-		tab.setContent(contentContainer);
-		
 		if (tabId == null || isAddTreeItem) {
 			TreeItem<ApiModelVo> newTreeItem = new TreeItem<>(apiModelVo);
 			
@@ -183,7 +216,7 @@ public class TabManager {
 				apiModelVo.setGroupId(parentGroupId);
 			} else if (isCloneItem && tabId != null) {
 				// If cloning, insert after the source item in the same parent
-				TreeItem<ApiModelVo> sourceTreeItem = findTreeItemById(tabId);
+				TreeItem<ApiModelVo> sourceTreeItem = treeIndex.getTreeItem(tabId);
 				if (sourceTreeItem != null && sourceTreeItem.getParent() != null) {
 					rootTreeItem = sourceTreeItem.getParent();
 					int sourceIndex = rootTreeItem.getChildren().indexOf(sourceTreeItem);
@@ -204,7 +237,7 @@ public class TabManager {
 					}
 					// Fallback to default group if source groupId not found
 					if (rootTreeItem == null) {
-						rootTreeItem = treeItemMap.get(CommonUtil.getGroupId(defaultGroupName, apiGroupVoMap));
+						rootTreeItem = treeItemMap.get(groupRegistry.getGroupId(defaultGroupName));
 						rootTreeItem.getChildren().add(newTreeItem);
 					}
 				}
@@ -213,13 +246,13 @@ public class TabManager {
 				rootTreeItem = treeItemMap.get(apiModelVo.getGroupId());
 				if (rootTreeItem == null) {
 					// Fallback to default group if saved group doesn't exist
-					rootTreeItem = treeItemMap.get(CommonUtil.getGroupId(defaultGroupName, apiGroupVoMap));
+					rootTreeItem = treeItemMap.get(groupRegistry.getGroupId(defaultGroupName));
 				}
 				rootTreeItem.getChildren().add(newTreeItem);
 			} else {
 				// For new items, add to selected parent or default group if nothing selected
 				if (selectedItem != null) {
-					boolean isGroup = treeItemMap.containsValue(selectedItem);
+					boolean isGroup = treeIndex.isGroup(selectedItem);
 					if (isGroup && selectedItem.getValue() != null) {
 						// Check if selection matches the item type (auth config vs regular request)
 						if (isAuthConfig) {
@@ -263,7 +296,7 @@ public class TabManager {
 				
 				// Default to appropriate root group if no valid parent found
 				if (rootTreeItem == null) {
-					rootTreeItem = treeItemMap.get(CommonUtil.getGroupId(defaultGroupName, apiGroupVoMap));
+					rootTreeItem = treeItemMap.get(groupRegistry.getGroupId(defaultGroupName));
 				}
 				
 				rootTreeItem.getChildren().add(newTreeItem);
@@ -331,6 +364,11 @@ public class TabManager {
 			closeTabApiModelVo.setTabOpen(false);
 			saveTab(tab, true);
 		}
+		
+		// Abandoned requests of a closed tab should not keep holding connections
+		if (!event.isConsumed() && onTabClosedCallback != null) {
+			onTabClosedCallback.accept(tab.getId());
+		}
 	}
 	
 	/**
@@ -357,40 +395,53 @@ public class TabManager {
 	}
 	
 	/**
-	 * Marks a tab as modified (adds asterisk)
+	 * Drops the content of background tabs that have not been selected for the
+	 * given time, leaving only their ApiModelVo. Tabs with unsaved changes or a
+	 * busy request are kept. The content is rebuilt when the tab is selected again.
 	 */
-	public void markTabAsModified(Tab tab) {
-		String currentText = tab.getText();
-		if (!currentText.endsWith(" *")) {
-			tab.setText(currentText + " *");
+	public void unloadIdleTabs(long idleMillis, Predicate<String> isBusy) {
+		long now = System.nanoTime();
+		long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+		for (Tab tab : tabPane.getTabs()) {
+			if (tab.isSelected() || tab.getContent() == null || tab.getText().endsWith(" *")) {
+				continue;
+			}
 			ApiModelVo apiModelVo = apiModelVoMap.get(tab.getId());
-			if (apiModelVo != null) {
-				apiModelVo.setModified(true);
+			if (apiModelVo == null || apiModelVo.isModified() || isBusy.test(tab.getId())) {
+				continue;
+			}
+			Object lastSelectedNanos = tab.getProperties().get(LAST_SELECTED_KEY);
+			if (lastSelectedNanos instanceof Long nanos && now - nanos >= idleNanos) {
+				tab.setContent(null);
+				editorModelMap.remove(tab.getId());
+				if (onTabClosedCallback != null) {
+					onTabClosedCallback.accept(tab.getId());
+				}
 			}
 		}
 	}
 	
-	/**
-	 * Marks the parent tab of a container as modified
-	 */
-	public void markParentTabAsModified(VBox container) {
-		for (Tab tab : tabPane.getTabs()) {
-			if (tab.getContent() == container || isDescendantOf(container, tab.getContent())) {
-				markTabAsModified(tab);
-				break;
-			}
+	private void loadTabContent(Tab tab) {
+		if (tab.getContent() != null || tab.getTabPane() == null || !apiModelVoMap.containsKey(tab.getId())) {
+			return;
 		}
+		VBox contentContainer = contentFactory.createTabContent(tab.getId());
+		contentContainer.setFocusTraversable(true);
+		tab.setContent(contentContainer);
 	}
 	
-	private boolean isDescendantOf(Node child, Node parent) {
-		Node current = child.getParent();
-		while (current != null) {
-			if (current == parent) {
-				return true;
+	/**
+	 * Marks a tab as modified (adds asterisk)
+	 */
+	public void markTabAsModified(Tab tab) {
+		String currentText = tab.getText();
+		if (!currentText.endsWith(" *")) {
+			tab.setText(currentText + " *");
+			ApiModelVo apiModelVo = apiModelVoMap.get(tab.getId());
+			if (apiModelVo != null) {
+				apiModelVo.setModified(true);
 			}
-			current = current.getParent();
 		}
-		return false;
 	}
 	
 	/**
@@ -407,11 +458,14 @@ public class TabManager {
 	 * Saves all tabs
 	 */
 	public void saveAllTabs() {
+		List<String> tabIds = new ArrayList<>();
 		for (Tab tab : new ArrayList<>(tabPane.getTabs())) {
-			saveTab(tab, false);
+			if (saveTab(tab, false)) {
+				tabIds.add(tab.getId());
+			}
 		}
-		if (onSaveCallback != null) {
-			onSaveCallback.run();
+		if (!tabIds.isEmpty() && onSaveCallback != null) {
+			onSaveCallback.accept(tabIds);
 		}
 	}
 	
@@ -459,106 +513,45 @@ public class TabManager {
 		saveTab(tab, true);
 	}
 	
-	private void saveTab(Tab tab, boolean isWriteToFile) {
-		if (tab != null) {
-			String tabText = tab.getText();
-			if (tabText.endsWith(" *")) {
-				tabText = tabText.substring(0, tabText.length() - 2);
-				tab.setText(tabText);
-			}
-			
-			ApiModelVo apiModelVo = apiModelVoMap.get(tab.getId());
-			if (apiModelVo != null) {
-				apiModelVo.setCurrentTab(tab.isSelected());
-				VBox mainLayout = (VBox) tab.getContent();
-				if (mainLayout != null && !mainLayout.getChildren().isEmpty()) {
-					extractTabData(mainLayout, apiModelVo);
-				}
-				apiModelVo.setModified(false);
-			}
-			
-			if (isWriteToFile && onSaveCallback != null) {
-				onSaveCallback.run();
-			}
+	/**
+	 * Commits the tab's editor model to its request
+	 * 
+	 * @return true if the request changed and needs to be written
+	 */
+	private boolean saveTab(Tab tab, boolean isWriteToFile) {
+		if (tab == null) {
+			return false;
 		}
-	}
-	
-//	@SuppressWarnings("unchecked")
-//	private void extractAuthConfigTabData(VBox mainLayout, ApiModelVo apiModelVo) {
-//		// Auth config data is already saved in real-time via listeners
-//		// This method is here for consistency and future enhancements
-//	}
-	
-	@SuppressWarnings("unchecked")
-	private void extractTabData(VBox mainLayout, ApiModelVo apiModelVo) {
-		HBox requestBar = (HBox) mainLayout.getChildren().get(0);
-		if (requestBar != null && requestBar.getChildren().size() >= 2) {
-			ComboBox<String> methodComboBox = (ComboBox<String>) requestBar.getChildren().get(0);
-			apiModelVo.setMethod(methodComboBox.getValue());
-			TextField urlTextField = (TextField) requestBar.getChildren().get(1);
-			apiModelVo.setUrl(urlTextField.getText());
+		boolean isChanged = false;
+		String tabText = tab.getText();
+		if (tabText.endsWith(" *")) {
+			tabText = tabText.substring(0, tabText.length() - 2);
+			tab.setText(tabText);
+			isChanged = true;
 		}
 		
-		if (mainLayout.getChildren().size() > 1) {
-			SplitPane mainContentSplit = (SplitPane) mainLayout.getChildren().get(1);
-			if (mainContentSplit != null && mainContentSplit.getItems().size() > 0) {
-				TabPane topTabs = (TabPane) mainContentSplit.getItems().get(0);
-
-//				Tab authTab = topTabs.getTabs().get(0);
-//				VBox authTabContainer = (VBox) authTab.getContent();
-//				for (Node node : authTabContainer.getChildren()) {
-//					if (node instanceof ComboBox) {
-//						ComboBox<String> authComboBox = (ComboBox<String>) node;
-//						System.out.println("node " + authComboBox.getValue());
-//					}
-//				}
-				
-				Tab paramsTab = topTabs.getTabs().get(1);
-				ScrollPane paramsScrollPane = (ScrollPane) paramsTab.getContent();
-				VBox paramsContainer = (VBox) paramsScrollPane.getContent();
-				Map<String, String> params = extractParamsFromContainer(paramsContainer);
-				apiModelVo.setParams(params);
-				
-				Tab headersTab = topTabs.getTabs().get(2);
-				ScrollPane headersScrollPane = (ScrollPane) headersTab.getContent();
-				VBox headersContainer = (VBox) headersScrollPane.getContent();
-				Map<String, String> headers = extractParamsFromContainer(headersContainer);
-				apiModelVo.setHeaders(headers);
-				
-				Tab bodyTab = topTabs.getTabs().get(3);
-				TextArea bodyTextArea = (TextArea) bodyTab.getContent();
-				apiModelVo.setBody(bodyTextArea.getText());
+		ApiModelVo apiModelVo = apiModelVoMap.get(tab.getId());
+		if (apiModelVo != null) {
+			if (apiModelVo.isCurrentTab() != tab.isSelected()) {
+				apiModelVo.setCurrentTab(tab.isSelected());
+				isChanged = true;
 			}
-		}
-	}
-	
-	private Map<String, String> extractParamsFromContainer(VBox container) {
-		Map<String, String> result = new LinkedHashMap<>();
-		for (Node node : container.getChildren()) {
-			if (node instanceof HBox) {
-				HBox row = (HBox) node;
-				String key = null;
-				String value = null;
-				boolean isSelected = false;
-				for (Node fieldNode : row.getChildren()) {
-					if (fieldNode instanceof TextField) {
-						TextField textField = (TextField) fieldNode;
-						if ("key".equals(textField.getId())) {
-							key = textField.getText();
-						} else if ("value".equals(textField.getId())) {
-							value = textField.getText();
-						}
-					} else if (fieldNode instanceof CheckBox) {
-						CheckBox checkBox = (CheckBox) fieldNode;
-						isSelected = checkBox.isSelected();
-					}
-				}
-				if (isSelected && StringUtil.nonEmptyStr(key)) {
-					result.put(key, value != null ? value : "");
-				}
+			RequestEditorModel editorModel = editorModelMap.get(tab.getId());
+			if (editorModel != null && editorModel.commitTo(apiModelVo)) {
+				isChanged = true;
 			}
+			if (apiModelVo.isModified()) {
+				apiModelVo.setModified(false);
+				isChanged = true;
+			}
+		} else {
+			isChanged = true;
 		}
-		return result;
+		
+		if (isWriteToFile && onSaveCallback != null) {
+			onSaveCallback.accept(List.of(tab.getId()));
+		}
+		return isChanged;
 	}
 	
 	public String truncateTabTitle(String title) {
@@ -572,22 +565,6 @@ public class TabManager {
 		return cleanTitle;
 	}
 	
-	/**
-	 * Finds a tree item by its ApiModelVo ID
-	 */
-	private TreeItem<ApiModelVo> findTreeItemById(String id) {
-		if (id == null) {
-			return null;
-		}
-		
-		for (TreeItem<ApiModelVo> item : treeItemMap.values()) {
-			if (item.getValue() != null && id.equals(item.getValue().getId())) {
-				return item;
-			}			
-		}
-		return null;
-	}
-	
 	/**
 	 * Finds a tree item by its ApiModelVo ID in a specific parent tree
 	 */
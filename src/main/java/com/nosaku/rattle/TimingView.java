@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.util.Locale;
+
+import com.nosaku.rattle.vo.ExchangeTimingsVo;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+
+/**
+ * Waterfall of the phases of the last exchange: one row per phase, with a bar
+ * starting where the previous phase ended. Phases that could not be measured
+ * show a dash and take no space.
+ */
+public final class TimingView extends VBox {
+	private static final String[] PHASE_NAMES = { "Queue", "DNS", "Connect", "TLS", "Request write",
+			"Time to first byte", "Download", "Formatting & highlighting" };
+	private static final String[] PHASE_COLORS = { "#9e9e9e", "#26a69a", "#ffa726", "#ab47bc", "#42a5f5",
+			"#66bb6a", "#29b6f6", "#ef5350" };
+
+	private final GridPane waterfallGrid = new GridPane();
+	private final Label totalLabel = new Label();
+
+	public TimingView() {
+		super(10);
+		setPadding(new Insets(10));
+		waterfallGrid.setHgap(10);
+		waterfallGrid.setVgap(6);
+		ColumnConstraints nameColumn = new ColumnConstraints();
+		ColumnConstraints barColumn = new ColumnConstraints();
+		barColumn.setHgrow(Priority.ALWAYS);
+		ColumnConstraints valueColumn = new ColumnConstraints();
+		valueColumn.setMinWidth(80);
+		waterfallGrid.getColumnConstraints().addAll(nameColumn, barColumn, valueColumn);
+		getChildren().addAll(totalLabel, waterfallGrid);
+		clear();
+	}
+
+	public void clear() {
+		waterfallGrid.getChildren().clear();
+		totalLabel.setText("Send the request to see where its time goes.");
+	}
+
+	public void show(ExchangeTimingsVo timings) {
+		waterfallGrid.getChildren().clear();
+		if (timings == null || timings.getTotalMillis() == null) {
+			clear();
+			return;
+		}
+		Double[] phaseMillis = { timings.getQueueMillis(), timings.getDnsMillis(), timings.getConnectMillis(),
+				timings.getTlsMillis(), timings.getWriteMillis(), timings.getTtfbMillis(), timings.getDownloadMillis(),
+				timings.getPostProcessingMillis() };
+		double totalMillis = 0;
+		for (Double millis : phaseMillis) {
+			totalMillis += millis != null ? millis : 0;
+		}
+		totalLabel.setText("Total: " + formatMillis(timings.getTotalMillis()));
+
+		double offsetMillis = 0;
+		for (int i = 0; i < PHASE_NAMES.length; i++) {
+			Double millis = phaseMillis[i];
+			HBox track = new HBox();
+			track.setAlignment(Pos.CENTER_LEFT);
+			track.setMinWidth(100);
+			if (millis != null && totalMillis > 0) {
+				Region spacer = new Region();
+				Region bar = new Region();
+				bar.setStyle("-fx-background-color: " + PHASE_COLORS[i] + ";");
+				bar.setPrefHeight(12);
+				bar.setMinHeight(12);
+				double startFraction = offsetMillis / totalMillis;
+				double widthFraction = millis / totalMillis;
+				spacer.minWidthProperty().bind(track.widthProperty().multiply(startFraction));
+				spacer.maxWidthProperty().bind(spacer.minWidthProperty());
+				// Keep very short phases visible
+				bar.minWidthProperty().bind(track.widthProperty().multiply(widthFraction).add(1));
+				bar.maxWidthProperty().bind(bar.minWidthProperty());
+				track.getChildren().addAll(spacer, bar);
+				offsetMillis += millis;
+			}
+			Label valueLabel = new Label(millis != null ? formatMillis(millis) : "-");
+			valueLabel.setStyle("-fx-font-family: monospace;");
+			waterfallGrid.addRow(i, new Label(PHASE_NAMES[i]), track, valueLabel);
+		}
+	}
+
+	private static String formatMillis(double millis) {
+		return String.format(Locale.ROOT, "%.2f ms", millis);
+	}
+}
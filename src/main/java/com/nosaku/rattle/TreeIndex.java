@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.nosaku.rattle.vo.ApiModelVo;
+
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeItem.TreeModificationEvent;
+
+/**
+ * Indexes the request tree by id so lookups and saves do not walk it. The index
+ * follows the children modification events that bubble up to the root, so any
+ * add, move, clone or delete below the root keeps it current.
+ */
+public class TreeIndex {
+	private final Map<String, TreeItem<ApiModelVo>> treeItemMap;
+	// Every indexed item by id, groups and requests alike
+	private final Map<String, TreeItem<ApiModelVo>> itemsById = new HashMap<>();
+	private final Map<String, String> parentGroupIds = new HashMap<>();
+
+	/**
+	 * @param root        the (virtual) root of the tree, which is not indexed itself
+	 * @param treeItemMap group tree items by group id, owned by the app
+	 */
+	public TreeIndex(TreeItem<ApiModelVo> root, Map<String, TreeItem<ApiModelVo>> treeItemMap) {
+		this.treeItemMap = treeItemMap;
+		for (TreeItem<ApiModelVo> child : root.getChildren()) {
+			add(child, root);
+		}
+		root.addEventHandler(TreeItem.<ApiModelVo>childrenModificationEvent(), this::onChildrenModified);
+	}
+
+	/**
+	 * Returns the tree item with the given request or group id, or null
+	 */
+	public TreeItem<ApiModelVo> getTreeItem(String id) {
+		return id != null ? itemsById.get(id) : null;
+	}
+
+	/**
+	 * Returns the id of the group holding the given item, or null for top-level
+	 * or unknown items
+	 */
+	public String getParentGroupId(String id) {
+		return id != null ? parentGroupIds.get(id) : null;
+	}
+
+	public boolean isGroup(TreeItem<ApiModelVo> treeItem) {
+		return treeItem != null && treeItem.getValue() != null
+				&& treeItemMap.get(treeItem.getValue().getId()) == treeItem;
+	}
+
+	private void onChildrenModified(TreeModificationEvent<ApiModelVo> event) {
+		TreeItem<ApiModelVo> parent = event.getTreeItem();
+		// Removals first so an item replaced within one change ends up indexed
+		for (TreeItem<ApiModelVo> child : event.getRemovedChildren()) {
+			// Skip items already added under another parent
+			if (child.getParent() == null || child.getParent() == parent) {
+				remove(child);
+			}
+		}
+		for (TreeItem<ApiModelVo> child : event.getAddedChildren()) {
+			add(child, parent);
+		}
+	}
+
+	private void add(TreeItem<ApiModelVo> treeItem, TreeItem<ApiModelVo> parent) {
+		ApiModelVo value = treeItem.getValue();
+		if (value != null && value.getId() != null) {
+			itemsById.put(value.getId(), treeItem);
+			String parentId = parent.getValue() != null ? parent.getValue().getId() : null;
+			if (parentId != null) {
+				parentGroupIds.put(value.getId(), parentId);
+			} else {
+				parentGroupIds.remove(value.getId());
+			}
+		}
+		for (TreeItem<ApiModelVo> child : treeItem.getChildren()) {
+			add(child, treeItem);
+		}
+	}
+
+	private void remove(TreeItem<ApiModelVo> treeItem) {
+		ApiModelVo value = treeItem.getValue();
+		// Another item may have taken the id since, e.g. when the same request was re-added
+		if (value != null && value.getId() != null && itemsById.get(value.getId()) == treeItem) {
+			itemsById.remove(value.getId());
+			parentGroupIds.remove(value.getId());
+		}
+		for (TreeItem<ApiModelVo> child : treeItem.getChildren()) {
+			remove(child);
+		}
+	}
+}
@@ -51,4 +51,28 @@ public class CommonConstants {
 	public static final Collection<String> AUTHENTICATION_TYPES = Arrays.asList(AUTHENTICATION_TYPE_OAUTH2, AUTHENTICATION_TYPE_BASIC_AUTH, AUTHENTICATION_TYPE_API_KEY);
 	public static final String GROUP_NAME_HISTORY = "History";
 	public static final String GROUP_NAME_AUTH_CONFIGURATIONS = "Auth configurations";
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 32;
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST = 6;
+	public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+	public static final int DEFAULT_REQUEST_TIMEOUT_SECONDS = 120;
+	public static final int RESPONSE_MEMORY_LIMIT_BYTES = 8 * 1024 * 1024;
+	public static final String RESPONSE_SPILL_DIR_NAME = "tmp";
+	public static final int DEFAULT_MAX_HIGHLIGHTED_RESPONSE_CHARS = 4 * 1000 * 1000;
+	public static final int DEFAULT_CONSOLE_BUFFER_CHARS = 1000 * 1000;
+	public static final String CONSOLE_ARCHIVE_DIR_NAME = "console";
+	public static final long SAVE_DEBOUNCE_MILLIS = 500;
+	public static final long SAVE_MAX_DELAY_MILLIS = 5000;
+	public static final int DEFAULT_TAB_IDLE_UNLOAD_MINUTES = 30;
+	public static final String JOURNAL_FILE_NAME = "rattle.journal";
+	public static final long JOURNAL_COMPACT_THRESHOLD_BYTES = 4 * 1024 * 1024;
+	public static final long TOKEN_FETCH_BACKOFF_INITIAL_MILLIS = 1000;
+	public static final long TOKEN_FETCH_BACKOFF_MAX_MILLIS = 60000;
+	public static final long TOKEN_EXPIRY_BUFFER_MILLIS = 60000;
+	public static final int DEFAULT_TOKEN_REFRESH_PERCENT = 75;
+	public static final int TOKEN_REFRESH_IDLE_MINUTES = 30;
+	public static final String TOKEN_CACHE_FILE_NAME = "tokens.bin";
+	public static final String TOKEN_CACHE_SALT_FILE_NAME = "tokens.salt";
+	public static final int TOKEN_CACHE_KDF_ITERATIONS = 120000;
+	public static final int DEFAULT_RUNNER_PARALLELISM = 4;
+	public static final int FLIGHT_RECORDING_MAX_AGE_MINUTES = 30;
 }
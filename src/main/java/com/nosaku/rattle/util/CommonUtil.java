@@ -21,11 +21,11 @@
  */
 package com.nosaku.rattle.util;
 
-import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.nosaku.rattle.vo.ApiGroupVo;
 
 public class CommonUtil {
 	public static String getStackTraceAsString(Throwable throwable) {
@@ -35,18 +35,15 @@ public class CommonUtil {
 		return sw.toString();
 	}
 
-	public static String getGroupId(String groupName, Map<String, ApiGroupVo> apiGroupVoMap) {
-		return apiGroupVoMap.values().stream().filter(group -> groupName.equalsIgnoreCase(group.getName()))
-				.map(ApiGroupVo::getId).findFirst().orElse(null);
+	public static Throwable unwrapCompletionException(Throwable throwable) {
+		Throwable cause = throwable;
+		while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+				&& cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause;
 	}
 
-	public static boolean isGroupExists(String groupName, Map<String, ApiGroupVo> apiGroupVoMap, String parentId) {
-		return apiGroupVoMap.values().stream()
-				.anyMatch(group -> group.getName().equalsIgnoreCase(groupName) 
-						&& ((parentId == null && group.getParentId() == null) 
-							|| (parentId != null && parentId.equals(group.getParentId()))));
-	}
-	
 	public static boolean isLinux() {
 		return "Linux".equalsIgnoreCase(System.getProperty("os.name"));
 	}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+
+/**
+ * Bounded store of console lines. Once the lines held in memory exceed the
+ * character budget, the oldest are evicted and appended to an archive file under
+ * ~/.rattle, from where they can be read back a page at a time. Thread-safe.
+ */
+public class ConsoleBuffer {
+	public static final int ARCHIVE_PAGE_LINES = 1000;
+
+	// Single writer thread keeps archive appends and page reads ordered
+	private static final ExecutorService ARCHIVE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "rattle-console-archive");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final IntSupplier charBudget;
+	private final ArrayDeque<String> lines = new ArrayDeque<>();
+	private long charCount;
+	private int archivedLineCount;
+	private boolean isClosed;
+
+	// Confined to the archive thread
+	private Path archiveFile;
+	private OutputStream archiveStream;
+	private long archiveSize;
+	private int writtenLineCount;
+	private long[] pageOffsets = new long[16];
+
+	public ConsoleBuffer(IntSupplier charBudget) {
+		this.charBudget = charBudget;
+	}
+
+	/**
+	 * Appends the text as one or more lines and evicts the oldest lines beyond the
+	 * budget.
+	 *
+	 * @return the lines that were added and the number of lines evicted from memory
+	 */
+	public synchronized AppendResult append(String text) {
+		List<String> addedLines = splitLines(text);
+		for (String line : addedLines) {
+			lines.addLast(line);
+			charCount += line.length();
+		}
+		List<String> evictedLines = new ArrayList<>();
+		long budget = Math.max(0, charBudget.getAsInt());
+		// Always keep the newest line, however long it is
+		while (charCount > budget && lines.size() > 1) {
+			String line = lines.removeFirst();
+			charCount -= line.length();
+			evictedLines.add(line);
+		}
+		if (!evictedLines.isEmpty() && !isClosed) {
+			int firstArchivedLine = archivedLineCount;
+			archivedLineCount += evictedLines.size();
+			ARCHIVE_EXECUTOR.execute(() -> archive(evictedLines, firstArchivedLine));
+		}
+		return new AppendResult(addedLines, evictedLines.size());
+	}
+
+	public synchronized List<String> getLines() {
+		return new ArrayList<>(lines);
+	}
+
+	public synchronized int getArchivedLineCount() {
+		return archivedLineCount;
+	}
+
+	public synchronized int getArchivedPageCount() {
+		return (archivedLineCount + ARCHIVE_PAGE_LINES - 1) / ARCHIVE_PAGE_LINES;
+	}
+
+	/**
+	 * Reads one page of archived lines, page 0 being the oldest
+	 */
+	public CompletableFuture<List<String>> readArchivedPage(int page) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return readPage(page);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, ARCHIVE_EXECUTOR);
+	}
+
+	/**
+	 * Drops all lines, including the archive
+	 */
+	public synchronized void clear() {
+		lines.clear();
+		charCount = 0;
+		archivedLineCount = 0;
+		ARCHIVE_EXECUTOR.execute(this::deleteArchive);
+	}
+
+	/**
+	 * Releases the archive file. Lines appended afterwards are no longer archived.
+	 */
+	public synchronized void close() {
+		isClosed = true;
+		lines.clear();
+		charCount = 0;
+		ARCHIVE_EXECUTOR.execute(this::deleteArchive);
+	}
+
+	private void archive(List<String> evictedLines, int firstArchivedLine) {
+		try {
+			if (archiveStream == null) {
+				File dir = new File(new File(System.getProperty("user.home"), ".rattle"),
+						CommonConstants.CONSOLE_ARCHIVE_DIR_NAME);
+				if (!dir.exists()) {
+					dir.mkdirs();
+				}
+				archiveFile = Files.createTempFile(dir.toPath(), "console-", ".log");
+				archiveFile.toFile().deleteOnExit();
+				archiveStream = new BufferedOutputStream(Files.newOutputStream(archiveFile, StandardOpenOption.APPEND));
+				archiveSize = 0;
+			}
+			int lineNumber = firstArchivedLine;
+			for (String line : evictedLines) {
+				if (lineNumber % ARCHIVE_PAGE_LINES == 0) {
+					int page = lineNumber / ARCHIVE_PAGE_LINES;
+					if (page >= pageOffsets.length) {
+						pageOffsets = Arrays.copyOf(pageOffsets, Math.max(page + 1, pageOffsets.length * 2));
+					}
+					pageOffsets[page] = archiveSize;
+				}
+				byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+				archiveStream.write(bytes);
+				archiveStream.write('\n');
+				archiveSize += bytes.length + 1;
+				lineNumber++;
+			}
+			writtenLineCount = lineNumber;
+			archiveStream.flush();
+		} catch (IOException e) {
+			System.err.println("Failed to archive console lines: " + e.getMessage());
+		}
+	}
+
+	private List<String> readPage(int page) throws IOException {
+		int writtenPageCount = (writtenLineCount + ARCHIVE_PAGE_LINES - 1) / ARCHIVE_PAGE_LINES;
+		if (archiveFile == null || page < 0 || page >= writtenPageCount) {
+			return Collections.emptyList();
+		}
+		List<String> pageLines = new ArrayList<>(ARCHIVE_PAGE_LINES);
+		try (FileChannel channel = FileChannel.open(archiveFile, StandardOpenOption.READ)) {
+			channel.position(pageOffsets[page]);
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+			String line;
+			while (pageLines.size() < ARCHIVE_PAGE_LINES && (line = reader.readLine()) != null) {
+				pageLines.add(line);
+			}
+		}
+		return pageLines;
+	}
+
+	private void deleteArchive() {
+		try {
+			if (archiveStream != null) {
+				archiveStream.close();
+			}
+			if (archiveFile != null) {
+				Files.deleteIfExists(archiveFile);
+			}
+		} catch (IOException e) {
+			System.err.println("Failed to delete console archive " + archiveFile + ": " + e.getMessage());
+		}
+		archiveStream = null;
+		archiveFile = null;
+		archiveSize = 0;
+		writtenLineCount = 0;
+	}
+
+	private static List<String> splitLines(String text) {
+		List<String> result = new ArrayList<>();
+		if (text == null) {
+			return result;
+		}
+		int lineStart = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				result.add(text.substring(lineStart, i));
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				lineStart = i + 1;
+			}
+		}
+		if (lineStart < length || result.isEmpty()) {
+			result.add(text.substring(lineStart));
+		}
+		return result;
+	}
+
+	/**
+	 * Lines added by an append and how many lines were evicted from the front
+	 */
+	public record AppendResult(List<String> addedLines, int evictedCount) {
+	}
+}
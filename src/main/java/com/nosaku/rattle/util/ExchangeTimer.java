@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import com.nosaku.rattle.vo.ExchangeTimingsVo;
+
+/**
+ * Marks the phases of one exchange as it passes through ApiHelper and the
+ * response area, and turns them into an ExchangeTimingsVo. Created when the
+ * request is queued.
+ * <p>
+ * The JDK HttpClient only reports the finished response, so the marks come from
+ * around it: the request body and response handler are wrapped, and connect and
+ * TLS come from the handshake recorded by {@link TlsTimingContext}. The DNS figure
+ * is a separate resolve made here just before the send, not the client's own
+ * lookup; the JDK caches the address, so the client's lookup is then free.
+ */
+public class ExchangeTimer {
+	private final long queuedNanos = System.nanoTime();
+	private volatile URI uri;
+	private volatile long sendNanos;
+	private volatile long dnsEndNanos;
+	private volatile long writeStartNanos;
+	private volatile long writeEndNanos;
+	private volatile long headersNanos;
+	private volatile long bodyEndNanos;
+	private volatile long postProcessingStartNanos;
+	private volatile long postProcessingEndNanos;
+	private TlsTimingContext.Handshake handshake;
+	private boolean isHandshakeClaimed;
+
+	/**
+	 * Ends queueing and resolves the host, unless it is an address or a proxy
+	 * resolves it. Blocks for the lookup, so call it on a thread that may block.
+	 */
+	public void markSend(URI uri, boolean isResolvedByProxy) {
+		this.uri = uri;
+		sendNanos = System.nanoTime();
+		String host = getHost();
+		if (isResolvedByProxy || host == null || host.indexOf(':') >= 0 || host.matches("[0-9.]+")) {
+			return;
+		}
+		try {
+			InetAddress.getAllByName(host);
+		} catch (UnknownHostException e) {
+			// The exchange fails with the same error
+		}
+		dnsEndNanos = System.nanoTime();
+	}
+
+	/**
+	 * Notes when the client starts and finishes pulling the request body. A body of
+	 * known zero length is never pulled.
+	 */
+	public HttpRequest.BodyPublisher timeWrite(HttpRequest.BodyPublisher publisher) {
+		return new HttpRequest.BodyPublisher() {
+			@Override
+			public long contentLength() {
+				return publisher.contentLength();
+			}
+
+			@Override
+			public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+				// A redirect sends the body again; the last send is the one that counts
+				writeStartNanos = System.nanoTime();
+				writeEndNanos = 0;
+				publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+					@Override
+					public void onSubscribe(Flow.Subscription subscription) {
+						subscriber.onSubscribe(subscription);
+					}
+
+					@Override
+					public void onNext(ByteBuffer item) {
+						subscriber.onNext(item);
+					}
+
+					@Override
+					public void onError(Throwable throwable) {
+						subscriber.onError(throwable);
+					}
+
+					@Override
+					public void onComplete() {
+						writeEndNanos = System.nanoTime();
+						subscriber.onComplete();
+					}
+				});
+			}
+		};
+	}
+
+	/**
+	 * Notes when the response headers arrive and when the body has been received
+	 */
+	public <T> HttpResponse.BodyHandler<T> timeResponse(HttpResponse.BodyHandler<T> handler) {
+		return responseInfo -> {
+			headersNanos = System.nanoTime();
+			HttpResponse.BodySubscriber<T> subscriber = handler.apply(responseInfo);
+			return new HttpResponse.BodySubscriber<T>() {
+				@Override
+				public CompletionStage<T> getBody() {
+					return subscriber.getBody();
+				}
+
+				@Override
+				public void onSubscribe(Flow.Subscription subscription) {
+					subscriber.onSubscribe(subscription);
+				}
+
+				@Override
+				public void onNext(List<ByteBuffer> item) {
+					subscriber.onNext(item);
+				}
+
+				@Override
+				public void onError(Throwable throwable) {
+					subscriber.onError(throwable);
+				}
+
+				@Override
+				public void onComplete() {
+					bodyEndNanos = System.nanoTime();
+					subscriber.onComplete();
+				}
+			};
+		};
+	}
+
+	public void markPostProcessingStart() {
+		if (postProcessingStartNanos == 0) {
+			postProcessingStartNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * May be called again when a later step, such as highlighting, finishes
+	 */
+	public void markPostProcessingEnd() {
+		postProcessingEndNanos = System.nanoTime();
+	}
+
+	public synchronized ExchangeTimingsVo getTimings() {
+		ExchangeTimingsVo timings = new ExchangeTimingsVo();
+		if (sendNanos == 0) {
+			return timings;
+		}
+		timings.setQueueMillis(toMillis(sendNanos - queuedNanos));
+		long connectStartNanos = sendNanos;
+		if (dnsEndNanos != 0) {
+			timings.setDnsMillis(toMillis(dnsEndNanos - sendNanos));
+			connectStartNanos = dnsEndNanos;
+		}
+		long requestSentNanos = connectStartNanos;
+		boolean isHttps = "https".equalsIgnoreCase(uri.getScheme());
+		if (isHttps) {
+			if (!isHandshakeClaimed && headersNanos != 0) {
+				int port = uri.getPort() != -1 ? uri.getPort() : 443;
+				handshake = TlsTimingContext.claimHandshake(getHost(), port, connectStartNanos,
+						writeStartNanos != 0 ? writeStartNanos : headersNanos);
+				isHandshakeClaimed = true;
+			}
+			if (handshake != null) {
+				timings.setConnectMillis(toMillis(handshake.getStartNanos() - connectStartNanos));
+				timings.setTlsMillis(toMillis(handshake.getFinishNanos() - handshake.getStartNanos()));
+				requestSentNanos = handshake.getFinishNanos();
+			} else if (isHandshakeClaimed) {
+				// Reused a pooled connection
+				timings.setConnectMillis(0.0);
+				timings.setTlsMillis(0.0);
+			}
+		}
+		if (writeStartNanos != 0) {
+			if (!isHttps) {
+				timings.setConnectMillis(toMillis(writeStartNanos - connectStartNanos));
+			}
+			if (writeEndNanos != 0) {
+				timings.setWriteMillis(toMillis(writeEndNanos - writeStartNanos));
+				requestSentNanos = writeEndNanos;
+			}
+		}
+		long lastNanos = requestSentNanos;
+		if (headersNanos != 0) {
+			timings.setTtfbMillis(toMillis(headersNanos - requestSentNanos));
+			lastNanos = headersNanos;
+		}
+		if (bodyEndNanos != 0) {
+			timings.setDownloadMillis(toMillis(bodyEndNanos - headersNanos));
+			lastNanos = bodyEndNanos;
+		}
+		if (postProcessingStartNanos != 0 && postProcessingEndNanos != 0) {
+			timings.setPostProcessingMillis(toMillis(postProcessingEndNanos - postProcessingStartNanos));
+			lastNanos = postProcessingEndNanos;
+		}
+		timings.setTotalMillis(toMillis(lastNanos - queuedNanos));
+		return timings;
+	}
+
+	private String getHost() {
+		String host = uri.getHost();
+		// IPv6 addresses keep their brackets in a URI
+		return host != null && host.startsWith("[") ? host.substring(1, host.length() - 1) : host;
+	}
+
+	private static double toMillis(long nanos) {
+		return Math.max(0, nanos) / 1_000_000.0;
+	}
+}
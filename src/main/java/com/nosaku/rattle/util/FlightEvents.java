@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the stages a request goes through, from the
+ * exchange to the response area, plus console appends and workspace writes.
+ * They cost next to nothing unless a recording is running; see
+ * {@link FlightRecording}.
+ */
+public final class FlightEvents {
+	private static final String CATEGORY = "Rattle";
+
+	private FlightEvents() {
+	}
+
+	@Name("com.nosaku.rattle.Exchange")
+	@Label("HTTP Exchange")
+	@Description("From sending the request to the response being formatted")
+	@Category({ CATEGORY, "Request" })
+	@StackTrace(false)
+	public static class ExchangeEvent extends Event {
+		@Label("Request Id")
+		public String requestId;
+
+		@Label("Method")
+		public String method;
+
+		@Label("URL")
+		public String url;
+
+		@Label("Status Code")
+		public int statusCode;
+
+		@Label("Request Body Size")
+		@DataAmount
+		public long requestBytes;
+
+		@Label("Response Body Size")
+		@DataAmount
+		public long responseBytes;
+	}
+
+	@Name("com.nosaku.rattle.JsonFormat")
+	@Label("JSON Formatting")
+	@Description("Pretty-printing a response body")
+	@Category({ CATEGORY, "Request" })
+	@StackTrace(false)
+	public static class JsonFormatEvent extends Event {
+		@Label("Request Id")
+		public String requestId;
+
+		@Label("Input Characters")
+		public long inputChars;
+
+		@Label("Output Characters")
+		public long outputChars;
+	}
+
+	@Name("com.nosaku.rattle.Highlight")
+	@Label("Response Highlighting")
+	@Description("Highlighting a response, from the first chunk to the last")
+	@Category({ CATEGORY, "Rendering" })
+	@StackTrace(false)
+	public static class HighlightEvent extends Event {
+		@Label("Request Id")
+		public String requestId;
+
+		@Label("Characters")
+		public long chars;
+
+		@Label("Lines")
+		public int lines;
+
+		@Label("Chunks Applied")
+		public int chunks;
+	}
+
+	@Name("com.nosaku.rattle.StyleSpans")
+	@Label("Apply Style Spans")
+	@Description("Applying one chunk of highlighting to the response area on the FX thread")
+	@Category({ CATEGORY, "Rendering" })
+	@StackTrace(false)
+	public static class StyleSpansEvent extends Event {
+		@Label("Request Id")
+		public String requestId;
+
+		@Label("First Line")
+		public int firstLine;
+
+		@Label("Lines")
+		public int lines;
+
+		@Label("Spans")
+		public int spans;
+	}
+
+	@Name("com.nosaku.rattle.ConsoleAppend")
+	@Label("Console Append")
+	@Description("Adding a log entry to a console on the FX thread")
+	@Category({ CATEGORY, "Rendering" })
+	@StackTrace(false)
+	public static class ConsoleAppendEvent extends Event {
+		@Label("Request Id")
+		public String requestId;
+
+		@Label("Characters")
+		public long chars;
+
+		@Label("Lines Added")
+		public int addedLines;
+
+		@Label("Lines Evicted")
+		public int evictedLines;
+	}
+
+	@Name("com.nosaku.rattle.WorkspaceWrite")
+	@Label("Workspace Write")
+	@Description("Appending to the journal or writing a new snapshot")
+	@Category({ CATEGORY, "Persistence" })
+	@StackTrace(false)
+	public static class WorkspaceWriteEvent extends Event {
+		@Label("Snapshot")
+		@Description("True for a compaction into a new snapshot, false for a journal append")
+		public boolean isSnapshot;
+
+		@Label("Records")
+		public int records;
+
+		@Label("Request Ids")
+		@Description("Requests written by a journal append, comma separated")
+		public String requestIds;
+
+		@Label("Size")
+		@DataAmount
+		public long bytes;
+	}
+}
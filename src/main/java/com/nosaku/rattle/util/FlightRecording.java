@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a flight recording on demand and dumps it to a file, so client-side
+ * hot spots can be profiled on a user's machine without restarting with JVM
+ * flags. Uses the JDK's "profile" settings; the {@link FlightEvents} are always
+ * enabled.
+ */
+public class FlightRecording {
+	private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+	private static FlightRecording instance;
+	private Recording recording;
+
+	private FlightRecording() {
+	}
+
+	public static synchronized FlightRecording getInstance() {
+		if (instance == null) {
+			instance = new FlightRecording();
+		}
+		return instance;
+	}
+
+	public synchronized boolean isRecording() {
+		return recording != null;
+	}
+
+	public synchronized void start() throws IOException, ParseException {
+		if (recording != null) {
+			return;
+		}
+		Recording newRecording = new Recording(Configuration.getConfiguration("profile"));
+		newRecording.setName("rattle");
+		newRecording.setToDisk(true);
+		newRecording.setMaxAge(Duration.ofMinutes(CommonConstants.FLIGHT_RECORDING_MAX_AGE_MINUTES));
+		newRecording.start();
+		recording = newRecording;
+	}
+
+	/**
+	 * Stops the recording and writes it to a timestamped .jfr file in the directory
+	 *
+	 * @return the file written
+	 */
+	public synchronized Path stopAndDump(Path dir) throws IOException {
+		if (recording == null) {
+			throw new IllegalStateException("No flight recording is running");
+		}
+		try {
+			Files.createDirectories(dir);
+			Path file = dir.resolve("rattle-" + LocalDateTime.now().format(FILE_TIMESTAMP_FORMAT) + ".jfr");
+			recording.stop();
+			recording.dump(file);
+			return file;
+		} finally {
+			recording.close();
+			recording = null;
+		}
+	}
+}
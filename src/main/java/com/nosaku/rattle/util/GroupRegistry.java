@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.nosaku.rattle.vo.ApiGroupVo;
+
+/**
+ * Keeps the group map together with case-insensitive name indexes, so resolving
+ * a group by name does not scan every group. All changes to the groups must go
+ * through this registry to keep the indexes in step.
+ */
+public class GroupRegistry {
+	/**
+	 * A group name, lower-cased, under a parent group (null for top-level groups)
+	 */
+	private record ParentNameKey(String parentId, String name) {
+	}
+
+	private final Map<String, ApiGroupVo> apiGroupVoMap;
+	// Ids per lower-cased name, in the order the groups were added
+	private final Map<String, Set<String>> idsByName = new HashMap<>();
+	private final Map<ParentNameKey, String> idByParentAndName = new HashMap<>();
+
+	/**
+	 * @param apiGroupVoMap the group map to maintain, indexed as it is now
+	 */
+	public GroupRegistry(Map<String, ApiGroupVo> apiGroupVoMap) {
+		this.apiGroupVoMap = apiGroupVoMap;
+		for (ApiGroupVo apiGroupVo : apiGroupVoMap.values()) {
+			index(apiGroupVo);
+		}
+	}
+
+	public ApiGroupVo get(String groupId) {
+		return groupId != null ? apiGroupVoMap.get(groupId) : null;
+	}
+
+	public void add(ApiGroupVo apiGroupVo) {
+		ApiGroupVo previous = apiGroupVoMap.put(apiGroupVo.getId(), apiGroupVo);
+		if (previous != null) {
+			unindex(previous);
+		}
+		index(apiGroupVo);
+	}
+
+	public ApiGroupVo remove(String groupId) {
+		ApiGroupVo apiGroupVo = apiGroupVoMap.remove(groupId);
+		if (apiGroupVo != null) {
+			unindex(apiGroupVo);
+		}
+		return apiGroupVo;
+	}
+
+	public void rename(String groupId, String newName) {
+		ApiGroupVo apiGroupVo = apiGroupVoMap.get(groupId);
+		if (apiGroupVo != null) {
+			unindex(apiGroupVo);
+			apiGroupVo.setName(newName);
+			index(apiGroupVo);
+		}
+	}
+
+	/**
+	 * Returns the id of the first group with the given name, ignoring case, or null
+	 */
+	public String getGroupId(String groupName) {
+		Set<String> ids = groupName != null ? idsByName.get(key(groupName)) : null;
+		return ids != null && !ids.isEmpty() ? ids.iterator().next() : null;
+	}
+
+	/**
+	 * Checks whether a group with the given name, ignoring case, exists under the
+	 * parent (null for top level)
+	 */
+	public boolean isGroupExists(String groupName, String parentId) {
+		return groupName != null && idByParentAndName.containsKey(new ParentNameKey(parentId, key(groupName)));
+	}
+
+	public String getHistoryGroupId() {
+		return getGroupId(CommonConstants.GROUP_NAME_HISTORY);
+	}
+
+	public String getAuthConfigurationsGroupId() {
+		return getGroupId(CommonConstants.GROUP_NAME_AUTH_CONFIGURATIONS);
+	}
+
+	private void index(ApiGroupVo apiGroupVo) {
+		if (apiGroupVo.getName() == null) {
+			return;
+		}
+		String name = key(apiGroupVo.getName());
+		idsByName.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(apiGroupVo.getId());
+		idByParentAndName.putIfAbsent(new ParentNameKey(apiGroupVo.getParentId(), name), apiGroupVo.getId());
+	}
+
+	private void unindex(ApiGroupVo apiGroupVo) {
+		if (apiGroupVo.getName() == null) {
+			return;
+		}
+		String name = key(apiGroupVo.getName());
+		Set<String> ids = idsByName.get(name);
+		if (ids == null) {
+			return;
+		}
+		ids.remove(apiGroupVo.getId());
+		if (ids.isEmpty()) {
+			idsByName.remove(name);
+		}
+		ParentNameKey parentNameKey = new ParentNameKey(apiGroupVo.getParentId(), name);
+		if (apiGroupVo.getId().equals(idByParentAndName.get(parentNameKey))) {
+			idByParentAndName.remove(parentNameKey);
+			// Another group may share the name under the same parent, e.g. from an older workspace
+			for (String id : ids) {
+				ApiGroupVo other = apiGroupVoMap.get(id);
+				if (other != null && Objects.equals(other.getParentId(), apiGroupVo.getParentId())) {
+					idByParentAndName.put(parentNameKey, id);
+					break;
+				}
+			}
+		}
+	}
+
+	private static String key(String groupName) {
+		return groupName.toLowerCase(Locale.ROOT);
+	}
+}
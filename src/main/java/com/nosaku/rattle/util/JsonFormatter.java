@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.core.util.Separators;
+
+/**
+ * Streaming JSON formatter. Tokens are copied from parser to generator in a single
+ * pass, so no tree is built and memory use does not grow with document size.
+ * Thread-safe: the factory is shared and each call uses its own parser and generator.
+ */
+public class JsonFormatter {
+	private static final String INDENT = "   ";
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+	private static final DefaultPrettyPrinter PRETTY_PRINTER = createPrettyPrinter();
+
+	private JsonFormatter() {
+	}
+
+	/**
+	 * Re-indents the JSON document. Throws if the input is not a single valid
+	 * JSON value.
+	 */
+	public static String prettyPrint(String json) throws IOException {
+		StringWriter writer = new StringWriter(json.length() + json.length() / 4);
+		format(new StringReader(json), writer, true);
+		return writer.toString();
+	}
+
+	/**
+	 * Validates the JSON document and strips insignificant whitespace
+	 */
+	public static String compact(String json) throws IOException {
+		StringWriter writer = new StringWriter(json.length());
+		format(new StringReader(json), writer, false);
+		return writer.toString();
+	}
+
+	/**
+	 * Copies one JSON value from the reader to the writer, either indented or
+	 * compact. Numbers are copied exactly as written.
+	 */
+	public static void format(Reader reader, Writer writer, boolean isPretty) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(reader);
+				JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+			if (isPretty) {
+				// The shared printer is a blueprint; the generator takes its own instance
+				generator.setPrettyPrinter(PRETTY_PRINTER.createInstance());
+			}
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				throw new JsonParseException(parser, "No JSON content");
+			}
+			int depth = 0;
+			do {
+				if (token.isNumeric()) {
+					// Keeps the literal as written, e.g. 2.50e3 rather than 2.50E+3
+					generator.writeNumber(parser.getText());
+				} else {
+					generator.copyCurrentEvent(parser);
+				}
+				if (token.isStructStart()) {
+					depth++;
+				} else if (token.isStructEnd()) {
+					depth--;
+				}
+			} while (depth > 0 && (token = parser.nextToken()) != null);
+			if (depth > 0) {
+				throw new JsonParseException(parser, "Unexpected end of JSON content");
+			}
+			if (parser.nextToken() != null) {
+				throw new JsonParseException(parser, "Unexpected content after JSON value");
+			}
+		}
+	}
+
+	private static DefaultPrettyPrinter createPrettyPrinter() {
+		DefaultIndenter indenter = new DefaultIndenter(INDENT, "\n");
+		DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter(Separators.createDefaultInstance()
+				.withObjectFieldValueSpacing(Separators.Spacing.AFTER)
+				.withObjectEmptySeparator("")
+				.withArrayEmptySeparator(""));
+		prettyPrinter.indentObjectsWith(indenter);
+		prettyPrinter.indentArraysWith(indenter);
+		return prettyPrinter;
+	}
+}
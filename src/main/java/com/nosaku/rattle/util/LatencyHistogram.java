@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram. Values are recorded
+ * in microseconds into log-linear buckets: exact below 256, and above that 128
+ * linear sub-buckets per power of two, so any value is reported within 0.8% of
+ * what was recorded. The memory use is fixed, whatever the count.
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 8;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+	// Values up to 2^40 microseconds, about 12 days
+	private static final int MAX_SHIFT = 40 - SUB_BUCKET_BITS;
+	private static final long MAX_VALUE = (1L << 40) - 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKET_COUNT + MAX_SHIFT * SUB_BUCKET_HALF_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong totalValue = new AtomicLong();
+	private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong maxValue = new AtomicLong();
+
+	public void recordValue(long valueMicros) {
+		long value = Math.max(0, Math.min(valueMicros, MAX_VALUE));
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+		totalValue.addAndGet(value);
+		minValue.accumulateAndGet(value, Math::min);
+		maxValue.accumulateAndGet(value, Math::max);
+	}
+
+	public long getTotalCount() {
+		return totalCount.get();
+	}
+
+	public long getMinValue() {
+		return totalCount.get() == 0 ? 0 : minValue.get();
+	}
+
+	public long getMaxValue() {
+		return maxValue.get();
+	}
+
+	public double getMean() {
+		long count = totalCount.get();
+		return count == 0 ? 0 : (double) totalValue.get() / count;
+	}
+
+	/**
+	 * Returns the value at or below which the given percentage of the recorded
+	 * values fall, e.g. 99.9 for the p99.9 latency
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0;
+		}
+		long targetCount = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+		long cumulativeCount = 0;
+		for (int index = 0; index < counts.length(); index++) {
+			cumulativeCount += counts.get(index);
+			if (cumulativeCount >= targetCount) {
+				return Math.min(highestEquivalentValue(index), getMaxValue());
+			}
+		}
+		return getMaxValue();
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (subBucket - SUB_BUCKET_HALF_COUNT);
+	}
+
+	private static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+		long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
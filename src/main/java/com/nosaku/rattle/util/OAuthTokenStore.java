@@ -21,17 +21,56 @@
  */
 package com.nosaku.rattle.util;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.google.gson.Gson;
 
 public class OAuthTokenStore {
+
+	/**
+	 * Calls the token endpoint of an auth config and returns the raw JSON response
+	 */
+	public interface TokenFetcher {
+		/**
+		 * @param refreshToken refresh token to redeem, or null for the grant configured
+		 *                     on the auth config
+		 */
+		CompletableFuture<String> fetch(String refreshToken);
+	}
+
 	private static OAuthTokenStore instance;
 	private Map<String, Token> tokenCacheMap;
+	// One fetch per auth config at a time, shared by every request waiting for it
+	private Map<String, CompletableFuture<String>> inFlightMap;
+	private Map<String, FetchFailure> failureMap;
+	// Fetcher and last use of each auth config, so tokens can be renewed in the background
+	private Map<String, TokenFetcher> fetcherMap;
+	private Map<String, Long> lastUsedMap;
+	private Map<String, ScheduledFuture<?>> refreshTaskMap;
+	private ScheduledThreadPoolExecutor refreshScheduler;
+	private volatile int refreshPercent = CommonConstants.DEFAULT_TOKEN_REFRESH_PERCENT;
+	private volatile TokenCacheFile cacheFile;
 
 	private OAuthTokenStore() {
 		tokenCacheMap = new ConcurrentHashMap<>();
+		inFlightMap = new ConcurrentHashMap<>();
+		failureMap = new ConcurrentHashMap<>();
+		fetcherMap = new ConcurrentHashMap<>();
+		lastUsedMap = new ConcurrentHashMap<>();
+		refreshTaskMap = new ConcurrentHashMap<>();
+		refreshScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "rattle-token-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+		refreshScheduler.setRemoveOnCancelPolicy(true);
 	}
 
 	public static synchronized OAuthTokenStore getInstance() {
@@ -48,7 +87,7 @@ public class OAuthTokenStore {
 			isExpired = true;
 		} else {
 			// Check if token is expired (with 60 second buffer)
-			if (System.currentTimeMillis() >= (token.expirationTime - 60000)) {
+			if (System.currentTimeMillis() >= (token.expirationTime - CommonConstants.TOKEN_EXPIRY_BUFFER_MILLIS)) {
 				isExpired = true;
 			}
 		}
@@ -57,8 +96,214 @@ public class OAuthTokenStore {
 
 	public void storeToken(String authConfigId, String tokenJsonStr) {
 		Token token = new Gson().fromJson(tokenJsonStr, Token.class);
-		token.setExpirationTime(System.currentTimeMillis() + (token.getExpires_in() * 1000));
+		token.setIssued_time(System.currentTimeMillis());
+		token.setExpirationTime(token.getIssued_time() + (token.getExpires_in() * 1000L));
+		// A refresh response may leave out the refresh token, which then stays valid
+		Token previous = tokenCacheMap.get(authConfigId);
+		if (token.getRefresh_token() == null && previous != null) {
+			token.setRefresh_token(previous.getRefresh_token());
+		}
 		tokenCacheMap.put(authConfigId, token);
+		saveCache();
+	}
+
+	/**
+	 * Keeps tokens in the given encrypted file across restarts, loading the ones
+	 * still valid; null stops persisting and deletes the current file
+	 *
+	 * @return completes once the cached tokens are in the store
+	 */
+	public synchronized CompletableFuture<Void> setCacheFile(TokenCacheFile cacheFile) {
+		TokenCacheFile previousCacheFile = this.cacheFile;
+		if (cacheFile == previousCacheFile) {
+			return CompletableFuture.completedFuture(null);
+		}
+		this.cacheFile = cacheFile;
+		if (previousCacheFile != null) {
+			previousCacheFile.deleteAsync();
+		}
+		if (cacheFile == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return cacheFile.loadAsync().thenAccept(tokens -> {
+			for (Map.Entry<String, Token> entry : tokens.entrySet()) {
+				// Tokens fetched while the file was loading are newer
+				tokenCacheMap.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			saveCache();
+		});
+	}
+
+	/**
+	 * Adds tokens read from a cache file without attaching it, so nothing is
+	 * written back. Tokens already held are kept.
+	 */
+	public synchronized void addCachedTokens(Map<String, Token> tokens) {
+		for (Map.Entry<String, Token> entry : tokens.entrySet()) {
+			tokenCacheMap.putIfAbsent(entry.getKey(), entry.getValue());
+		}
+	}
+
+	private void saveCache() {
+		TokenCacheFile currentCacheFile = cacheFile;
+		if (currentCacheFile != null) {
+			currentCacheFile.saveAsync(new HashMap<>(tokenCacheMap));
+		}
+	}
+
+	/**
+	 * Sets how far into a token's lifetime it is renewed in the background; 0 turns
+	 * background renewal off
+	 */
+	public void setRefreshPercent(int refreshPercent) {
+		this.refreshPercent = Math.max(0, Math.min(100, refreshPercent));
+		if (this.refreshPercent == 0) {
+			cancelAllRefreshes();
+		} else {
+			for (String authConfigId : tokenCacheMap.keySet()) {
+				scheduleRefresh(authConfigId);
+			}
+		}
+	}
+
+	/**
+	 * Returns the bearer token of an auth config, fetching a new one if the cached
+	 * token has expired. Concurrent callers share a single fetch, and a failed fetch
+	 * is handed to every caller until its backoff runs out.
+	 */
+	public CompletableFuture<String> getBearerTokenAsync(String authConfigId, TokenFetcher fetcher) {
+		fetcherMap.put(authConfigId, fetcher);
+		lastUsedMap.put(authConfigId, System.currentTimeMillis());
+		if (!isTokenExpired(authConfigId)) {
+			// Tokens read from the cache file get their renewal on first use
+			ScheduledFuture<?> refreshTask = refreshTaskMap.get(authConfigId);
+			if (refreshTask == null || refreshTask.isDone()) {
+				scheduleRefresh(authConfigId);
+			}
+			return CompletableFuture.completedFuture(getBearerToken(authConfigId));
+		}
+		FetchFailure failure = failureMap.get(authConfigId);
+		if (failure != null && System.currentTimeMillis() < failure.retryAt) {
+			return CompletableFuture.failedFuture(failure.cause);
+		}
+
+		CompletableFuture<String> bearerFuture = new CompletableFuture<>();
+		CompletableFuture<String> inFlight = inFlightMap.putIfAbsent(authConfigId, bearerFuture);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		// Another caller may have stored a token between the check above and winning the slot
+		if (!isTokenExpired(authConfigId)) {
+			inFlightMap.remove(authConfigId, bearerFuture);
+			bearerFuture.complete(getBearerToken(authConfigId));
+			return bearerFuture;
+		}
+
+		Token expiredToken = tokenCacheMap.get(authConfigId);
+		fetchToken(authConfigId, fetcher, expiredToken != null ? expiredToken.getRefresh_token() : null, bearerFuture);
+		return bearerFuture;
+	}
+
+	/**
+	 * Runs a fetch that holds the in-flight slot of the auth config, redeeming the
+	 * refresh token first when there is one
+	 */
+	private void fetchToken(String authConfigId, TokenFetcher fetcher, String refreshToken,
+			CompletableFuture<String> bearerFuture) {
+		CompletableFuture<String> fetchFuture = callFetcher(fetcher, refreshToken);
+		if (refreshToken != null) {
+			// The refresh token may have been revoked or expired, fall back to the full grant
+			fetchFuture = fetchFuture.exceptionallyCompose(exception -> {
+				Token token = tokenCacheMap.get(authConfigId);
+				if (token != null) {
+					token.setRefresh_token(null);
+				}
+				return callFetcher(fetcher, null);
+			});
+		}
+		fetchFuture.whenComplete((tokenJsonStr, exception) -> {
+			try {
+				if (exception == null) {
+					storeToken(authConfigId, tokenJsonStr);
+					failureMap.remove(authConfigId);
+					scheduleRefresh(authConfigId);
+				}
+			} catch (Exception e) {
+				exception = e;
+			}
+			inFlightMap.remove(authConfigId, bearerFuture);
+			if (exception == null) {
+				bearerFuture.complete(getBearerToken(authConfigId));
+			} else {
+				Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+						? exception.getCause() : exception;
+				failureMap.merge(authConfigId, new FetchFailure(cause, 1),
+						(previous, current) -> new FetchFailure(cause, previous.attempts + 1));
+				bearerFuture.completeExceptionally(cause);
+			}
+		});
+	}
+
+	private CompletableFuture<String> callFetcher(TokenFetcher fetcher, String refreshToken) {
+		try {
+			return fetcher.fetch(refreshToken);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * Schedules the renewal of the cached token at the configured share of its
+	 * lifetime, before the request path would see it as expired
+	 */
+	private void scheduleRefresh(String authConfigId) {
+		Token token = tokenCacheMap.get(authConfigId);
+		int percent = refreshPercent;
+		if (token == null || percent == 0) {
+			return;
+		}
+		long lifetimeMillis = token.getExpires_in() * 1000L;
+		if (lifetimeMillis <= CommonConstants.TOKEN_EXPIRY_BUFFER_MILLIS) {
+			return;
+		}
+		long delayMillis = Math.min(lifetimeMillis * percent / 100,
+				lifetimeMillis - CommonConstants.TOKEN_EXPIRY_BUFFER_MILLIS)
+				- (System.currentTimeMillis() - token.getIssued_time());
+		ScheduledFuture<?> refreshTask = refreshScheduler.schedule(() -> refreshToken(authConfigId),
+				Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+		ScheduledFuture<?> previousTask = refreshTaskMap.put(authConfigId, refreshTask);
+		if (previousTask != null) {
+			previousTask.cancel(false);
+		}
+	}
+
+	private void refreshToken(String authConfigId) {
+		TokenFetcher fetcher = fetcherMap.get(authConfigId);
+		Token token = tokenCacheMap.get(authConfigId);
+		Long lastUsed = lastUsedMap.get(authConfigId);
+		// Configs nobody has used lately fetch lazily on their next request instead
+		if (fetcher == null || token == null || lastUsed == null || System.currentTimeMillis()
+				- lastUsed > TimeUnit.MINUTES.toMillis(CommonConstants.TOKEN_REFRESH_IDLE_MINUTES)) {
+			return;
+		}
+		CompletableFuture<String> bearerFuture = new CompletableFuture<>();
+		if (inFlightMap.putIfAbsent(authConfigId, bearerFuture) != null) {
+			return;
+		}
+		fetchToken(authConfigId, fetcher, token.getRefresh_token(), bearerFuture);
+		bearerFuture.whenComplete((bearerToken, exception) -> {
+			if (exception != null) {
+				System.err.println("Background token refresh failed for " + authConfigId + ": "
+						+ exception.getMessage());
+			}
+		});
+	}
+
+	private void cancelAllRefreshes() {
+		for (ScheduledFuture<?> refreshTask : refreshTaskMap.values()) {
+			refreshTask.cancel(false);
+		}
+		refreshTaskMap.clear();
 	}
 
 	public String getBearerToken(String authConfigId) {
@@ -74,6 +319,12 @@ public class OAuthTokenStore {
 	 */
 	public void clearToken(String authConfigId) {
 		tokenCacheMap.remove(authConfigId);
+		failureMap.remove(authConfigId);
+		ScheduledFuture<?> refreshTask = refreshTaskMap.remove(authConfigId);
+		if (refreshTask != null) {
+			refreshTask.cancel(false);
+		}
+		saveCache();
 	}
 
 	/**
@@ -81,10 +332,31 @@ public class OAuthTokenStore {
 	 */
 	public void clearAllTokens() {
 		tokenCacheMap.clear();
+		failureMap.clear();
+		cancelAllRefreshes();
+		saveCache();
+	}
+
+	/**
+	 * A failed token fetch, retried after a delay that doubles with each attempt
+	 */
+	private static class FetchFailure {
+		private final Throwable cause;
+		private final int attempts;
+		private final long retryAt;
+
+		private FetchFailure(Throwable cause, int attempts) {
+			this.cause = cause;
+			this.attempts = attempts;
+			long backoff = CommonConstants.TOKEN_FETCH_BACKOFF_INITIAL_MILLIS << Math.min(attempts - 1, 16);
+			this.retryAt = System.currentTimeMillis()
+					+ Math.min(backoff, CommonConstants.TOKEN_FETCH_BACKOFF_MAX_MILLIS);
+		}
 	}
 
 	public static class Token {
 		private String access_token;
+		private String refresh_token;
 		private int expires_in;
 		private long issued_time;
 		private long expirationTime;
@@ -97,6 +369,14 @@ public class OAuthTokenStore {
 			this.access_token = access_token;
 		}
 
+		public String getRefresh_token() {
+			return refresh_token;
+		}
+
+		public void setRefresh_token(String refresh_token) {
+			this.refresh_token = refresh_token;
+		}
+
 		public int getExpires_in() {
 			return expires_in;
 		}
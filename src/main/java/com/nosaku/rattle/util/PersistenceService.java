@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nosaku.rattle.vo.ApiGroupVo;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.AppVo;
+import com.nosaku.rattle.vo.JournalRecordVo;
+import com.nosaku.rattle.vo.SettingsVo;
+
+/**
+ * Saves the workspace in the background. Callers mark what changed; bursts of
+ * changes are coalesced after a quiet period and only the changed entities are
+ * copied (on the snapshot executor, the FX thread in the app) and appended to the
+ * {@link WorkspaceStore} journal on the persistence thread.
+ */
+public class PersistenceService {
+
+	/**
+	 * Copies the requested part of the workspace. Only called on the snapshot executor.
+	 */
+	public interface SnapshotSource {
+		/**
+		 * @param apiIds   requests to copy, or null for all
+		 * @param groupIds groups to copy, or null for all
+		 * @return copies of the requested entities that still exist, plus the settings;
+		 *         requested ids missing from the result are recorded as deleted
+		 */
+		AppVo snapshot(Set<String> apiIds, Set<String> groupIds);
+	}
+
+	private final WorkspaceStore store;
+	private final SnapshotSource snapshotSource;
+	private final Executor snapshotExecutor;
+	private final long debounceMillis;
+	private final long maxDelayMillis;
+	private final ObjectMapper mapper = CommonUtil.getObjectMapper();
+	private final ScheduledExecutorService persistenceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "rattle-persistence");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private ScheduledFuture<?> pendingSave;
+	private long firstRequestNanos;
+	// Identifies the latest scheduled save; earlier ones that were not cancelled in time skip
+	private long saveSequence;
+	// Changes not yet copied, guarded by this
+	private Set<String> changedApiIds = new LinkedHashSet<>();
+	private Set<String> changedGroupIds = new LinkedHashSet<>();
+	private boolean isSettingsChanged;
+	private boolean isFullSave;
+
+	/**
+	 * @param dir            directory holding the workspace files
+	 * @param snapshotSource copies the state to save; only called on the snapshot executor
+	 * @param snapshotExecutor thread owning the state, e.g. {@code Platform::runLater}
+	 * @param debounceMillis quiet period before a requested save is written
+	 * @param maxDelayMillis upper bound on how long a continuous burst can defer the save
+	 */
+	public PersistenceService(Path dir, SnapshotSource snapshotSource, Executor snapshotExecutor,
+			long debounceMillis, long maxDelayMillis) {
+		this.store = new WorkspaceStore(dir, CommonConstants.JOURNAL_COMPACT_THRESHOLD_BYTES);
+		this.snapshotSource = snapshotSource;
+		this.snapshotExecutor = snapshotExecutor;
+		this.debounceMillis = debounceMillis;
+		this.maxDelayMillis = maxDelayMillis;
+	}
+
+	/**
+	 * Loads the saved workspace on the calling thread. Must be called once, before
+	 * any change is marked; later store access is handed to the persistence thread.
+	 *
+	 * @return the workspace, or null if nothing has been saved yet
+	 */
+	public AppVo load() throws IOException {
+		return store.load();
+	}
+
+	/**
+	 * Fills a request stub with its details from the store. Does nothing if the
+	 * request is already loaded.
+	 *
+	 * @return false if the details could not be read
+	 * @see #readDetails(Collection)
+	 */
+	public boolean ensureLoaded(ApiModelVo apiModelVo) {
+		if (apiModelVo.isDetailsLoaded()) {
+			return true;
+		}
+		try {
+			fillDetails(List.of(apiModelVo), readDetails(List.of(apiModelVo.getId())));
+			return true;
+		} catch (Exception e) {
+			System.err.println("Failed to load request " + apiModelVo.getId() + ": " + e.getMessage());
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the details of the given requests. Stubs are read from the snapshot on
+	 * the calling thread, without queueing behind a save; only requests that are
+	 * not stubs in the store go through the persistence thread. May be called on
+	 * any thread.
+	 *
+	 * @return copies of the details by id; requests not in the store are left out
+	 */
+	public Map<String, ApiModelVo> readDetails(Collection<String> ids) throws IOException {
+		Map<String, ApiModelVo> details = store.readStubs(ids);
+		List<String> remainingIds = ids.stream().filter(id -> !details.containsKey(id)).toList();
+		if (remainingIds.isEmpty()) {
+			return details;
+		}
+		try {
+			details.putAll(persistenceExecutor.submit(() -> {
+				Map<String, ApiModelVo> remainingDetails = new HashMap<>();
+				for (String id : remainingIds) {
+					ApiModelVo apiModelVo = store.readApi(id);
+					if (apiModelVo != null) {
+						remainingDetails.put(id, apiModelVo);
+					}
+				}
+				return remainingDetails;
+			}).get());
+		} catch (Exception e) {
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			if (cause instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Failed to read requests " + remainingIds, cause);
+		}
+		return details;
+	}
+
+	/**
+	 * Fills the stubs among the requests with the details read by
+	 * {@link #readDetails(Collection)}. Must be called on the thread owning the
+	 * requests.
+	 */
+	public static void fillDetails(Collection<ApiModelVo> apiModelVos, Map<String, ApiModelVo> details) {
+		for (ApiModelVo apiModelVo : apiModelVos) {
+			if (apiModelVo.isDetailsLoaded()) {
+				continue;
+			}
+			ApiModelVo apiDetails = details.get(apiModelVo.getId());
+			if (apiDetails != null) {
+				apiModelVo.loadDetails(apiDetails);
+			} else {
+				// Never saved with details, nothing to fill in
+				apiModelVo.setDetailsLoaded(true);
+			}
+		}
+	}
+
+	/**
+	 * Marks a request as changed, or deleted if it no longer exists at save time
+	 */
+	public synchronized void apiChanged(String apiId) {
+		changedApiIds.add(apiId);
+		scheduleSave();
+	}
+
+	/**
+	 * Marks a group as changed, or deleted if it no longer exists at save time
+	 */
+	public synchronized void groupChanged(String groupId) {
+		changedGroupIds.add(groupId);
+		scheduleSave();
+	}
+
+	public synchronized void settingsChanged() {
+		isSettingsChanged = true;
+		scheduleSave();
+	}
+
+	/**
+	 * Schedules a rewrite of the whole workspace as a new snapshot
+	 */
+	public synchronized void requestFullSave() {
+		isFullSave = true;
+		scheduleSave();
+	}
+
+	/**
+	 * Writes any pending changes and waits for the write to finish. Must be called
+	 * on the thread owning the state, typically at shutdown.
+	 */
+	public void flush() {
+		synchronized (this) {
+			if (pendingSave != null) {
+				pendingSave.cancel(false);
+				pendingSave = null;
+			}
+			saveSequence++;
+		}
+		Runnable write = takeChanges();
+		if (write == null) {
+			return;
+		}
+		try {
+			persistenceExecutor.submit(write).get(30, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Schedules the save. Changes within the debounce window push it back, but
+	 * never beyond the max delay after the first unsaved change.
+	 */
+	private void scheduleSave() {
+		long now = System.nanoTime();
+		if (pendingSave == null) {
+			firstRequestNanos = now;
+		} else {
+			pendingSave.cancel(false);
+		}
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - firstRequestNanos);
+		long delayMillis = Math.max(0, Math.min(debounceMillis, maxDelayMillis - elapsedMillis));
+		long sequence = ++saveSequence;
+		pendingSave = persistenceExecutor.schedule(() -> saveInBackground(sequence), delayMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	private void saveInBackground(long sequence) {
+		synchronized (this) {
+			if (sequence != saveSequence) {
+				return;
+			}
+			pendingSave = null;
+		}
+		snapshotExecutor.execute(() -> {
+			// Null when flush() already took these changes
+			Runnable write = takeChanges();
+			if (write != null) {
+				persistenceExecutor.execute(write);
+			}
+		});
+	}
+
+	/**
+	 * Copies the pending changes on the calling thread, which must own the state,
+	 * and returns the write to run on the persistence thread.
+	 */
+	private Runnable takeChanges() {
+		Set<String> apiIds;
+		Set<String> groupIds;
+		boolean isSettings;
+		boolean isFull;
+		synchronized (this) {
+			if (!isFullSave && !isSettingsChanged && changedApiIds.isEmpty() && changedGroupIds.isEmpty()) {
+				return null;
+			}
+			apiIds = changedApiIds;
+			groupIds = changedGroupIds;
+			isSettings = isSettingsChanged;
+			isFull = isFullSave;
+			changedApiIds = new LinkedHashSet<>();
+			changedGroupIds = new LinkedHashSet<>();
+			isSettingsChanged = false;
+			isFullSave = false;
+		}
+		if (isFull) {
+			AppVo snapshot = snapshotSource.snapshot(null, null);
+			snapshot.setSettings(copySettings(snapshot.getSettings()));
+			return () -> {
+				try {
+					store.replaceAll(snapshot);
+				} catch (Exception e) {
+					System.err.println("Failed to save the workspace: " + e.getMessage());
+					e.printStackTrace();
+				}
+			};
+		}
+		AppVo snapshot = snapshotSource.snapshot(apiIds, groupIds);
+		snapshot.setSettings(isSettings ? copySettings(snapshot.getSettings()) : null);
+		List<JournalRecordVo> records = createRecords(snapshot, apiIds, groupIds);
+		return () -> {
+			try {
+				store.append(records);
+			} catch (Exception e) {
+				System.err.println("Failed to save the workspace: " + e.getMessage());
+				e.printStackTrace();
+			}
+		};
+	}
+
+	/**
+	 * Settings are not cloneable and stay in use on the snapshot thread, so they are
+	 * copied through the object mapper
+	 */
+	private SettingsVo copySettings(SettingsVo settings) {
+		return settings != null ? mapper.convertValue(settings, SettingsVo.class) : null;
+	}
+
+	private static List<JournalRecordVo> createRecords(AppVo snapshot, Set<String> apiIds, Set<String> groupIds) {
+		List<JournalRecordVo> records = new ArrayList<>();
+		Map<String, ApiGroupVo> groups = new HashMap<>();
+		if (snapshot.getApiGroups() != null) {
+			for (ApiGroupVo apiGroupVo : snapshot.getApiGroups()) {
+				groups.put(apiGroupVo.getId(), apiGroupVo);
+			}
+		}
+		// Groups first so replay never sees a request in a group that does not exist yet
+		for (String groupId : groupIds) {
+			ApiGroupVo apiGroupVo = groups.get(groupId);
+			records.add(apiGroupVo != null ? JournalRecordVo.upsertGroup(apiGroupVo)
+					: JournalRecordVo.deleteGroup(groupId));
+		}
+		Map<String, ApiModelVo> apis = new HashMap<>();
+		if (snapshot.getApiList() != null) {
+			for (ApiModelVo apiModelVo : snapshot.getApiList()) {
+				apis.put(apiModelVo.getId(), apiModelVo);
+			}
+		}
+		for (String apiId : apiIds) {
+			ApiModelVo apiModelVo = apis.get(apiId);
+			if (apiModelVo != null && !apiModelVo.isDetailsLoaded()) {
+				// A stub would overwrite the stored details with empty ones
+				System.err.println("Skipping save of request " + apiId + ", its details are not loaded");
+				continue;
+			}
+			records.add(apiModelVo != null ? JournalRecordVo.upsertApi(apiModelVo) : JournalRecordVo.deleteApi(apiId));
+		}
+		if (snapshot.getSettings() != null) {
+			records.add(JournalRecordVo.settings(snapshot.getSettings()));
+		}
+		return records;
+	}
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Response payload with a bounded in-memory head. Bytes beyond the memory limit
+ * are spilled to a temp file under ~/.rattle so large downloads cannot exhaust the
+ * heap; the full payload is only read back on demand. Spill files live in a
+ * directory per process and are deleted by {@link #release()}; those of a process
+ * that ended without releasing them are removed by {@link #deleteStaleSpillFiles()}.
+ */
+public class ResponseBody {
+	private final byte[] head;
+	private final Path spillFile;
+	private final long size;
+	private final Charset charset;
+
+	private ResponseBody(byte[] head, Path spillFile, long size, Charset charset) {
+		this.head = head;
+		this.spillFile = spillFile;
+		this.size = size;
+		this.charset = charset;
+	}
+
+	public static ResponseBody ofString(String text) {
+		byte[] bytes = text != null ? text.getBytes(StandardCharsets.UTF_8) : new byte[0];
+		return new ResponseBody(bytes, null, bytes.length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Body handler keeping at most {@code memoryLimit} bytes in memory
+	 */
+	public static HttpResponse.BodyHandler<ResponseBody> bodyHandler(int memoryLimit) {
+		return responseInfo -> new SpillingSubscriber(memoryLimit, getCharset(responseInfo));
+	}
+
+	/**
+	 * Total number of bytes received
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * True when part of the payload lives in the spill file
+	 */
+	public boolean isTruncated() {
+		return spillFile != null;
+	}
+
+	/**
+	 * The in-memory head of the payload, which is the whole payload unless truncated.
+	 * A UTF-8 character cut by the memory limit is left out.
+	 */
+	public String getText() {
+		int length = spillFile != null && StandardCharsets.UTF_8.equals(charset) ? getUtf8Boundary(head)
+				: head.length;
+		return new String(head, 0, length, charset);
+	}
+
+	/**
+	 * Streams the full payload, reading the spilled part from disk
+	 */
+	public InputStream openStream() throws IOException {
+		InputStream headStream = new ByteArrayInputStream(head);
+		if (spillFile == null) {
+			return headStream;
+		}
+		return new SequenceInputStream(headStream, Files.newInputStream(spillFile));
+	}
+
+	public void saveTo(Path target) throws IOException {
+		try (InputStream in = openStream()) {
+			Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Removes the spill file. The in-memory head stays readable.
+	 */
+	public void release() {
+		if (spillFile != null) {
+			try {
+				Files.deleteIfExists(spillFile);
+			} catch (IOException e) {
+				System.err.println("Failed to delete response spill file " + spillFile + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Deletes the spill directories of processes that are no longer running
+	 */
+	public static void deleteStaleSpillFiles() {
+		File[] files = getSpillBaseDir().listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			long pid;
+			try {
+				pid = Long.parseLong(file.getName());
+			} catch (NumberFormatException e) {
+				continue;
+			}
+			if (ProcessHandle.of(pid).isPresent()) {
+				continue;
+			}
+			File[] spillFiles = file.listFiles();
+			if (spillFiles != null) {
+				for (File spillFile : spillFiles) {
+					spillFile.delete();
+				}
+			}
+			if (!file.delete()) {
+				System.err.println("Failed to delete stale response spill directory " + file);
+			}
+		}
+	}
+
+	/**
+	 * Length of the bytes without a trailing UTF-8 sequence that was cut short
+	 */
+	private static int getUtf8Boundary(byte[] bytes) {
+		int end = bytes.length;
+		int start = end - 1;
+		// Back over up to three continuation bytes to the lead byte
+		while (start >= 0 && end - start <= 3 && (bytes[start] & 0xC0) == 0x80) {
+			start--;
+		}
+		if (start < 0) {
+			return end;
+		}
+		int lead = bytes[start] & 0xFF;
+		int sequenceLength = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+		return end - start < sequenceLength ? start : end;
+	}
+
+	private static Charset getCharset(HttpResponse.ResponseInfo responseInfo) {
+		String contentType = responseInfo.headers().firstValue("Content-Type").orElse("");
+		for (String part : contentType.split(";")) {
+			String param = part.trim();
+			if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+				try {
+					return Charset.forName(param.substring(8).replace("\"", "").trim());
+				} catch (Exception e) {
+					System.err.println("Unsupported response charset " + param + ", using UTF-8");
+				}
+			}
+		}
+		return StandardCharsets.UTF_8;
+	}
+
+	private static File getSpillBaseDir() {
+		return new File(new File(System.getProperty("user.home"), ".rattle"), CommonConstants.RESPONSE_SPILL_DIR_NAME);
+	}
+
+	private static Path createSpillFile() throws IOException {
+		File dir = new File(getSpillBaseDir(), String.valueOf(ProcessHandle.current().pid()));
+		if (!dir.exists()) {
+			dir.mkdirs();
+		}
+		return Files.createTempFile(dir.toPath(), "response-", ".tmp");
+	}
+
+	private static class SpillingSubscriber implements HttpResponse.BodySubscriber<ResponseBody> {
+		private final CompletableFuture<ResponseBody> result = new CompletableFuture<>();
+		private final int memoryLimit;
+		private final Charset charset;
+		private final ByteArrayOutputStream headBuffer = new ByteArrayOutputStream();
+		private Flow.Subscription subscription;
+		private Path spillFile;
+		private FileChannel spillChannel;
+		private long size;
+
+		private SpillingSubscriber(int memoryLimit, Charset charset) {
+			this.memoryLimit = memoryLimit;
+			this.charset = charset;
+		}
+
+		@Override
+		public CompletionStage<ResponseBody> getBody() {
+			return result;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(List<ByteBuffer> buffers) {
+			try {
+				for (ByteBuffer buffer : buffers) {
+					size += buffer.remaining();
+					int headRoom = memoryLimit - headBuffer.size();
+					if (headRoom > 0) {
+						int length = Math.min(headRoom, buffer.remaining());
+						writeHead(buffer, length);
+					}
+					if (buffer.hasRemaining()) {
+						if (spillChannel == null) {
+							spillFile = createSpillFile();
+							spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+						}
+						while (buffer.hasRemaining()) {
+							spillChannel.write(buffer);
+						}
+					}
+				}
+				subscription.request(1);
+			} catch (IOException e) {
+				subscription.cancel();
+				onError(e);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			closeSpillChannel();
+			if (spillFile != null) {
+				try {
+					Files.deleteIfExists(spillFile);
+				} catch (IOException e) {
+					System.err.println("Failed to delete response spill file " + spillFile + ": " + e.getMessage());
+				}
+			}
+			result.completeExceptionally(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			closeSpillChannel();
+			result.complete(new ResponseBody(headBuffer.toByteArray(), spillFile, size, charset));
+		}
+
+		private void writeHead(ByteBuffer buffer, int length) {
+			if (buffer.hasArray()) {
+				headBuffer.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+				buffer.position(buffer.position() + length);
+			} else {
+				byte[] bytes = new byte[length];
+				buffer.get(bytes);
+				headBuffer.writeBytes(bytes);
+			}
+		}
+
+		private void closeSpillChannel() {
+			if (spillChannel != null) {
+				try {
+					spillChannel.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				spillChannel = null;
+			}
+		}
+	}
+}
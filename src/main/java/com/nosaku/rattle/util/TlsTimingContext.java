@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.nio.ByteBuffer;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLContextSpi;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+
+/**
+ * SSLContext whose engines record when their handshake starts and finishes. The
+ * JDK HttpClient has no hook into connection setup, so this is how an exchange
+ * learns how long the TCP connect and TLS handshake of a new connection took.
+ * Finished handshakes are kept briefly per host and port and claimed by the
+ * exchange whose connect window contains them.
+ */
+public class TlsTimingContext extends SSLContext {
+	private static final long HANDSHAKE_RETENTION_NANOS = TimeUnit.SECONDS.toNanos(60);
+	private static final int MAX_HANDSHAKES_PER_HOST = 64;
+	private static final Map<String, Deque<Handshake>> handshakeMap = new ConcurrentHashMap<>();
+
+	public TlsTimingContext(SSLContext delegate) {
+		super(new TimingContextSpi(delegate), delegate.getProvider(), delegate.getProtocol());
+	}
+
+	/**
+	 * Claims an unclaimed handshake with the host that started and finished within
+	 * the given window, or returns null when the exchange reused a connection
+	 */
+	public static Handshake claimHandshake(String host, int port, long fromNanos, long toNanos) {
+		Deque<Handshake> handshakes = handshakeMap.get(getKey(host, port));
+		if (handshakes == null) {
+			return null;
+		}
+		for (Handshake handshake : handshakes) {
+			if (handshake.startNanos >= fromNanos && handshake.finishNanos <= toNanos
+					&& handshake.isClaimed.compareAndSet(false, true)) {
+				return handshake;
+			}
+		}
+		return null;
+	}
+
+	private static void addHandshake(String host, int port, Handshake handshake) {
+		Deque<Handshake> handshakes = handshakeMap.computeIfAbsent(getKey(host, port),
+				key -> new ConcurrentLinkedDeque<>());
+		handshakes.addLast(handshake);
+		long cutoffNanos = handshake.finishNanos - HANDSHAKE_RETENTION_NANOS;
+		Handshake oldest;
+		while ((oldest = handshakes.peekFirst()) != null
+				&& (oldest.finishNanos < cutoffNanos || handshakes.size() > MAX_HANDSHAKES_PER_HOST)) {
+			handshakes.remove(oldest);
+		}
+	}
+
+	private static String getKey(String host, int port) {
+		return host + ":" + port;
+	}
+
+	public static class Handshake {
+		private final long startNanos;
+		private final long finishNanos;
+		private final AtomicBoolean isClaimed = new AtomicBoolean();
+
+		private Handshake(long startNanos, long finishNanos) {
+			this.startNanos = startNanos;
+			this.finishNanos = finishNanos;
+		}
+
+		/**
+		 * When the client hello was produced, which is also when the TCP connect completed
+		 */
+		public long getStartNanos() {
+			return startNanos;
+		}
+
+		public long getFinishNanos() {
+			return finishNanos;
+		}
+	}
+
+	private static class TimingContextSpi extends SSLContextSpi {
+		private final SSLContext delegate;
+
+		private TimingContextSpi(SSLContext delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		protected void engineInit(KeyManager[] keyManagers, TrustManager[] trustManagers, SecureRandom random)
+				throws KeyManagementException {
+			delegate.init(keyManagers, trustManagers, random);
+		}
+
+		@Override
+		protected SSLSocketFactory engineGetSocketFactory() {
+			return delegate.getSocketFactory();
+		}
+
+		@Override
+		protected SSLServerSocketFactory engineGetServerSocketFactory() {
+			return delegate.getServerSocketFactory();
+		}
+
+		@Override
+		protected SSLEngine engineCreateSSLEngine() {
+			return delegate.createSSLEngine();
+		}
+
+		@Override
+		protected SSLEngine engineCreateSSLEngine(String host, int port) {
+			return new TimingEngine(delegate.createSSLEngine(host, port));
+		}
+
+		@Override
+		protected SSLSessionContext engineGetServerSessionContext() {
+			return delegate.getServerSessionContext();
+		}
+
+		@Override
+		protected SSLSessionContext engineGetClientSessionContext() {
+			return delegate.getClientSessionContext();
+		}
+
+		@Override
+		protected SSLParameters engineGetDefaultSSLParameters() {
+			return delegate.getDefaultSSLParameters();
+		}
+
+		@Override
+		protected SSLParameters engineGetSupportedSSLParameters() {
+			return delegate.getSupportedSSLParameters();
+		}
+	}
+
+	/**
+	 * Delegates everything and notes the first wrap and the FINISHED handshake status
+	 */
+	private static class TimingEngine extends SSLEngine {
+		private final SSLEngine delegate;
+		private volatile long handshakeStartNanos;
+		private volatile boolean isHandshakeRecorded;
+
+		private TimingEngine(SSLEngine delegate) {
+			super(delegate.getPeerHost(), delegate.getPeerPort());
+			this.delegate = delegate;
+		}
+
+		@Override
+		public SSLEngineResult wrap(ByteBuffer[] sources, int offset, int length, ByteBuffer destination)
+				throws SSLException {
+			if (handshakeStartNanos == 0) {
+				handshakeStartNanos = System.nanoTime();
+			}
+			return recordFinished(delegate.wrap(sources, offset, length, destination));
+		}
+
+		@Override
+		public SSLEngineResult unwrap(ByteBuffer source, ByteBuffer[] destinations, int offset, int length)
+				throws SSLException {
+			return recordFinished(delegate.unwrap(source, destinations, offset, length));
+		}
+
+		private SSLEngineResult recordFinished(SSLEngineResult result) {
+			if (result.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED && !isHandshakeRecorded
+					&& handshakeStartNanos != 0) {
+				isHandshakeRecorded = true;
+				addHandshake(getPeerHost(), getPeerPort(), new Handshake(handshakeStartNanos, System.nanoTime()));
+			}
+			return result;
+		}
+
+		@Override
+		public Runnable getDelegatedTask() {
+			return delegate.getDelegatedTask();
+		}
+
+		@Override
+		public void closeInbound() throws SSLException {
+			delegate.closeInbound();
+		}
+
+		@Override
+		public boolean isInboundDone() {
+			return delegate.isInboundDone();
+		}
+
+		@Override
+		public void closeOutbound() {
+			delegate.closeOutbound();
+		}
+
+		@Override
+		public boolean isOutboundDone() {
+			return delegate.isOutboundDone();
+		}
+
+		@Override
+		public String[] getSupportedCipherSuites() {
+			return delegate.getSupportedCipherSuites();
+		}
+
+		@Override
+		public String[] getEnabledCipherSuites() {
+			return delegate.getEnabledCipherSuites();
+		}
+
+		@Override
+		public void setEnabledCipherSuites(String[] suites) {
+			delegate.setEnabledCipherSuites(suites);
+		}
+
+		@Override
+		public String[] getSupportedProtocols() {
+			return delegate.getSupportedProtocols();
+		}
+
+		@Override
+		public String[] getEnabledProtocols() {
+			return delegate.getEnabledProtocols();
+		}
+
+		@Override
+		public void setEnabledProtocols(String[] protocols) {
+			delegate.setEnabledProtocols(protocols);
+		}
+
+		@Override
+		public SSLSession getSession() {
+			return delegate.getSession();
+		}
+
+		@Override
+		public SSLSession getHandshakeSession() {
+			return delegate.getHandshakeSession();
+		}
+
+		@Override
+		public void beginHandshake() throws SSLException {
+			delegate.beginHandshake();
+		}
+
+		@Override
+		public SSLEngineResult.HandshakeStatus getHandshakeStatus() {
+			return delegate.getHandshakeStatus();
+		}
+
+		@Override
+		public void setUseClientMode(boolean mode) {
+			delegate.setUseClientMode(mode);
+		}
+
+		@Override
+		public boolean getUseClientMode() {
+			return delegate.getUseClientMode();
+		}
+
+		@Override
+		public void setNeedClientAuth(boolean need) {
+			delegate.setNeedClientAuth(need);
+		}
+
+		@Override
+		public boolean getNeedClientAuth() {
+			return delegate.getNeedClientAuth();
+		}
+
+		@Override
+		public void setWantClientAuth(boolean want) {
+			delegate.setWantClientAuth(want);
+		}
+
+		@Override
+		public boolean getWantClientAuth() {
+			return delegate.getWantClientAuth();
+		}
+
+		@Override
+		public void setEnableSessionCreation(boolean flag) {
+			delegate.setEnableSessionCreation(flag);
+		}
+
+		@Override
+		public boolean getEnableSessionCreation() {
+			return delegate.getEnableSessionCreation();
+		}
+
+		@Override
+		public SSLParameters getSSLParameters() {
+			return delegate.getSSLParameters();
+		}
+
+		@Override
+		public void setSSLParameters(SSLParameters parameters) {
+			delegate.setSSLParameters(parameters);
+		}
+
+		@Override
+		public String getApplicationProtocol() {
+			return delegate.getApplicationProtocol();
+		}
+
+		@Override
+		public String getHandshakeApplicationProtocol() {
+			return delegate.getHandshakeApplicationProtocol();
+		}
+
+		@Override
+		public void setHandshakeApplicationProtocolSelector(BiFunction<SSLEngine, List<String>, String> selector) {
+			delegate.setHandshakeApplicationProtocolSelector(selector);
+		}
+
+		@Override
+		public BiFunction<SSLEngine, List<String>, String> getHandshakeApplicationProtocolSelector() {
+			return delegate.getHandshakeApplicationProtocolSelector();
+		}
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * File under ~/.rattle holding the cached OAuth2 tokens between runs. The file
+ * is sealed with AES-GCM under a key derived with PBKDF2 from the user and host
+ * names plus a random salt kept next to it. Those inputs are not secret, so this
+ * only keeps the tokens from being read casually; it does not protect them at
+ * rest, and anyone who can read the directory can recover them. Reads and writes
+ * run on a single background thread; back-to-back saves collapse into one write
+ * of the latest tokens.
+ */
+public class TokenCacheFile {
+	private static final int FORMAT_VERSION = 1;
+	private static final int SALT_LENGTH = 16;
+	private static final int IV_LENGTH = 12;
+	private static final int TAG_LENGTH_BITS = 128;
+	private static final Type TOKEN_MAP_TYPE = new TypeToken<Map<String, OAuthTokenStore.Token>>() {
+	}.getType();
+
+	private final Path cacheFile;
+	private final Path saltFile;
+	private final ExecutorService ioExecutor;
+	private final AtomicReference<Map<String, OAuthTokenStore.Token>> pendingTokens = new AtomicReference<>();
+	private final SecureRandom secureRandom = new SecureRandom();
+	// Confined to the I/O thread
+	private SecretKey key;
+
+	public TokenCacheFile(Path dir) {
+		this.cacheFile = dir.resolve(CommonConstants.TOKEN_CACHE_FILE_NAME);
+		this.saltFile = dir.resolve(CommonConstants.TOKEN_CACHE_SALT_FILE_NAME);
+		this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "rattle-token-cache");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Reads the cached tokens, leaving out the expired ones. An unreadable file,
+	 * for example one written under another account, yields no tokens.
+	 */
+	public CompletableFuture<Map<String, OAuthTokenStore.Token>> loadAsync() {
+		return CompletableFuture.supplyAsync(() -> {
+			Map<String, OAuthTokenStore.Token> tokens = new HashMap<>();
+			try {
+				if (Files.exists(cacheFile) && Files.exists(saltFile)) {
+					tokens = decrypt(Files.readAllBytes(cacheFile));
+				}
+			} catch (Exception e) {
+				System.err.println("Could not read token cache, starting empty: " + e.getMessage());
+			}
+			long now = System.currentTimeMillis();
+			Iterator<OAuthTokenStore.Token> iterator = tokens.values().iterator();
+			while (iterator.hasNext()) {
+				OAuthTokenStore.Token token = iterator.next();
+				if (token == null || now >= token.getExpirationTime() - CommonConstants.TOKEN_EXPIRY_BUFFER_MILLIS) {
+					iterator.remove();
+				}
+			}
+			return tokens;
+		}, ioExecutor);
+	}
+
+	/**
+	 * Queues a write of the given tokens, replacing any write still waiting
+	 */
+	public void saveAsync(Map<String, OAuthTokenStore.Token> tokens) {
+		if (pendingTokens.getAndSet(tokens) == null) {
+			ioExecutor.execute(() -> {
+				Map<String, OAuthTokenStore.Token> latestTokens = pendingTokens.getAndSet(null);
+				try {
+					write(latestTokens);
+				} catch (Exception e) {
+					System.err.println("Could not write token cache: " + e.getMessage());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Waits for the queued writes, for callers about to exit
+	 */
+	public void flush() {
+		CompletableFuture.runAsync(() -> {
+		}, ioExecutor).join();
+	}
+
+	/**
+	 * Removes the cache file, for when persistent tokens are turned off
+	 */
+	public void deleteAsync() {
+		pendingTokens.set(null);
+		ioExecutor.execute(() -> {
+			try {
+				Files.deleteIfExists(cacheFile);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
+	}
+
+	private void write(Map<String, OAuthTokenStore.Token> tokens) throws IOException, GeneralSecurityException {
+		if (tokens == null) {
+			return;
+		}
+		if (tokens.isEmpty()) {
+			Files.deleteIfExists(cacheFile);
+			return;
+		}
+		byte[] encrypted = encrypt(new Gson().toJson(tokens, TOKEN_MAP_TYPE).getBytes(StandardCharsets.UTF_8));
+		Path tempFile = createOwnerOnlyFile(cacheFile.getParent(), CommonConstants.TOKEN_CACHE_FILE_NAME);
+		try {
+			Files.write(tempFile, encrypted);
+			Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private byte[] encrypt(byte[] plain) throws IOException, GeneralSecurityException {
+		byte[] iv = new byte[IV_LENGTH];
+		secureRandom.nextBytes(iv);
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, getKey(), new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+		byte[] sealed = cipher.doFinal(plain);
+		return ByteBuffer.allocate(1 + IV_LENGTH + sealed.length).put((byte) FORMAT_VERSION).put(iv).put(sealed)
+				.array();
+	}
+
+	private Map<String, OAuthTokenStore.Token> decrypt(byte[] data) throws IOException, GeneralSecurityException {
+		if (data.length <= 1 + IV_LENGTH || data[0] != FORMAT_VERSION) {
+			throw new IOException("Unknown token cache format");
+		}
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.DECRYPT_MODE, getKey(), new GCMParameterSpec(TAG_LENGTH_BITS, data, 1, IV_LENGTH));
+		byte[] plain = cipher.doFinal(data, 1 + IV_LENGTH, data.length - 1 - IV_LENGTH);
+		Map<String, OAuthTokenStore.Token> tokens = new Gson().fromJson(new String(plain, StandardCharsets.UTF_8),
+				TOKEN_MAP_TYPE);
+		return tokens != null ? tokens : new HashMap<>();
+	}
+
+	private SecretKey getKey() throws IOException, GeneralSecurityException {
+		if (key == null) {
+			PBEKeySpec keySpec = new PBEKeySpec(getLocalSecret().toCharArray(), getSalt(),
+					CommonConstants.TOKEN_CACHE_KDF_ITERATIONS, 256);
+			try {
+				byte[] keyBytes = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(keySpec)
+						.getEncoded();
+				key = new SecretKeySpec(keyBytes, "AES");
+			} finally {
+				keySpec.clearPassword();
+			}
+		}
+		return key;
+	}
+
+	private byte[] getSalt() throws IOException {
+		if (Files.exists(saltFile)) {
+			byte[] salt = Files.readAllBytes(saltFile);
+			if (salt.length == SALT_LENGTH) {
+				return salt;
+			}
+		}
+		byte[] salt = new byte[SALT_LENGTH];
+		secureRandom.nextBytes(salt);
+		Path tempFile = createOwnerOnlyFile(saltFile.getParent(), CommonConstants.TOKEN_CACHE_SALT_FILE_NAME);
+		try {
+			Files.write(tempFile, salt);
+			Files.move(tempFile, saltFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		// A new salt makes any existing cache unreadable
+		Files.deleteIfExists(cacheFile);
+		return salt;
+	}
+
+	private static String getLocalSecret() {
+		String hostName;
+		try {
+			hostName = InetAddress.getLocalHost().getHostName();
+		} catch (IOException e) {
+			hostName = "localhost";
+		}
+		return System.getProperty("user.name") + "@" + hostName + ":" + System.getProperty("user.home");
+	}
+
+	private static Path createOwnerOnlyFile(Path dir, String prefix) throws IOException {
+		Files.createDirectories(dir);
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			return Files.createTempFile(dir, prefix, ".tmp",
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		}
+		return Files.createTempFile(dir, prefix, ".tmp");
+	}
+}
@@ -0,0 +1,636 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nosaku.rattle.vo.ApiGroupVo;
+import com.nosaku.rattle.vo.ApiModelVo;
+import com.nosaku.rattle.vo.AppVo;
+import com.nosaku.rattle.vo.JournalRecordVo;
+import com.nosaku.rattle.vo.ProxySettingsVo;
+import com.nosaku.rattle.vo.SettingsVo;
+
+/**
+ * Workspace storage made of a snapshot (rattle.json) and an append-only journal
+ * (rattle.journal) of per-entity change records. A save appends only the changed
+ * entities; once the journal grows past a threshold it is folded into a new
+ * snapshot. Startup replays the journal over the snapshot.
+ * <p>
+ * The snapshot is scanned with the streaming parser: requests are kept as stubs
+ * holding only their tree fields and their byte range in the file, and their
+ * details are bound when asked for.
+ * <p>
+ * A store opened with {@link #openReadOnly(Path)} never writes, so it can read a
+ * workspace while the app that owns it keeps saving.
+ * <p>
+ * Not thread-safe: all calls must come from one thread, except
+ * {@link #readStubs(Collection)}. Independent of JavaFX.
+ */
+public class WorkspaceStore {
+	private static final TypeReference<List<ApiGroupVo>> GROUP_LIST_TYPE = new TypeReference<>() {
+	};
+
+	/**
+	 * Byte range of a request object in the snapshot
+	 */
+	private record Range(long start, long end) {
+	}
+
+	/**
+	 * Snapshot file open for reading with the stub ranges pointing into it.
+	 * Replaced when the snapshot is rewritten, so stub reads on other threads
+	 * keep reading the file their ranges belong to.
+	 */
+	private record SnapshotReader(FileChannel channel, Map<String, Range> ranges) {
+	}
+
+	private final Path snapshotFile;
+	private final Path journalFile;
+	private final long compactThresholdBytes;
+	private final boolean isReadOnly;
+	private final ObjectMapper mapper = CommonUtil.getObjectMapper();
+	private final ObjectWriter recordWriter = mapper.writerFor(JournalRecordVo.class)
+			.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	private final ObjectReader recordReader = mapper.readerFor(JournalRecordVo.class);
+
+	// Persisted state: snapshot plus replayed journal. Requests in stubRanges are stubs.
+	private final Map<String, ApiModelVo> apiMap = new LinkedHashMap<>();
+	private Map<String, Range> stubRanges = new ConcurrentHashMap<>();
+	private final Map<String, ApiGroupVo> groupMap = new LinkedHashMap<>();
+	private AppVo legacyFields = new AppVo();
+	private SettingsVo settings;
+	private FileChannel journalChannel;
+	private long journalSize;
+	private volatile SnapshotReader snapshotReader;
+
+	public WorkspaceStore(Path dir, long compactThresholdBytes) {
+		this(dir, compactThresholdBytes, false);
+	}
+
+	private WorkspaceStore(Path dir, long compactThresholdBytes, boolean isReadOnly) {
+		this.snapshotFile = dir.resolve(CommonConstants.FILE_NAME);
+		this.journalFile = dir.resolve(CommonConstants.JOURNAL_FILE_NAME);
+		this.compactThresholdBytes = compactThresholdBytes;
+		this.isReadOnly = isReadOnly;
+	}
+
+	/**
+	 * Opens a store that only reads. Loading never compacts, and a torn record at
+	 * the end of the journal, possibly one being appended right now, is skipped
+	 * rather than truncated. The write methods throw IllegalStateException.
+	 */
+	public static WorkspaceStore openReadOnly(Path dir) {
+		return new WorkspaceStore(dir, Long.MAX_VALUE, true);
+	}
+
+	/**
+	 * Scans the snapshot and replays the journal over it. A torn record at the end
+	 * of the journal, left by a crash mid-append, is dropped (and truncated unless
+	 * the store is read-only); a complete last record missing its newline is kept
+	 * and terminated. Requests with an open
+	 * tab are returned fully loaded, all others as stubs (see
+	 * {@link ApiModelVo#isDetailsLoaded()}). The returned objects are copies the
+	 * caller may modify.
+	 *
+	 * @return the workspace, or null if nothing has been saved yet
+	 */
+	public AppVo load() throws IOException {
+		boolean isFound = scanSnapshot();
+		journalSize = 0;
+		if (Files.exists(journalFile)) {
+			isFound = true;
+			replayJournal();
+		}
+		if (!isFound) {
+			return null;
+		}
+		if (!isReadOnly && journalSize > compactThresholdBytes) {
+			compact();
+		}
+
+		AppVo appVo = createAppVo();
+		List<ApiModelVo> apiList = new ArrayList<>(apiMap.size());
+		for (ApiModelVo apiModelVo : apiMap.values()) {
+			if (apiModelVo.isDetailsLoaded() || !apiModelVo.isTabOpen()) {
+				apiList.add(apiModelVo.clone());
+			} else {
+				apiList.add(readApi(apiModelVo.getId()));
+			}
+		}
+		appVo.setApiList(apiList);
+		List<ApiGroupVo> apiGroups = new ArrayList<>(groupMap.size());
+		for (ApiGroupVo apiGroupVo : groupMap.values()) {
+			apiGroups.add(apiGroupVo.clone());
+		}
+		appVo.setApiGroups(apiGroups);
+		if (settings != null) {
+			appVo.setSettings(mapper.convertValue(settings, SettingsVo.class));
+		}
+		return appVo;
+	}
+
+	/**
+	 * Reads a request with all its details.
+	 *
+	 * @return a copy the caller may modify, or null if the request does not exist
+	 */
+	public ApiModelVo readApi(String id) throws IOException {
+		ApiModelVo apiModelVo = apiMap.get(id);
+		if (apiModelVo == null) {
+			return null;
+		}
+		Range range = stubRanges.get(id);
+		if (range == null) {
+			return apiModelVo.clone();
+		}
+		try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+			return mapper.readValue(readRange(channel, range), ApiModelVo.class);
+		}
+	}
+
+	/**
+	 * Reads the details of requests that are stubs in the snapshot. May be called
+	 * on any thread; it reads the snapshot current at the time and does not wait
+	 * for a write in progress.
+	 *
+	 * @return copies the caller may modify, by id; ids that are not stubs are left out
+	 */
+	public Map<String, ApiModelVo> readStubs(Collection<String> ids) throws IOException {
+		while (true) {
+			SnapshotReader reader = snapshotReader;
+			Map<String, ApiModelVo> details = new HashMap<>();
+			if (reader == null) {
+				return details;
+			}
+			try {
+				for (String id : ids) {
+					Range range = reader.ranges().get(id);
+					if (range != null) {
+						details.put(id, mapper.readValue(readRange(reader.channel(), range), ApiModelVo.class));
+					}
+				}
+				return details;
+			} catch (ClosedChannelException e) {
+				// Compacted meanwhile; read again from the new snapshot
+				if (reader == snapshotReader) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Appends the records to the journal in one write and syncs it, compacting if
+	 * the journal has outgrown the threshold.
+	 */
+	public void append(List<JournalRecordVo> records) throws IOException {
+		checkWritable();
+		if (records.isEmpty()) {
+			return;
+		}
+		FlightEvents.WorkspaceWriteEvent writeEvent = new FlightEvents.WorkspaceWriteEvent();
+		writeEvent.begin();
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		for (JournalRecordVo record : records) {
+			recordWriter.writeValue(buffer, record);
+			buffer.write('\n');
+		}
+		FileChannel channel = getJournalChannel();
+		ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		channel.force(false);
+		journalSize += buffer.size();
+		for (JournalRecordVo record : records) {
+			apply(record);
+		}
+		if (writeEvent.shouldCommit()) {
+			writeEvent.records = records.size();
+			writeEvent.requestIds = records.stream()
+					.filter(record -> record.getType() == JournalRecordVo.Type.UPSERT_API
+							|| record.getType() == JournalRecordVo.Type.DELETE_API)
+					.map(JournalRecordVo::getId).collect(Collectors.joining(","));
+			writeEvent.bytes = buffer.size();
+			writeEvent.commit();
+		}
+		if (journalSize > compactThresholdBytes) {
+			compact();
+		}
+	}
+
+	/**
+	 * Replaces the whole workspace with a new snapshot and empties the journal.
+	 * Stubs in the given workspace keep their stored details.
+	 */
+	public void replaceAll(AppVo appVo) throws IOException {
+		checkWritable();
+		Map<String, Range> oldRanges = new HashMap<>(stubRanges);
+		Map<String, ApiModelVo> oldApiMap = new HashMap<>(apiMap);
+		apiMap.clear();
+		stubRanges.clear();
+		groupMap.clear();
+		if (appVo.getApiList() != null) {
+			for (ApiModelVo apiModelVo : appVo.getApiList()) {
+				String id = apiModelVo.getId();
+				if (!apiModelVo.isDetailsLoaded() && oldApiMap.containsKey(id)) {
+					apiMap.put(id, oldApiMap.get(id));
+					if (oldRanges.containsKey(id)) {
+						stubRanges.put(id, oldRanges.get(id));
+					}
+				} else {
+					apiMap.put(id, apiModelVo);
+				}
+			}
+		}
+		if (appVo.getApiGroups() != null) {
+			for (ApiGroupVo apiGroupVo : appVo.getApiGroups()) {
+				groupMap.put(apiGroupVo.getId(), apiGroupVo);
+			}
+		}
+		settings = appVo.getSettings();
+		legacyFields = appVo;
+		compact();
+	}
+
+	/**
+	 * Writes the current state as a new snapshot, replacing the old one atomically,
+	 * then truncates the journal. Stubs are copied token by token from the old
+	 * snapshot without binding them. A crash before the truncate only replays
+	 * records already in the snapshot, which is harmless since every record is
+	 * idempotent.
+	 */
+	public void compact() throws IOException {
+		checkWritable();
+		FlightEvents.WorkspaceWriteEvent writeEvent = new FlightEvents.WorkspaceWriteEvent();
+		writeEvent.begin();
+		Files.createDirectories(snapshotFile.getParent());
+		Path tempFile = Files.createTempFile(snapshotFile.getParent(), CommonConstants.FILE_NAME, ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+					FileChannel source = stubRanges.isEmpty() ? null
+							: FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+				OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+				writeSnapshot(out, source);
+				out.flush();
+				channel.force(true);
+			}
+			try {
+				Files.move(tempFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+		FileChannel channel = getJournalChannel();
+		channel.truncate(0);
+		channel.force(true);
+		journalSize = 0;
+		// The byte ranges point into the old file; rescanning also turns loaded requests back into stubs
+		scanSnapshot();
+		if (writeEvent.shouldCommit()) {
+			writeEvent.isSnapshot = true;
+			writeEvent.records = apiMap.size() + groupMap.size();
+			writeEvent.bytes = Files.size(snapshotFile);
+			writeEvent.commit();
+		}
+	}
+
+	public void close() {
+		publishSnapshotReader(null);
+		if (journalChannel != null) {
+			try {
+				journalChannel.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			journalChannel = null;
+		}
+	}
+
+	/**
+	 * Resets the state to the snapshot contents, reading requests as stubs
+	 *
+	 * @return false if there is no snapshot
+	 */
+	private boolean scanSnapshot() throws IOException {
+		apiMap.clear();
+		// A new map, the old one stays with the snapshot reader still in use
+		stubRanges = new ConcurrentHashMap<>();
+		groupMap.clear();
+		settings = null;
+		legacyFields = new AppVo();
+		if (!Files.exists(snapshotFile)) {
+			publishSnapshotReader(null);
+			return false;
+		}
+		try (InputStream in = Files.newInputStream(snapshotFile); JsonParser parser = mapper.createParser(in)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("Unexpected content in " + snapshotFile);
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String fieldName = parser.currentName();
+				JsonToken token = parser.nextToken();
+				switch (fieldName) {
+				case "apiList":
+					if (token == JsonToken.START_ARRAY) {
+						while (parser.nextToken() == JsonToken.START_OBJECT) {
+							scanApi(parser);
+						}
+					}
+					break;
+				case "apiGroups":
+					List<ApiGroupVo> apiGroups = mapper.readValue(parser, GROUP_LIST_TYPE);
+					if (apiGroups != null) {
+						for (ApiGroupVo apiGroupVo : apiGroups) {
+							groupMap.put(apiGroupVo.getId(), apiGroupVo);
+						}
+					}
+					break;
+				case "settings":
+					settings = mapper.readValue(parser, SettingsVo.class);
+					break;
+				case "proxySettings":
+					legacyFields.setProxySettings(mapper.readValue(parser, ProxySettingsVo.class));
+					break;
+				case "darkMode":
+					legacyFields.setDarkMode(parser.getValueAsBoolean());
+					break;
+				case "theme":
+					legacyFields.setTheme(parser.getValueAsString());
+					break;
+				default:
+					parser.skipChildren();
+				}
+			}
+		}
+		publishSnapshotReader(FileChannel.open(snapshotFile, StandardOpenOption.READ));
+		return true;
+	}
+
+	/**
+	 * Makes stub reads go to the given snapshot channel and the current ranges, and
+	 * closes the previous channel. A read still using it retries on the new one.
+	 */
+	private void publishSnapshotReader(FileChannel channel) {
+		SnapshotReader oldReader = snapshotReader;
+		snapshotReader = channel != null ? new SnapshotReader(channel, stubRanges) : null;
+		if (oldReader != null) {
+			try {
+				oldReader.channel().close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Reads the tree fields of the request object at the parser and skips the rest
+	 * without decoding it
+	 */
+	private void scanApi(JsonParser parser) throws IOException {
+		long start = parser.currentTokenLocation().getByteOffset();
+		ApiModelVo stub = new ApiModelVo();
+		stub.setDetailsLoaded(false);
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.currentName();
+			parser.nextToken();
+			switch (fieldName) {
+			case "id":
+				stub.setId(parser.getValueAsString());
+				break;
+			case "name":
+				stub.setName(parser.getValueAsString());
+				break;
+			case "groupId":
+				stub.setGroupId(parser.getValueAsString());
+				break;
+			case "tabNbr":
+				stub.setTabNbr(parser.getValueAsInt());
+				break;
+			case "tabOpen":
+				stub.setTabOpen(parser.getValueAsBoolean());
+				break;
+			case "currentTab":
+				stub.setCurrentTab(parser.getValueAsBoolean());
+				break;
+			case "newTab":
+				stub.setNewTab(parser.getValueAsBoolean());
+				break;
+			case "authConfig":
+				stub.setAuthConfig(parser.getValueAsBoolean());
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+		long end = parser.currentLocation().getByteOffset();
+		if (stub.getId() != null) {
+			apiMap.put(stub.getId(), stub);
+			stubRanges.put(stub.getId(), new Range(start, end));
+		}
+	}
+
+	private void writeSnapshot(OutputStream out, FileChannel source) throws IOException {
+		AppVo appVo = createAppVo();
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.useDefaultPrettyPrinter();
+			generator.writeStartObject();
+			generator.writeArrayFieldStart("apiList");
+			for (ApiModelVo apiModelVo : apiMap.values()) {
+				Range range = stubRanges.get(apiModelVo.getId());
+				if (range == null) {
+					generator.writeObject(apiModelVo);
+				} else {
+					try (JsonParser parser = mapper.createParser(readRange(source, range))) {
+						parser.nextToken();
+						generator.copyCurrentStructure(parser);
+					}
+				}
+			}
+			generator.writeEndArray();
+			generator.writeObjectField("apiGroups", new ArrayList<>(groupMap.values()));
+			generator.writeObjectField("settings", appVo.getSettings());
+			// Legacy fields for backward compatibility
+			generator.writeObjectField("proxySettings", appVo.getProxySettings());
+			generator.writeBooleanField("darkMode", appVo.isDarkMode());
+			generator.writeStringField("theme", appVo.getTheme());
+			generator.writeEndObject();
+		}
+	}
+
+	private static byte[] readRange(FileChannel channel, Range range) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) (range.end() - range.start()));
+		long position = range.start();
+		while (buffer.hasRemaining()) {
+			int count = channel.read(buffer, position);
+			if (count < 0) {
+				throw new IOException("Workspace snapshot ended unexpectedly");
+			}
+			position += count;
+		}
+		return buffer.array();
+	}
+
+	private void replayJournal() throws IOException {
+		long validSize = 0;
+		boolean isNewlineMissing = false;
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(journalFile))) {
+			// Split on the bytes appended by append(), so validSize counts exactly what was read
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			int next;
+			do {
+				next = in.read();
+				if (next != '\n' && next != -1) {
+					line.write(next);
+					continue;
+				}
+				if (next == -1 && line.size() == 0) {
+					break;
+				}
+				String text = line.toString(StandardCharsets.UTF_8);
+				if (!text.isBlank()) {
+					JournalRecordVo record;
+					try {
+						record = recordReader.readValue(text);
+					} catch (IOException e) {
+						System.err.println("Ignoring incomplete journal record: " + e.getMessage());
+						break;
+					}
+					apply(record);
+				}
+				validSize += line.size() + (next == '\n' ? 1 : 0);
+				isNewlineMissing = next == -1;
+				line.reset();
+			} while (next != -1);
+		}
+		journalSize = validSize;
+		if (isReadOnly) {
+			return;
+		}
+		if (validSize < Files.size(journalFile)) {
+			getJournalChannel().truncate(validSize);
+		} else if (isNewlineMissing) {
+			// A complete last record without its newline; terminate it so the next append starts a new line
+			ByteBuffer newline = ByteBuffer.wrap(new byte[] { '\n' });
+			FileChannel channel = getJournalChannel();
+			while (newline.hasRemaining()) {
+				channel.write(newline);
+			}
+			channel.force(false);
+			journalSize++;
+		}
+	}
+
+	private void apply(JournalRecordVo record) {
+		if (record.getType() == null) {
+			return;
+		}
+		switch (record.getType()) {
+		case UPSERT_API:
+			apiMap.put(record.getId(), record.getApi());
+			stubRanges.remove(record.getId());
+			break;
+		case DELETE_API:
+			apiMap.remove(record.getId());
+			stubRanges.remove(record.getId());
+			break;
+		case UPSERT_GROUP:
+			groupMap.put(record.getId(), record.getGroup());
+			break;
+		case DELETE_GROUP:
+			groupMap.remove(record.getId());
+			break;
+		case SETTINGS:
+			settings = record.getSettings();
+			break;
+		}
+	}
+
+	/**
+	 * Creates a workspace with the settings and legacy fields, without requests or groups
+	 */
+	private AppVo createAppVo() {
+		AppVo appVo = new AppVo();
+		appVo.setSettings(settings);
+		// Legacy fields for backward compatibility, kept in step with the settings
+		if (settings != null) {
+			appVo.setProxySettings(settings.getProxySettings());
+			appVo.setTheme(settings.getTheme());
+		} else {
+			appVo.setProxySettings(legacyFields.getProxySettings());
+			appVo.setTheme(legacyFields.getTheme());
+			appVo.setDarkMode(legacyFields.isDarkMode());
+		}
+		return appVo;
+	}
+
+	private void checkWritable() {
+		if (isReadOnly) {
+			throw new IllegalStateException("The workspace store is read-only");
+		}
+	}
+
+	private FileChannel getJournalChannel() throws IOException {
+		checkWritable();
+		if (journalChannel == null) {
+			Files.createDirectories(journalFile.getParent());
+			journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+		}
+		return journalChannel;
+	}
+}
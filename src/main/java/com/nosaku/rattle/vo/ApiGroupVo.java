@@ -21,7 +21,7 @@
  */
 package com.nosaku.rattle.vo;
 
-public class ApiGroupVo {
+public class ApiGroupVo implements Cloneable {
 	private String id;
 	private String name;
 	private String parentId;
@@ -49,4 +49,13 @@ public class ApiGroupVo {
 	public void setParentId(String parentId) {
 		this.parentId = parentId;
 	}
+
+	@Override
+	public ApiGroupVo clone() {
+		try {
+			return (ApiGroupVo) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new AssertionError();
+		}
+	}
 }
@@ -21,8 +21,12 @@
  */
 package com.nosaku.rattle.vo;
 
+import java.net.http.HttpClient;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.nosaku.rattle.util.ResponseBody;
+
 public class ApiModelVo implements Cloneable {
 	private String id;
 	private String name;
@@ -43,6 +47,12 @@ public class ApiModelVo implements Cloneable {
 	private String authType;
 	private String authConfigId;
 	private String groupId;
+	private Integer requestTimeoutSeconds;
+	private HttpClient.Version httpVersion;
+	private HttpClient.Redirect redirectPolicy;
+	private ResponseBody responseBody;
+	private ExchangeTimingsVo timings;
+	private boolean isDetailsLoaded = true;
 
 	@Override
 	public String toString() {
@@ -232,4 +242,96 @@ public class ApiModelVo implements Cloneable {
 	public void setGroupId(String groupId) {
 		this.groupId = groupId;
 	}
+
+	/**
+	 * Per-request override of the profile's request timeout, null to inherit
+	 */
+	public Integer getRequestTimeoutSeconds() {
+		return requestTimeoutSeconds;
+	}
+
+	public void setRequestTimeoutSeconds(Integer requestTimeoutSeconds) {
+		this.requestTimeoutSeconds = requestTimeoutSeconds;
+	}
+
+	/**
+	 * Per-request override of the profile's HTTP version, null to inherit
+	 */
+	public HttpClient.Version getHttpVersion() {
+		return httpVersion;
+	}
+
+	public void setHttpVersion(HttpClient.Version httpVersion) {
+		this.httpVersion = httpVersion;
+	}
+
+	/**
+	 * Per-request override of the profile's redirect policy, null to inherit
+	 */
+	public HttpClient.Redirect getRedirectPolicy() {
+		return redirectPolicy;
+	}
+
+	public void setRedirectPolicy(HttpClient.Redirect redirectPolicy) {
+		this.redirectPolicy = redirectPolicy;
+	}
+
+	/**
+	 * Full response payload, possibly spilled to disk. Not persisted.
+	 */
+	@JsonIgnore
+	public ResponseBody getResponseBody() {
+		return responseBody;
+	}
+
+	@JsonIgnore
+	public void setResponseBody(ResponseBody responseBody) {
+		this.responseBody = responseBody;
+	}
+
+	/**
+	 * Where the time of the exchange went. Not persisted.
+	 */
+	@JsonIgnore
+	public ExchangeTimingsVo getTimings() {
+		return timings;
+	}
+
+	@JsonIgnore
+	public void setTimings(ExchangeTimingsVo timings) {
+		this.timings = timings;
+	}
+
+	/**
+	 * False for a stub read at startup that only carries the tree fields (id, name,
+	 * group and tab state); the rest is loaded on demand. Not persisted.
+	 */
+	@JsonIgnore
+	public boolean isDetailsLoaded() {
+		return isDetailsLoaded;
+	}
+
+	@JsonIgnore
+	public void setDetailsLoaded(boolean isDetailsLoaded) {
+		this.isDetailsLoaded = isDetailsLoaded;
+	}
+
+	/**
+	 * Fills a stub with the request details of a fully loaded copy, keeping the
+	 * tree fields that may have changed since the stub was read.
+	 */
+	public void loadDetails(ApiModelVo source) {
+		this.method = source.method;
+		this.url = source.url;
+		this.params = source.params;
+		this.headers = source.headers;
+		this.body = source.body;
+		this.statusCode = source.statusCode;
+		this.authType = source.authType;
+		this.authConfigId = source.authConfigId;
+		this.requestTimeoutSeconds = source.requestTimeoutSeconds;
+		this.httpVersion = source.httpVersion;
+		this.redirectPolicy = source.redirectPolicy;
+		this.isDetailsLoaded = true;
+	}
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.vo;
+
+/**
+ * Where the time of one exchange went. Phases are consecutive and in millis; a
+ * phase that could not be measured is null.
+ */
+public class ExchangeTimingsVo {
+	private Double queueMillis;
+	private Double dnsMillis;
+	private Double connectMillis;
+	private Double tlsMillis;
+	private Double writeMillis;
+	private Double ttfbMillis;
+	private Double downloadMillis;
+	private Double postProcessingMillis;
+	private Double totalMillis;
+
+	/**
+	 * Waiting for a free request slot and the auth token
+	 */
+	public Double getQueueMillis() {
+		return queueMillis;
+	}
+
+	public void setQueueMillis(Double queueMillis) {
+		this.queueMillis = queueMillis;
+	}
+
+	/**
+	 * Resolving the host name, null when the host is an address or a proxy
+	 * resolves it
+	 */
+	public Double getDnsMillis() {
+		return dnsMillis;
+	}
+
+	public void setDnsMillis(Double dnsMillis) {
+		this.dnsMillis = dnsMillis;
+	}
+
+	/**
+	 * Opening the TCP connection, 0 when a pooled connection was reused. Null for
+	 * plain HTTP without a request body, where it is part of the time to first byte.
+	 */
+	public Double getConnectMillis() {
+		return connectMillis;
+	}
+
+	public void setConnectMillis(Double connectMillis) {
+		this.connectMillis = connectMillis;
+	}
+
+	/**
+	 * TLS handshake, 0 when a pooled connection was reused, null for plain HTTP
+	 */
+	public Double getTlsMillis() {
+		return tlsMillis;
+	}
+
+	public void setTlsMillis(Double tlsMillis) {
+		this.tlsMillis = tlsMillis;
+	}
+
+	/**
+	 * Sending the request body, null when there is none
+	 */
+	public Double getWriteMillis() {
+		return writeMillis;
+	}
+
+	public void setWriteMillis(Double writeMillis) {
+		this.writeMillis = writeMillis;
+	}
+
+	/**
+	 * From the request being sent to the response headers arriving
+	 */
+	public Double getTtfbMillis() {
+		return ttfbMillis;
+	}
+
+	public void setTtfbMillis(Double ttfbMillis) {
+		this.ttfbMillis = ttfbMillis;
+	}
+
+	/**
+	 * Receiving the response body
+	 */
+	public Double getDownloadMillis() {
+		return downloadMillis;
+	}
+
+	public void setDownloadMillis(Double downloadMillis) {
+		this.downloadMillis = downloadMillis;
+	}
+
+	/**
+	 * Formatting and highlighting the response
+	 */
+	public Double getPostProcessingMillis() {
+		return postProcessingMillis;
+	}
+
+	public void setPostProcessingMillis(Double postProcessingMillis) {
+		this.postProcessingMillis = postProcessingMillis;
+	}
+
+	/**
+	 * From queueing to the end of the last measured phase
+	 */
+	public Double getTotalMillis() {
+		return totalMillis;
+	}
+
+	public void setTotalMillis(Double totalMillis) {
+		this.totalMillis = totalMillis;
+	}
+}
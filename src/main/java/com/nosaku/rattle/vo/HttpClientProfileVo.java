@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.vo;
+
+import java.net.http.HttpClient;
+
+import com.nosaku.rattle.util.CommonConstants;
+
+public class HttpClientProfileVo {
+	private int connectTimeoutSeconds = CommonConstants.DEFAULT_CONNECT_TIMEOUT_SECONDS;
+	private int requestTimeoutSeconds = CommonConstants.DEFAULT_REQUEST_TIMEOUT_SECONDS;
+	private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+	private HttpClient.Redirect redirectPolicy = HttpClient.Redirect.NEVER;
+
+	public HttpClientProfileVo() {
+	}
+
+	public HttpClientProfileVo(int connectTimeoutSeconds, int requestTimeoutSeconds, HttpClient.Version httpVersion,
+			HttpClient.Redirect redirectPolicy) {
+		this.connectTimeoutSeconds = connectTimeoutSeconds;
+		this.requestTimeoutSeconds = requestTimeoutSeconds;
+		this.httpVersion = httpVersion;
+		this.redirectPolicy = redirectPolicy;
+	}
+
+	/**
+	 * Seconds to wait for a connection to be established, 0 for no limit
+	 */
+	public int getConnectTimeoutSeconds() {
+		return connectTimeoutSeconds;
+	}
+
+	public void setConnectTimeoutSeconds(int connectTimeoutSeconds) {
+		this.connectTimeoutSeconds = connectTimeoutSeconds;
+	}
+
+	/**
+	 * Seconds to wait for the response headers of a request, 0 for no limit
+	 */
+	public int getRequestTimeoutSeconds() {
+		return requestTimeoutSeconds;
+	}
+
+	public void setRequestTimeoutSeconds(int requestTimeoutSeconds) {
+		this.requestTimeoutSeconds = requestTimeoutSeconds;
+	}
+
+	public HttpClient.Version getHttpVersion() {
+		return httpVersion;
+	}
+
+	public void setHttpVersion(HttpClient.Version httpVersion) {
+		this.httpVersion = httpVersion;
+	}
+
+	public HttpClient.Redirect getRedirectPolicy() {
+		return redirectPolicy;
+	}
+
+	public void setRedirectPolicy(HttpClient.Redirect redirectPolicy) {
+		this.redirectPolicy = redirectPolicy;
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of the workspace journal: an upsert or delete of a request or group,
+ * or a settings change.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalRecordVo {
+	public enum Type {
+		UPSERT_API, DELETE_API, UPSERT_GROUP, DELETE_GROUP, SETTINGS
+	}
+
+	private Type type;
+	private String id;
+	private ApiModelVo api;
+	private ApiGroupVo group;
+	private SettingsVo settings;
+
+	public JournalRecordVo() {
+	}
+
+	public static JournalRecordVo upsertApi(ApiModelVo api) {
+		JournalRecordVo record = new JournalRecordVo();
+		record.type = Type.UPSERT_API;
+		record.id = api.getId();
+		record.api = api;
+		return record;
+	}
+
+	public static JournalRecordVo deleteApi(String id) {
+		JournalRecordVo record = new JournalRecordVo();
+		record.type = Type.DELETE_API;
+		record.id = id;
+		return record;
+	}
+
+	public static JournalRecordVo upsertGroup(ApiGroupVo group) {
+		JournalRecordVo record = new JournalRecordVo();
+		record.type = Type.UPSERT_GROUP;
+		record.id = group.getId();
+		record.group = group;
+		return record;
+	}
+
+	public static JournalRecordVo deleteGroup(String id) {
+		JournalRecordVo record = new JournalRecordVo();
+		record.type = Type.DELETE_GROUP;
+		record.id = id;
+		return record;
+	}
+
+	public static JournalRecordVo settings(SettingsVo settings) {
+		JournalRecordVo record = new JournalRecordVo();
+		record.type = Type.SETTINGS;
+		record.settings = settings;
+		return record;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public void setType(Type type) {
+		this.type = type;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public ApiModelVo getApi() {
+		return api;
+	}
+
+	public void setApi(ApiModelVo api) {
+		this.api = api;
+	}
+
+	public ApiGroupVo getGroup() {
+		return group;
+	}
+
+	public void setGroup(ApiGroupVo group) {
+		this.group = group;
+	}
+
+	public SettingsVo getSettings() {
+		return settings;
+	}
+
+	public void setSettings(SettingsVo settings) {
+		this.settings = settings;
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2025 nosaku
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.nosaku.rattle.vo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of a load test: settings, throughput, latency percentiles and errors.
+ * Latencies are in milliseconds.
+ */
+public class LoadTestResultVo {
+	private String name;
+	private String model;
+	private int concurrency;
+	private int durationSeconds;
+	private double targetRate;
+	private long startedAt;
+	private long elapsedMillis;
+	private boolean isFinished;
+	private long totalCount;
+	private long successCount;
+	private long errorCount;
+	private double throughput;
+	private long missedSlots;
+	private double minMillis;
+	private double meanMillis;
+	private double p50Millis;
+	private double p90Millis;
+	private double p99Millis;
+	private double p999Millis;
+	private double maxMillis;
+	private Map<String, Long> errors = new LinkedHashMap<>();
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * CLOSED for virtual users sending back to back, OPEN for a constant arrival rate
+	 */
+	public String getModel() {
+		return model;
+	}
+
+	public void setModel(String model) {
+		this.model = model;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public void setDurationSeconds(int durationSeconds) {
+		this.durationSeconds = durationSeconds;
+	}
+
+	/**
+	 * Requests per second the test was limited to, 0 for as fast as possible
+	 */
+	public double getTargetRate() {
+		return targetRate;
+	}
+
+	public void setTargetRate(double targetRate) {
+		this.targetRate = targetRate;
+	}
+
+	public long getStartedAt() {
+		return startedAt;
+	}
+
+	public void setStartedAt(long startedAt) {
+		this.startedAt = startedAt;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public boolean isFinished() {
+		return isFinished;
+	}
+
+	public void setFinished(boolean isFinished) {
+		this.isFinished = isFinished;
+	}
+
+	/**
+	 * Requests that got a response, whatever the status, plus failed exchanges
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public void setTotalCount(long totalCount) {
+		this.totalCount = totalCount;
+	}
+
+	public long getSuccessCount() {
+		return successCount;
+	}
+
+	public void setSuccessCount(long successCount) {
+		this.successCount = successCount;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	public void setErrorCount(long errorCount) {
+		this.errorCount = errorCount;
+	}
+
+	/**
+	 * Completed requests per second
+	 */
+	public double getThroughput() {
+		return throughput;
+	}
+
+	public void setThroughput(double throughput) {
+		this.throughput = throughput;
+	}
+
+	/**
+	 * Open model only: sends that started a full interval or more after their slot
+	 */
+	public long getMissedSlots() {
+		return missedSlots;
+	}
+
+	public void setMissedSlots(long missedSlots) {
+		this.missedSlots = missedSlots;
+	}
+
+	public double getMinMillis() {
+		return minMillis;
+	}
+
+	public void setMinMillis(double minMillis) {
+		this.minMillis = minMillis;
+	}
+
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	public void setMeanMillis(double meanMillis) {
+		this.meanMillis = meanMillis;
+	}
+
+	public double getP50Millis() {
+		return p50Millis;
+	}
+
+	public void setP50Millis(double p50Millis) {
+		this.p50Millis = p50Millis;
+	}
+
+	public double getP90Millis() {
+		return p90Millis;
+	}
+
+	public void setP90Millis(double p90Millis) {
+		this.p90Millis = p90Millis;
+	}
+
+	public double getP99Millis() {
+		return p99Millis;
+	}
+
+	public void setP99Millis(double p99Millis) {
+		this.p99Millis = p99Millis;
+	}
+
+	public double getP999Millis() {
+		return p999Millis;
+	}
+
+	public void setP999Millis(double p999Millis) {
+		this.p999Millis = p999Millis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	public void setMaxMillis(double maxMillis) {
+		this.maxMillis = maxMillis;
+	}
+
+	/**
+	 * Error counts by kind, e.g. "HTTP 503" or "HttpTimeoutException"
+	 */
+	public Map<String, Long> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(Map<String, Long> errors) {
+		this.errors = errors;
+	}
+}
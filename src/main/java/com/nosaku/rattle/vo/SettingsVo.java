@@ -21,9 +21,19 @@
  */
 package com.nosaku.rattle.vo;
 
+import com.nosaku.rattle.util.CommonConstants;
+
 public class SettingsVo {
 	private String theme;
 	private ProxySettingsVo proxySettings;
+	private int maxConcurrentRequests = CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS;
+	private int maxConcurrentRequestsPerHost = CommonConstants.DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST;
+	private HttpClientProfileVo clientProfile = new HttpClientProfileVo();
+	private int maxHighlightedResponseChars = CommonConstants.DEFAULT_MAX_HIGHLIGHTED_RESPONSE_CHARS;
+	private int consoleBufferChars = CommonConstants.DEFAULT_CONSOLE_BUFFER_CHARS;
+	private int tabIdleUnloadMinutes = CommonConstants.DEFAULT_TAB_IDLE_UNLOAD_MINUTES;
+	private int tokenRefreshPercent = CommonConstants.DEFAULT_TOKEN_REFRESH_PERCENT;
+	private boolean isPersistTokenCache = false;
 	
 	public SettingsVo() {
 	}
@@ -48,4 +58,85 @@ public class SettingsVo {
 	public void setProxySettings(ProxySettingsVo proxySettings) {
 		this.proxySettings = proxySettings;
 	}
+	
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+	
+	public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+	
+	public int getMaxConcurrentRequestsPerHost() {
+		return maxConcurrentRequestsPerHost;
+	}
+	
+	public void setMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+		this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+	}
+	
+	public HttpClientProfileVo getClientProfile() {
+		return clientProfile;
+	}
+	
+	public void setClientProfile(HttpClientProfileVo clientProfile) {
+		this.clientProfile = clientProfile;
+	}
+	
+	/**
+	 * Responses longer than this are shown as plain text
+	 */
+	public int getMaxHighlightedResponseChars() {
+		return maxHighlightedResponseChars;
+	}
+	
+	public void setMaxHighlightedResponseChars(int maxHighlightedResponseChars) {
+		this.maxHighlightedResponseChars = maxHighlightedResponseChars;
+	}
+	
+	/**
+	 * Characters each console keeps in memory before archiving older lines to disk
+	 */
+	public int getConsoleBufferChars() {
+		return consoleBufferChars;
+	}
+	
+	public void setConsoleBufferChars(int consoleBufferChars) {
+		this.consoleBufferChars = consoleBufferChars;
+	}
+	
+	/**
+	 * Minutes an unmodified tab may stay in the background before its content is
+	 * dropped and rebuilt on the next visit; 0 keeps tabs loaded
+	 */
+	public int getTabIdleUnloadMinutes() {
+		return tabIdleUnloadMinutes;
+	}
+	
+	public void setTabIdleUnloadMinutes(int tabIdleUnloadMinutes) {
+		this.tabIdleUnloadMinutes = tabIdleUnloadMinutes;
+	}
+	
+	/**
+	 * Share of an OAuth2 token's lifetime after which it is renewed in the
+	 * background; 0 only fetches tokens when a request finds them expired
+	 */
+	public int getTokenRefreshPercent() {
+		return tokenRefreshPercent;
+	}
+	
+	public void setTokenRefreshPercent(int tokenRefreshPercent) {
+		this.tokenRefreshPercent = tokenRefreshPercent;
+	}
+	
+	/**
+	 * Whether OAuth2 tokens are kept, encrypted, under ~/.rattle across restarts
+	 */
+	public boolean isPersistTokenCache() {
+		return isPersistTokenCache;
+	}
+	
+	public void setPersistTokenCache(boolean isPersistTokenCache) {
+		this.isPersistTokenCache = isPersistTokenCache;
+	}
 }